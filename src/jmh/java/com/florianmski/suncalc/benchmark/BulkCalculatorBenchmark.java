@@ -0,0 +1,84 @@
+package com.florianmski.suncalc.benchmark;
+
+import com.florianmski.suncalc.BulkCalculator;
+import com.florianmski.suncalc.utils.PhaseUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of {@link BulkCalculator} with the parallelism of its pool.
+ * <p>
+ *  Every benchmark evaluates {@link #SIZE} random locations; compare the scores of the {@code parallelism} values
+ *  (1 up to the number of cores) to get the speedup.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class BulkCalculatorBenchmark
+{
+    /** Number of locations */
+    private static final int SIZE = 100000;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int parallelism;
+
+    @Param({"1024"})
+    public int grainSize;
+
+    private ForkJoinPool pool;
+    private BulkCalculator calculator;
+    private LocalDate date;
+    private long time;
+    private double[] lats, lngs, azimuths, altitudes;
+    private long[] times;
+
+    @Setup
+    public void setUp()
+    {
+        pool = new ForkJoinPool(parallelism);
+        calculator = new BulkCalculator(pool, grainSize);
+        date = LocalDate.of(2013, 12, 1);
+        time = date.atStartOfDay().toEpochSecond(ZoneOffset.UTC) * 1000L + 43200000L;
+
+        Random random = new Random(42);
+        lats = new double[SIZE];
+        lngs = new double[SIZE];
+        for (int i = 0; i < SIZE; i++)
+        {
+            lats[i] = random.nextDouble() * 180 - 90;
+            lngs[i] = random.nextDouble() * 360 - 180;
+        }
+        azimuths = new double[SIZE];
+        altitudes = new double[SIZE];
+        times = new long[SIZE * PhaseUtils.EVENT_COUNT];
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public double[] sunPositions()
+    {
+        calculator.getSunPositions(time, lats, lngs, azimuths, altitudes);
+        return altitudes;
+    }
+
+    @Benchmark
+    public long[] eventTimes()
+    {
+        calculator.getEventTimes(date, lats, lngs, times);
+        return times;
+    }
+}
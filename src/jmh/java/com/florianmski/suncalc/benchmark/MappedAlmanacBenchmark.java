@@ -0,0 +1,78 @@
+package com.florianmski.suncalc.benchmark;
+
+import com.florianmski.suncalc.MappedAlmanac;
+import com.florianmski.suncalc.models.Observer;
+import com.florianmski.suncalc.models.SunPhase;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a lookup in a {@link MappedAlmanac} of a thousand locations over a year, at random locations and days.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MappedAlmanacBenchmark
+{
+    private static final int SITES = 1000;
+    private static final int DAYS = 365;
+    private static final LocalDate START = LocalDate.of(2013, 1, 1);
+
+    /** Number of precalculated random lookups */
+    private static final int LOOKUPS = 4096;
+
+    private Path file;
+    private MappedAlmanac almanac;
+    private int[] sites;
+    private long[] days;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        Random random = new Random(42);
+        Observer[] observers = new Observer[SITES];
+        for (int i = 0; i < SITES; i++)
+            observers[i] = new Observer(-60 + 120 * random.nextDouble(), -180 + 360 * random.nextDouble());
+
+        file = Files.createTempFile("almanac", ".bin");
+        MappedAlmanac.write(file, observers, START, DAYS, ForkJoinPool.commonPool());
+        almanac = MappedAlmanac.open(file);
+
+        sites = new int[LOOKUPS];
+        days = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++)
+        {
+            sites[i] = random.nextInt(SITES);
+            days[i] = START.toEpochDay() + random.nextInt(DAYS);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        Files.deleteIfExists(file);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor
+    {
+        int i;
+    }
+
+    @Benchmark
+    public long sunriseLookup(Cursor cursor)
+    {
+        int i = cursor.i++ & (LOOKUPS - 1);
+        return almanac.getStartTime(sites[i], days[i], SunPhase.Name.SUNRISE);
+    }
+}
@@ -0,0 +1,138 @@
+package com.florianmski.suncalc.benchmark;
+
+import com.florianmski.suncalc.SunCalc;
+import com.florianmski.suncalc.models.GeocentricCoordinates;
+import com.florianmski.suncalc.models.MoonPosition;
+import com.florianmski.suncalc.models.Observer;
+import com.florianmski.suncalc.models.SunPosition;
+import com.florianmski.suncalc.utils.DateUtils;
+import com.florianmski.suncalc.utils.MathStrategy;
+import com.florianmski.suncalc.utils.MoonUtils;
+import com.florianmski.suncalc.utils.PhaseUtils;
+import com.florianmski.suncalc.utils.PositionUtils;
+
+import java.util.Random;
+
+/**
+ * Worst-case error of {@link MathStrategy#FAST} compared with {@link MathStrategy#STRICT}, over the years 1900 to 2100
+ * and every latitude. Run with:
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.main=com.florianmski.suncalc.benchmark.MathStrategyAccuracy -Djmh.args=
+ * </pre>
+ * The throughput of both strategies is measured by {@link MathStrategyBenchmark}.
+ * <p>
+ *  Two calculations are ill-conditioned whatever the strategy, so they are reported apart: the refraction correction
+ *  of the moon has poles below the horizon, and event times change quickly with the declination when
+ *  the sun barely reaches the altitude of the event, which is common near the poles.
+ * </p>
+ */
+public class MathStrategyAccuracy
+{
+    private static final long START = -2208988800000L;  // 1900-01-01T00:00:00Z
+    private static final long END = 4102444800000L;     // 2100-01-01T00:00:00Z
+
+    /** About a week, not a whole number of days so every time of the day is sampled */
+    private static final long STEP = 7 * DateUtils.DAY_MS + 11835791L;
+
+    /** Lowest altitude of the moon compared, above the poles of its refraction correction */
+    private static final double MIN_MOON_ALTITUDE = 0;
+
+    /** Histogram of the event time errors, by second */
+    private static final int MAX_SECONDS = 3600;
+
+    public static void main(String[] args)
+    {
+        Random random = new Random(42);
+        MathStrategy fast = MathStrategy.FAST;
+
+        long samples = 0;
+        double sunError = 0, moonError = 0, eventError = 0;
+        long eventMismatches = 0;
+        long[] eventErrors = new long[MAX_SECONDS + 1];
+        long[] strictEvents = new long[PhaseUtils.EVENT_COUNT];
+        long[] fastEvents = new long[PhaseUtils.EVENT_COUNT];
+
+        for (long time = START; time < END; time += STEP)
+        {
+            double d = DateUtils.toDays(time);
+            for (int lat = -89; lat <= 89; lat++)
+            {
+                Observer observer = new Observer(lat + random.nextDouble() - 0.5, random.nextDouble() * 360 - 180);
+
+                SunPosition sun = SunCalc.getSunPosition(time, observer);
+                SunPosition fastSun = SunCalc.getSunPosition(time, observer, fast);
+                sunError = Math.max(sunError, getSeparation(sun.getAzimuth(), sun.getAltitude(), fastSun.getAzimuth(), fastSun.getAltitude()));
+
+                MoonPosition moon = SunCalc.getMoonPosition(time, observer);
+                MoonPosition fastMoon = SunCalc.getMoonPosition(time, observer, fast);
+                if (getMoonAltitude(d, observer) > MIN_MOON_ALTITUDE)
+                    moonError = Math.max(moonError, getSeparation(moon.getAzimuth(), moon.getAltitude(), fastMoon.getAzimuth(), fastMoon.getAltitude()));
+
+                PhaseUtils.getEventTimes(d, observer, strictEvents, 0);
+                PhaseUtils.getEventTimes(d, observer, fast, fastEvents, 0);
+                for (int event = 0; event < PhaseUtils.EVENT_COUNT; event++)
+                {
+                    // events the sun never reaches have a time of 0, they can differ just at the limit
+                    if ((strictEvents[event] == 0) != (fastEvents[event] == 0))
+                        eventMismatches++;
+                    else
+                    {
+                        double error = Math.abs(strictEvents[event] - fastEvents[event]) / 1000.0;
+                        eventError = Math.max(eventError, error);
+                        eventErrors[(int) Math.min(MAX_SECONDS, Math.ceil(error))]++;
+                    }
+                }
+                samples++;
+            }
+        }
+
+        System.out.printf("samples:                %d%n", samples);
+        System.out.printf("sun position error:     %.3g degrees%n", sunError);
+        System.out.printf("moon position error:    %.3g degrees (above the horizon)%n", moonError);
+        System.out.printf("event time error:       %.3g seconds%n", eventError);
+        System.out.printf("event time error:       %d seconds (99.9%%)%n", getPercentile(eventErrors, 0.999));
+        System.out.printf("events only reached by one strategy: %d%n", eventMismatches);
+    }
+
+    /**
+     * @return altitude of the moon before the refraction correction, in radians
+     */
+    private static double getMoonAltitude(double d, Observer observer)
+    {
+        // the correction can throw the altitude anywhere near its pole, so the corrected one cannot be used instead
+        GeocentricCoordinates c = MoonUtils.getMoonCoords(d);
+        double H = PositionUtils.getSiderealTime(d, observer.getLw()) - c.getRightAscension();
+        return PositionUtils.getAltitude(H, observer.getPhi(), c.getDeclination());
+    }
+
+    /**
+     * @return smallest number of seconds greater than or equal to the given fraction of the errors
+     */
+    private static int getPercentile(long[] histogram, double fraction)
+    {
+        long total = 0;
+        for (long count : histogram)
+            total += count;
+
+        long count = 0;
+        for (int seconds = 0; seconds < histogram.length; seconds++)
+        {
+            count += histogram[seconds];
+            if (count >= fraction * total)
+                return seconds;
+        }
+        return histogram.length - 1;
+    }
+
+    /**
+     * @return angle between two directions of the sky, in degrees
+     */
+    private static double getSeparation(double azimuth1, double altitude1, double azimuth2, double altitude2)
+    {
+        double x1 = Math.cos(altitude1) * Math.cos(azimuth1), y1 = Math.cos(altitude1) * Math.sin(azimuth1), z1 = Math.sin(altitude1);
+        double x2 = Math.cos(altitude2) * Math.cos(azimuth2), y2 = Math.cos(altitude2) * Math.sin(azimuth2), z2 = Math.sin(altitude2);
+
+        double cx = y1 * z2 - z1 * y2, cy = z1 * x2 - x1 * z2, cz = x1 * y2 - y1 * x2;
+        return Math.toDegrees(Math.atan2(Math.sqrt(cx * cx + cy * cy + cz * cz), x1 * x2 + y1 * y2 + z1 * z2));
+    }
+}
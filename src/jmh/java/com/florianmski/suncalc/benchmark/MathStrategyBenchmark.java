@@ -0,0 +1,74 @@
+package com.florianmski.suncalc.benchmark;
+
+import com.florianmski.suncalc.SunCalc;
+import com.florianmski.suncalc.models.MoonPosition;
+import com.florianmski.suncalc.models.Observer;
+import com.florianmski.suncalc.utils.DateUtils;
+import com.florianmski.suncalc.utils.MathStrategy;
+import com.florianmski.suncalc.utils.PhaseUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the calculations with each {@link MathStrategy}, the accuracy of the fast one being measured by
+ * {@link MathStrategyAccuracy}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MathStrategyBenchmark
+{
+    /** Number of moments in the batch benchmark */
+    private static final int BATCH_SIZE = 1024;
+
+    @Param({"STRICT", "FAST"})
+    public String strategy;
+
+    @Param({"POLAR", "EQUATORIAL", "MID_LATITUDE"})
+    public SunCalcBenchmark.Location location;
+
+    private MathStrategy math;
+    private Observer observer;
+    private long[] times;
+    private double[] azimuths, altitudes;
+    private long[] events;
+
+    @Setup
+    public void setUp()
+    {
+        math = "FAST".equals(strategy) ? MathStrategy.FAST : MathStrategy.STRICT;
+        observer = new Observer(location.lat, location.lng);
+
+        times = new long[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++)
+            times[i] = 1385899200000L + i * 60000L;  // 2013-12-01T12:00:00Z, every minute
+        azimuths = new double[BATCH_SIZE];
+        altitudes = new double[BATCH_SIZE];
+        events = new long[PhaseUtils.EVENT_COUNT];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public double[] sunPositions()
+    {
+        SunCalc.getSunPositions(times, 0, BATCH_SIZE, observer, math, azimuths, altitudes);
+        return altitudes;
+    }
+
+    @Benchmark
+    public MoonPosition moonPosition()
+    {
+        return SunCalc.getMoonPosition(times[0], observer, math);
+    }
+
+    @Benchmark
+    public long[] eventTimes()
+    {
+        PhaseUtils.getEventTimes(DateUtils.toDays(times[0]), observer, math, events, 0);
+        return events;
+    }
+}
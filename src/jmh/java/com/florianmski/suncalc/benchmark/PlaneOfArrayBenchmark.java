@@ -0,0 +1,84 @@
+package com.florianmski.suncalc.benchmark;
+
+import com.florianmski.suncalc.PlaneOfArray;
+import com.florianmski.suncalc.SunCalc;
+import com.florianmski.suncalc.models.Observer;
+import com.florianmski.suncalc.models.SunPosition;
+import com.florianmski.suncalc.models.Surfaces;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the incidence of the sun on many panels sharing a location, in moments per millisecond: with
+ * {@link PlaneOfArray}, and derived from a {@link SunPosition} per moment as a caller of {@link SunCalc} would do.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class PlaneOfArrayBenchmark
+{
+    /** Number of moments per invocation */
+    private static final int MOMENTS = 96;
+
+    @Param({"1", "16", "256"})
+    public int panels;
+
+    private Observer observer;
+    private Surfaces surfaces;
+    private double[] tilts, azimuths;
+    private long[] times;
+    private double[] cosines;
+
+    @Setup
+    public void setUp()
+    {
+        observer = new Observer(48.818684, 2.323096);
+
+        Random random = new Random(42);
+        tilts = new double[panels];
+        azimuths = new double[panels];
+        for (int i = 0; i < panels; i++)
+        {
+            tilts[i] = 10 + 30 * random.nextDouble();
+            azimuths[i] = 120 + 120 * random.nextDouble();
+        }
+        surfaces = new Surfaces(tilts, azimuths);
+
+        times = new long[MOMENTS];
+        for (int i = 0; i < MOMENTS; i++)
+            times[i] = 1370044800000L + i * 900000L;  // 2013-06-01T00:00:00Z, every quarter of an hour
+        cosines = new double[MOMENTS * panels];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MOMENTS)
+    public double[] planeOfArray()
+    {
+        PlaneOfArray.getIncidenceCosines(times, observer, surfaces, cosines);
+        return cosines;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MOMENTS)
+    public double[] sunPositions()
+    {
+        for (int t = 0; t < MOMENTS; t++)
+        {
+            SunPosition position = SunCalc.getSunPosition(times[t], observer);
+            double cosAltitude = Math.cos(position.getAltitude());
+            double sinAltitude = Math.sin(position.getAltitude());
+            for (int i = 0; i < panels; i++)
+            {
+                double tilt = Math.toRadians(tilts[i]);
+                cosines[t * panels + i] = Math.cos(tilt) * sinAltitude
+                        + Math.sin(tilt) * cosAltitude * Math.cos(position.getAzimuth() - Math.toRadians(azimuths[i]));
+            }
+        }
+        return cosines;
+    }
+}
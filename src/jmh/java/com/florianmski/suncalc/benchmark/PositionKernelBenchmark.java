@@ -0,0 +1,71 @@
+package com.florianmski.suncalc.benchmark;
+
+import com.florianmski.suncalc.PositionKernel;
+import com.florianmski.suncalc.models.Observer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the batch position kernels, in positions per microsecond, for lanes of locations sharing a moment and
+ * for lanes of moments sharing a location. The {@code default} kernel is the Vector API one when building and running
+ * with Java 16 or later (the java16 profile puts its classes first on the class path and resolves the incubator
+ * module), else the same as {@code scalar}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class PositionKernelBenchmark
+{
+    /** Number of positions per invocation */
+    private static final int LANES = 1024;
+
+    @Param({"scalar", "default"})
+    public String kernel;
+
+    private PositionKernel positionKernel;
+    private Observer observer;
+    private double[] lats, lngs;
+    private long[] times;
+    private double[] azimuths, altitudes;
+
+    @Setup
+    public void setUp()
+    {
+        positionKernel = "scalar".equals(kernel) ? PositionKernel.SCALAR : PositionKernel.getDefault();
+        observer = new Observer(48.818684, 2.323096);
+
+        Random random = new Random(42);
+        lats = new double[LANES];
+        lngs = new double[LANES];
+        times = new long[LANES];
+        for (int i = 0; i < LANES; i++)
+        {
+            lats[i] = -90 + 180 * random.nextDouble();
+            lngs[i] = -180 + 360 * random.nextDouble();
+            times[i] = 1370044800000L + i * 60000L;  // 2013-06-01T00:00:00Z, every minute
+        }
+        azimuths = new double[LANES];
+        altitudes = new double[LANES];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LANES)
+    public double[] locations()
+    {
+        positionKernel.getSunPositions(times[0], lats, lngs, 0, LANES, azimuths, altitudes);
+        return altitudes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LANES)
+    public double[] moments()
+    {
+        positionKernel.getSunPositions(times, 0, LANES, observer, azimuths, altitudes);
+        return altitudes;
+    }
+}
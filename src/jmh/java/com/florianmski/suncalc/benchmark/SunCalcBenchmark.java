@@ -0,0 +1,133 @@
+package com.florianmski.suncalc.benchmark;
+
+import com.florianmski.suncalc.SunCalc;
+import com.florianmski.suncalc.SunPositionSeries;
+import com.florianmski.suncalc.models.DailySolarEvents;
+import com.florianmski.suncalc.models.MoonPosition;
+import com.florianmski.suncalc.models.Observer;
+import com.florianmski.suncalc.models.SunPhase;
+import com.florianmski.suncalc.models.SunPosition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the public {@link SunCalc} entry points.
+ * <p>
+ *  Every benchmark runs once on a single thread ({@link SingleThread}) and once with as many threads as there are
+ *  cores ({@link Contended}), for a polar, an equatorial and a mid-latitude location in several time zones. Run with
+ *  the GC profiler (the default of the benchmark profile) to also get the allocation rate.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public abstract class SunCalcBenchmark
+{
+    public enum Location
+    {
+        POLAR(78.2232, 15.6267),
+        EQUATORIAL(-0.1807, -78.4678),
+        MID_LATITUDE(48.818684, 2.323096);
+
+        final double lat, lng;
+
+        Location(double lat, double lng)
+        {
+            this.lat = lat;
+            this.lng = lng;
+        }
+    }
+
+    /** Number of moments in the batch benchmark */
+    private static final int BATCH_SIZE = 1024;
+
+    @Param({"POLAR", "EQUATORIAL", "MID_LATITUDE"})
+    public Location location;
+
+    @Param({"UTC", "America/New_York", "Asia/Kolkata"})
+    public String timeZone;
+
+    private Calendar date;
+    private Observer observer;
+    private long[] times;
+    private double[] azimuths, altitudes;
+
+    @Setup
+    public void setUp()
+    {
+        date = Calendar.getInstance(TimeZone.getTimeZone(timeZone));
+        date.set(2013, Calendar.DECEMBER, 1, 12, 0, 0);
+        date.set(Calendar.MILLISECOND, 0);
+        date.getTimeInMillis();
+        observer = new Observer(location.lat, location.lng);
+
+        times = new long[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++)
+            times[i] = date.getTimeInMillis() + i * 60000L;
+        azimuths = new double[BATCH_SIZE];
+        altitudes = new double[BATCH_SIZE];
+    }
+
+    @Benchmark
+    public SunPosition sunPosition()
+    {
+        return SunCalc.getSunPosition(date, location.lat, location.lng);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public double[] sunPositions()
+    {
+        SunCalc.getSunPositions(times, location.lat, location.lng, azimuths, altitudes);
+        return altitudes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public double[] sunPositionSeries()
+    {
+        SunPositionSeries.getSunPositions(times[0], 60000L, BATCH_SIZE, observer, azimuths, altitudes);
+        return altitudes;
+    }
+
+    @Benchmark
+    public MoonPosition moonPosition()
+    {
+        return SunCalc.getMoonPosition(date, location.lat, location.lng);
+    }
+
+    @Benchmark
+    public double moonFraction()
+    {
+        return SunCalc.getMoonFraction(date);
+    }
+
+    @Benchmark
+    public List<SunPhase> phases()
+    {
+        return SunCalc.getPhases(date, location.lat, location.lng);
+    }
+
+    @Benchmark
+    public DailySolarEvents solarEvents()
+    {
+        return SunCalc.getSolarEvents(date, location.lat, location.lng);
+    }
+
+    @Threads(1)
+    public static class SingleThread extends SunCalcBenchmark
+    {
+    }
+
+    @Threads(Threads.MAX)
+    public static class Contended extends SunCalcBenchmark
+    {
+    }
+}
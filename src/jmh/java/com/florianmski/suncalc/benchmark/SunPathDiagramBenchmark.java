@@ -0,0 +1,92 @@
+package com.florianmski.suncalc.benchmark;
+
+import com.florianmski.suncalc.SunCalc;
+import com.florianmski.suncalc.SunPathDiagram;
+import com.florianmski.suncalc.models.Observer;
+import com.florianmski.suncalc.models.SunPosition;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to calculate the sun-path diagram of a year with hourly paths, with a {@link Calendar} and a call to
+ * {@link SunCalc#getSunPosition(Calendar, double, double)} per position, or with {@link SunPathDiagram} in a single
+ * thread and across the months in the common pool.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SunPathDiagramBenchmark
+{
+    private static final int YEAR = 2013;
+
+    private final Observer observer = new Observer(48.818684, 2.323096);
+    private final ZoneOffset offset = ZoneOffset.ofHours(1);
+
+    private double[] pathAzimuths, pathAltitudes;
+    private double[] analemmaAzimuths, analemmaAltitudes;
+
+    @Setup
+    public void setUp()
+    {
+        pathAzimuths = new double[SunPathDiagram.getPathsLength(1)];
+        pathAltitudes = new double[pathAzimuths.length];
+        analemmaAzimuths = new double[SunPathDiagram.getAnalemmasLength(YEAR)];
+        analemmaAltitudes = new double[analemmaAzimuths.length];
+    }
+
+    @Benchmark
+    public double[] calendar()
+    {
+        TimeZone timeZone = TimeZone.getTimeZone(offset);
+        int days = analemmaAzimuths.length / SunPathDiagram.HOURS;
+        for (int month = 0; month < SunPathDiagram.MONTHS; month++)
+        {
+            for (int hour = 0; hour < SunPathDiagram.HOURS; hour++)
+            {
+                Calendar date = Calendar.getInstance(timeZone);
+                date.clear();
+                date.set(YEAR, month, SunPathDiagram.PATH_DAY_OF_MONTH, hour, 0);
+                SunPosition position = SunCalc.getSunPosition(date, observer.getLatitude(), observer.getLongitude());
+                pathAzimuths[month * SunPathDiagram.HOURS + hour] = position.getAzimuth();
+                pathAltitudes[month * SunPathDiagram.HOURS + hour] = position.getAltitude();
+            }
+        }
+        for (int hour = 0; hour < SunPathDiagram.HOURS; hour++)
+        {
+            for (int day = 0; day < days; day++)
+            {
+                Calendar date = Calendar.getInstance(timeZone);
+                date.clear();
+                date.set(YEAR, Calendar.JANUARY, 1 + day, hour, 0);
+                SunPosition position = SunCalc.getSunPosition(date, observer.getLatitude(), observer.getLongitude());
+                analemmaAzimuths[hour * days + day] = position.getAzimuth();
+                analemmaAltitudes[hour * days + day] = position.getAltitude();
+            }
+        }
+        return analemmaAltitudes;
+    }
+
+    @Benchmark
+    public double[] diagram()
+    {
+        SunPathDiagram.getSunPaths(observer, YEAR, offset, 1,
+                pathAzimuths, pathAltitudes, analemmaAzimuths, analemmaAltitudes);
+        return analemmaAltitudes;
+    }
+
+    @Benchmark
+    public double[] diagramParallel()
+    {
+        SunPathDiagram.getSunPaths(observer, YEAR, offset, 1,
+                pathAzimuths, pathAltitudes, analemmaAzimuths, analemmaAltitudes, ForkJoinPool.commonPool());
+        return analemmaAltitudes;
+    }
+}
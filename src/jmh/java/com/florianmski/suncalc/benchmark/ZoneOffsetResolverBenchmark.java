@@ -0,0 +1,72 @@
+package com.florianmski.suncalc.benchmark;
+
+import com.florianmski.suncalc.utils.DateUtils;
+import com.florianmski.suncalc.utils.ZoneOffsetResolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the conversions of instants to Julian dates in a timezone, in conversions per microsecond, asking the
+ * timezone for every offset as {@link DateUtils#toJulian(java.util.Calendar)} does, or resolving them with a
+ * {@link ZoneOffsetResolver}, one at a time and in bulk.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ZoneOffsetResolverBenchmark
+{
+    /** Number of instants per invocation */
+    private static final int SIZE = 1024;
+
+    private TimeZone timeZone;
+    private ZoneOffsetResolver resolver;
+    private long[] times;
+    private double[] julians;
+
+    @Setup
+    public void setUp()
+    {
+        timeZone = TimeZone.getTimeZone("Europe/Paris");
+        long from = 946684800000L;  // 2000-01-01T00:00:00Z
+        long to = 1893456000000L;   // 2030-01-01T00:00:00Z
+        resolver = new ZoneOffsetResolver(timeZone, from, to);
+
+        Random random = new Random(42);
+        times = new long[SIZE];
+        for (int i = 0; i < SIZE; i++)
+            times[i] = from + (long) ((to - from) * random.nextDouble());
+        julians = new double[SIZE];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double[] timeZone()
+    {
+        for (int i = 0; i < SIZE; i++)
+            julians[i] = DateUtils.toJulian(times[i] + timeZone.getOffset(times[i]));
+        return julians;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double[] resolver()
+    {
+        for (int i = 0; i < SIZE; i++)
+            julians[i] = resolver.toJulian(times[i]);
+        return julians;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public double[] resolverBulk()
+    {
+        resolver.toJulian(times, 0, SIZE, julians);
+        return julians;
+    }
+}
@@ -0,0 +1,461 @@
+package com.florianmski.suncalc;
+
+import com.florianmski.suncalc.models.EquatorialCoordinates;
+import com.florianmski.suncalc.models.GeocentricCoordinates;
+import com.florianmski.suncalc.models.Observer;
+import com.florianmski.suncalc.models.SunPhase;
+import com.florianmski.suncalc.utils.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Parallel calculations for large sets of locations.
+ * <p>
+ *  Locations are given either as latitude/longitude arrays or as a {@link Spliterator} of observers, which must be
+ *  {@link Spliterator#SIZED} and {@link Spliterator#SUBSIZED} (e.g. one over an array or an {@link ArrayList}) so
+ *  every location has a known index. The work is split with a {@link ForkJoinPool} down to chunks of at most the grain
+ *  size, and results are written into preallocated primitive arrays, at the index of the location.
+ * </p>
+ * <p>
+ *  A calculator is immutable and can be shared by any number of threads. Tasks only read their inputs and write the
+ *  disjoint slice of the outputs belonging to their locations, so concurrent calls are safe as long as they do not
+ *  write into the same arrays.
+ * </p>
+ */
+public final class BulkCalculator
+{
+    /** Default maximum number of locations evaluated by a single task */
+    public static final int DEFAULT_GRAIN_SIZE = 1024;
+
+    private static final LocalTime END_OF_DAY = LocalTime.of(23, 59, 59, 999000000);
+
+    private final ForkJoinPool pool;
+    private final int grainSize;
+
+    /**
+     * @param pool pool running the calculations
+     */
+    public BulkCalculator(ForkJoinPool pool)
+    {
+        this(pool, DEFAULT_GRAIN_SIZE);
+    }
+
+    /**
+     * @param pool pool running the calculations
+     * @param grainSize maximum number of locations evaluated by a single task
+     */
+    public BulkCalculator(ForkJoinPool pool, int grainSize)
+    {
+        if (grainSize <= 0)
+            throw new IllegalArgumentException("grainSize must be positive, got " + grainSize);
+
+        this.pool = pool;
+        this.grainSize = grainSize;
+    }
+
+    /**
+     * @return pool running the calculations
+     */
+    public ForkJoinPool getPool()
+    {
+        return pool;
+    }
+
+    /**
+     * @return maximum number of locations evaluated by a single task
+     */
+    public int getGrainSize()
+    {
+        return grainSize;
+    }
+
+    /**
+     * Calculates the sun's position at a particular moment for every location, same as
+     * {@link PositionGrid#getSunPositions(long, double[], double[], double[], double[])}
+     *
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param lats latitudes, measured from North, in degrees
+     * @param lngs longitudes, measured from East, in degrees
+     * @param azimuths receives the azimuth for each location, in radians, with NORTH as zero
+     * @param altitudes receives the altitude for each location, in radians
+     */
+    public void getSunPositions(long epochMillis, double[] lats, double[] lngs, double[] azimuths, double[] altitudes)
+    {
+        checkPositions(lats.length, lngs.length, azimuths, altitudes);
+        pool.invoke(new ArrayTask(getSunBody(epochMillis, azimuths, altitudes), lats, lngs, 0, lats.length, grainSize));
+    }
+
+    /**
+     * Calculates the sun's position at a particular moment for every location
+     *
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param observers the locations to calculate for
+     * @param azimuths receives the azimuth for each location, in radians, with NORTH as zero
+     * @param altitudes receives the altitude for each location, in radians
+     */
+    public void getSunPositions(long epochMillis, Spliterator<Observer> observers, double[] azimuths, double[] altitudes)
+    {
+        int size = getSize(observers);
+        checkPositions(size, size, azimuths, altitudes);
+        pool.invoke(new SpliteratorTask(getSunBody(epochMillis, azimuths, altitudes), observers, 0, grainSize));
+    }
+
+    /**
+     * Calculates the moon's position at a particular moment for every location, same as
+     * {@link PositionGrid#getMoonPositions(long, double[], double[], double[], double[])}
+     *
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param lats latitudes, measured from North, in degrees
+     * @param lngs longitudes, measured from East, in degrees
+     * @param azimuths receives the azimuth for each location, in radians, with NORTH as zero
+     * @param altitudes receives the altitude for each location, corrected for refraction, in radians
+     */
+    public void getMoonPositions(long epochMillis, double[] lats, double[] lngs, double[] azimuths, double[] altitudes)
+    {
+        checkPositions(lats.length, lngs.length, azimuths, altitudes);
+        pool.invoke(new ArrayTask(getMoonBody(epochMillis, azimuths, altitudes), lats, lngs, 0, lats.length, grainSize));
+    }
+
+    /**
+     * Calculates the moon's position at a particular moment for every location
+     *
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param observers the locations to calculate for
+     * @param azimuths receives the azimuth for each location, in radians, with NORTH as zero
+     * @param altitudes receives the altitude for each location, corrected for refraction, in radians
+     */
+    public void getMoonPositions(long epochMillis, Spliterator<Observer> observers, double[] azimuths, double[] altitudes)
+    {
+        int size = getSize(observers);
+        checkPositions(size, size, azimuths, altitudes);
+        pool.invoke(new SpliteratorTask(getMoonBody(epochMillis, azimuths, altitudes), observers, 0, grainSize));
+    }
+
+    /**
+     * Calculates the event times of a day for every location, same as
+     * {@link SolarAlmanac#getEventTimes(Observer, LocalDate, int, long[], int)}
+     *
+     * @param date the day to calculate for
+     * @param lats latitudes, measured from North, in degrees
+     * @param lngs longitudes, measured from East, in degrees
+     * @param times receives {@link PhaseUtils#EVENT_COUNT} event times per location, in milliseconds since the POSIX
+     *              epoch
+     */
+    public void getEventTimes(LocalDate date, double[] lats, double[] lngs, long[] times)
+    {
+        checkTimes(lats.length, lngs.length, times, PhaseUtils.EVENT_COUNT);
+        pool.invoke(new ArrayTask(new TimesBody(date, null, times), lats, lngs, 0, lats.length, grainSize));
+    }
+
+    /**
+     * Calculates the event times of a day for every location
+     *
+     * @param date the day to calculate for
+     * @param observers the locations to calculate for
+     * @param times receives {@link PhaseUtils#EVENT_COUNT} event times per location, in milliseconds since the POSIX
+     *              epoch
+     */
+    public void getEventTimes(LocalDate date, Spliterator<Observer> observers, long[] times)
+    {
+        int size = getSize(observers);
+        checkTimes(size, size, times, PhaseUtils.EVENT_COUNT);
+        pool.invoke(new SpliteratorTask(new TimesBody(date, null, times), observers, 0, grainSize));
+    }
+
+    /**
+     * Calculates the phase times of a day for every location, same as
+     * {@link SolarAlmanac#getPhaseTimes(Observer, LocalDate, int, ZoneId, long[], int)}
+     *
+     * @param date the day to calculate for
+     * @param zone timezone of the day
+     * @param lats latitudes, measured from North, in degrees
+     * @param lngs longitudes, measured from East, in degrees
+     * @param times receives {@link PhaseUtils#TIMES_LENGTH} phase times per location, in milliseconds since the POSIX
+     *              epoch
+     */
+    public void getPhaseTimes(LocalDate date, ZoneId zone, double[] lats, double[] lngs, long[] times)
+    {
+        checkTimes(lats.length, lngs.length, times, PhaseUtils.TIMES_LENGTH);
+        pool.invoke(new ArrayTask(new TimesBody(date, zone, times), lats, lngs, 0, lats.length, grainSize));
+    }
+
+    /**
+     * Calculates the phase times of a day for every location
+     *
+     * @param date the day to calculate for
+     * @param zone timezone of the day
+     * @param observers the locations to calculate for
+     * @param times receives {@link PhaseUtils#TIMES_LENGTH} phase times per location, in milliseconds since the POSIX
+     *              epoch
+     */
+    public void getPhaseTimes(LocalDate date, ZoneId zone, Spliterator<Observer> observers, long[] times)
+    {
+        int size = getSize(observers);
+        checkTimes(size, size, times, PhaseUtils.TIMES_LENGTH);
+        pool.invoke(new SpliteratorTask(new TimesBody(date, zone, times), observers, 0, grainSize));
+    }
+
+    private static Body getSunBody(long epochMillis, double[] azimuths, double[] altitudes)
+    {
+        double d = DateUtils.toDays(epochMillis);
+        EquatorialCoordinates c = SunUtils.getSunCoords(d);
+        return new PositionBody(PositionUtils.getSiderealTime(d, 0), c.getRightAscension(), c.getDeclination(), false, azimuths, altitudes);
+    }
+
+    private static Body getMoonBody(long epochMillis, double[] azimuths, double[] altitudes)
+    {
+        double d = DateUtils.toDays(epochMillis);
+        GeocentricCoordinates c = MoonUtils.getMoonCoords(d);
+        return new PositionBody(PositionUtils.getSiderealTime(d, 0), c.getRightAscension(), c.getDeclination(), true, azimuths, altitudes);
+    }
+
+    private static int getSize(Spliterator<Observer> observers)
+    {
+        if (!observers.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED))
+            throw new IllegalArgumentException("observers must be SIZED and SUBSIZED");
+        long size = observers.getExactSizeIfKnown();
+        if (size > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("too many observers: " + size);
+        return (int) size;
+    }
+
+    private static void checkPositions(int lats, int lngs, double[] azimuths, double[] altitudes)
+    {
+        ArrayUtils.checkRange(lngs, 0, lats);
+        ArrayUtils.checkRange(azimuths.length, 0, lats);
+        ArrayUtils.checkRange(altitudes.length, 0, lats);
+    }
+
+    private static void checkTimes(int lats, int lngs, long[] times, int width)
+    {
+        ArrayUtils.checkRange(lngs, 0, lats);
+        ArrayUtils.checkRange(times.length, 0, Math.multiplyExact(lats, width));
+    }
+
+    /**
+     * Calculation for a single location, writing its results at the index of the location
+     */
+    private interface Body
+    {
+        /**
+         * Evaluates a location of the latitude/longitude arrays, without creating an {@link Observer}
+         */
+        void evaluate(int index, double lat, double lng);
+
+        /**
+         * Evaluates a location of a spliterator
+         */
+        void evaluate(int index, Observer observer);
+    }
+
+    private static final class PositionBody implements Body
+    {
+        private final double theta, ra, sinDec, cosDec, tanDec;
+        private final boolean refraction;
+        private final double[] azimuths, altitudes;
+
+        /**
+         * @param theta sidereal time at longitude 0, in radians
+         * @param ra right ascension of the celestial body, in radians
+         * @param dec declination of the celestial body, in radians
+         * @param refraction should the altitude be corrected for refraction?
+         */
+        PositionBody(double theta, double ra, double dec, boolean refraction, double[] azimuths, double[] altitudes)
+        {
+            this.theta = theta;
+            this.ra = ra;
+            this.sinDec = Math.sin(dec);
+            this.cosDec = Math.cos(dec);
+            this.tanDec = Math.tan(dec);
+            this.refraction = refraction;
+            this.azimuths = azimuths;
+            this.altitudes = altitudes;
+        }
+
+        @Override
+        public void evaluate(int index, double lat, double lng)
+        {
+            double phi = Constants.TO_RAD * lat;
+            evaluate(index, Constants.TO_RAD * -lng, Math.sin(phi), Math.cos(phi));
+        }
+
+        @Override
+        public void evaluate(int index, Observer observer)
+        {
+            evaluate(index, observer.getLw(), observer.getSinPhi(), observer.getCosPhi());
+        }
+
+        private void evaluate(int index, double lw, double sinPhi, double cosPhi)
+        {
+            double H    = theta - lw - ra;
+            double cosH = Math.cos(H);
+
+            double h = PositionUtils.getAltitude(cosH, sinPhi, cosPhi, sinDec, cosDec);
+            altitudes[index] = refraction ? h + PositionUtils.getAstroRefraction(h) : h;
+            azimuths[index]  = PositionUtils.getAzimuth(Math.sin(H), cosH, sinPhi, cosPhi, tanDec);
+        }
+    }
+
+    private static final class TimesBody implements Body
+    {
+        private final double d;
+        /** null to store event times, the timezone of the day to store phase times */
+        private final ZoneId zone;
+        private final long startOfDay, endOfDay;
+        private final long[] times;
+
+        TimesBody(LocalDate date, ZoneId zone, long[] times)
+        {
+            // noon of the local date, read as UTC, like the timezone offset added by DateUtils.toDays(Calendar)
+            this.d = DateUtils.toDays(date.toEpochDay() * DateUtils.DAY_MS + DateUtils.DAY_MS / 2);
+            this.zone = zone;
+            this.startOfDay = zone == null ? 0 : date.atStartOfDay(zone).toInstant().toEpochMilli();
+            this.endOfDay = zone == null ? 0 : date.atTime(END_OF_DAY).atZone(zone).toInstant().toEpochMilli();
+            this.times = times;
+        }
+
+        @Override
+        public void evaluate(int index, double lat, double lng)
+        {
+            if (zone == null)
+            {
+                PhaseUtils.getEventTimes(d, lat, lng, times, index * PhaseUtils.EVENT_COUNT);
+                return;
+            }
+
+            int offset = index * PhaseUtils.TIMES_LENGTH;
+            PhaseUtils.getPhaseTimes(d, lat, lng, times, offset);
+            setDayBounds(offset);
+        }
+
+        @Override
+        public void evaluate(int index, Observer observer)
+        {
+            if (zone == null)
+            {
+                PhaseUtils.getEventTimes(d, observer, times, index * PhaseUtils.EVENT_COUNT);
+                return;
+            }
+
+            int offset = index * PhaseUtils.TIMES_LENGTH;
+            PhaseUtils.getPhaseTimes(d, observer, times, offset);
+            setDayBounds(offset);
+        }
+
+        private void setDayBounds(int offset)
+        {
+            times[offset + PhaseUtils.getStartIndex(SunPhase.Name.NIGHT_MORNING)] = startOfDay;
+            times[offset + PhaseUtils.getEndIndex(SunPhase.Name.NIGHT_RISING)] = endOfDay;
+        }
+    }
+
+    /**
+     * Evaluates the locations {@code from} (inclusive) to {@code to} (exclusive) of latitude/longitude arrays
+     */
+    private static final class ArrayTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Body body;
+        private final double[] lats, lngs;
+        private final int from, to, grainSize;
+
+        ArrayTask(Body body, double[] lats, double[] lngs, int from, int to, int grainSize)
+        {
+            this.body = body;
+            this.lats = lats;
+            this.lngs = lngs;
+            this.from = from;
+            this.to = to;
+            this.grainSize = grainSize;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (to - from > grainSize)
+            {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ArrayTask(body, lats, lngs, from, middle, grainSize),
+                          new ArrayTask(body, lats, lngs, middle, to, grainSize));
+                return;
+            }
+
+            for (int i = from; i < to; i++)
+                body.evaluate(i, lats[i], lngs[i]);
+        }
+    }
+
+    /**
+     * Evaluates the locations of a spliterator, the first one being at {@code offset}
+     */
+    private static final class SpliteratorTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Body body;
+        private final Spliterator<Observer> observers;
+        private final int offset, grainSize;
+
+        SpliteratorTask(Body body, Spliterator<Observer> observers, int offset, int grainSize)
+        {
+            this.body = body;
+            this.observers = observers;
+            this.offset = offset;
+            this.grainSize = grainSize;
+        }
+
+        @Override
+        protected void compute()
+        {
+            // a prefix split covers the first locations, this task keeps the remaining ones
+            List<SpliteratorTask> forked = new ArrayList<SpliteratorTask>();
+            int index = offset;
+            Spliterator<Observer> prefix;
+            while (observers.estimateSize() > grainSize && (prefix = observers.trySplit()) != null)
+            {
+                // the size has to be read before forking, the task then consumes the spliterator
+                int size = (int) prefix.estimateSize();
+                SpliteratorTask task = new SpliteratorTask(body, prefix, index, grainSize);
+                task.fork();
+                forked.add(task);
+                index += size;
+            }
+
+            Sink sink = new Sink(body, index);
+            observers.forEachRemaining(sink);
+
+            for (SpliteratorTask task : forked)
+                task.join();
+        }
+    }
+
+    /**
+     * Evaluates the locations it is given, at consecutive indexes
+     */
+    private static final class Sink implements Consumer<Observer>
+    {
+        private final Body body;
+        private int index;
+
+        Sink(Body body, int index)
+        {
+            this.body = body;
+            this.index = index;
+        }
+
+        @Override
+        public void accept(Observer observer)
+        {
+            body.evaluate(index++, observer);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.florianmski.suncalc;
+
+import com.florianmski.suncalc.models.Observer;
+import com.florianmski.suncalc.models.SunPhase;
+import com.florianmski.suncalc.utils.DateUtils;
+import com.florianmski.suncalc.utils.PhaseUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Sun events of many locations over many days, precalculated in a file and read through memory mapping.
+ * <p>
+ *  The file holds a fixed-size record per location and day: the {@link PhaseUtils#EVENT_COUNT} event times of the day
+ *  (see {@link SolarAlmanac#getClassifiedEventTimes(Observer[], LocalDate, int, long[], ForkJoinPool)}), from which the
+ *  start and end of every {@link SunPhase.Name} are read. Lookups read the mapped file directly, without
+ *  deserialization nor allocation, so the data lives in the page cache only and is shared by all the processes of a
+ *  host reading the same file. Reads are thread-safe.
+ * </p>
+ * <p>
+ *  The format is big-endian:
+ * </p>
+ * <pre>
+ *  int      magic, "SCA1"
+ *  short    number of events per record
+ *  short    reserved, 0
+ *  long     first day, as an epoch day
+ *  int      number of days
+ *  int      number of locations
+ *  long     reserved, 0
+ *  double[] latitude and longitude of every location, in degrees
+ *  int[]    records, location by location, then day by day: the time of each event, in seconds since midnight UTC of
+ *           the day, or {@link Integer#MAX_VALUE} ({@link PhaseUtils#ALWAYS_ABOVE}) or {@link Integer#MIN_VALUE}
+ *           ({@link PhaseUtils#ALWAYS_BELOW}) for an event that does not happen
+ * </pre>
+ * <p>
+ *  A record takes {@link #RECORD_SIZE} bytes, e.g. 82 GB for 200,000 locations over 20 years. Locations are known by
+ *  their index, in the order given to the writer. The start of the first phase and the end of the last one are the
+ *  nadir, not clamped to midnight like {@link SunCalc#getPhaseTimes(java.time.ZonedDateTime, Observer, long[], int)}.
+ * </p>
+ */
+public final class MappedAlmanac
+{
+    /** Size of the record of a location and day, in bytes */
+    public static final int RECORD_SIZE = 4 * PhaseUtils.EVENT_COUNT;
+
+    /** "SCA1" */
+    private static final int MAGIC = 0x53434131;
+
+    private static final int HEADER_SIZE = 32;
+
+    private static final int SITE_SIZE = 16;
+
+    /** Maximum number of records in a single mapping, keeping it below 1 GB */
+    private static final int SEGMENT_RECORDS = (1 << 30) / RECORD_SIZE;
+
+    /** Number of records calculated before being written */
+    private static final int BATCH_RECORDS = 1 << 16;
+
+    /** Event of the start and end of every phase, by ordinal */
+    private static final int[] START_EVENTS = new int[SunPhase.Name.values().length];
+    private static final int[] END_EVENTS = new int[SunPhase.Name.values().length];
+
+    static
+    {
+        for (SunPhase sunPhase : SunPhase.all())
+        {
+            START_EVENTS[sunPhase.getName().ordinal()] = PhaseUtils.getEvent(sunPhase.getStartAngle(), sunPhase.isStartRise());
+            END_EVENTS[sunPhase.getName().ordinal()] = PhaseUtils.getEvent(sunPhase.getEndAngle(), sunPhase.isEndRise());
+        }
+    }
+
+    private final long startDay;
+    private final int days;
+    private final int sites;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] segments;
+
+    private MappedAlmanac(long startDay, int days, int sites, MappedByteBuffer header, MappedByteBuffer[] segments)
+    {
+        this.startDay = startDay;
+        this.days = days;
+        this.sites = sites;
+        this.header = header;
+        this.segments = segments;
+    }
+
+    /**
+     * Calculates the events of many locations over many days and writes them to a file
+     *
+     * @param file the file to write, replaced if it exists
+     * @param observers the locations, known by their index in the file
+     * @param start the first day
+     * @param days number of days
+     * @param pool pool running the calculations
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path file, Observer[] observers, LocalDate start, int days, ForkJoinPool pool) throws IOException
+    {
+        if (days < 1)
+            throw new IllegalArgumentException("days must be at least 1, got " + days);
+        if (observers.length > (Integer.MAX_VALUE - HEADER_SIZE) / SITE_SIZE)
+            throw new IllegalArgumentException("too many locations: " + observers.length);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + SITE_SIZE * observers.length);
+            buffer.putInt(MAGIC)
+                  .putShort((short) PhaseUtils.EVENT_COUNT)
+                  .putShort((short) 0)
+                  .putLong(start.toEpochDay())
+                  .putInt(days)
+                  .putInt(observers.length)
+                  .putLong(0);
+            for (Observer observer : observers)
+                buffer.putDouble(observer.getLatitude()).putDouble(observer.getLongitude());
+            writeFully(channel, buffer);
+
+            int batch = Math.max(1, BATCH_RECORDS / days);
+            long[] times = new long[Math.multiplyExact(Math.multiplyExact(Math.min(batch, observers.length), days), PhaseUtils.EVENT_COUNT)];
+            buffer = ByteBuffer.allocate(4 * times.length);
+
+            for (int from = 0; from < observers.length; from += batch)
+            {
+                Observer[] slice = new Observer[Math.min(batch, observers.length - from)];
+                System.arraycopy(observers, from, slice, 0, slice.length);
+                SolarAlmanac.getClassifiedEventTimes(slice, start, days, times, pool);
+
+                buffer.clear();
+                for (int record = 0, i = 0; record < slice.length * days; record++)
+                {
+                    long midnight = (start.toEpochDay() + record % days) * DateUtils.DAY_MS;
+                    for (int event = 0; event < PhaseUtils.EVENT_COUNT; event++)
+                        buffer.putInt(encode(times[i++], midnight));
+                }
+                writeFully(channel, buffer);
+            }
+        }
+    }
+
+    private static int encode(long time, long midnight)
+    {
+        if (time == PhaseUtils.ALWAYS_ABOVE)
+            return Integer.MAX_VALUE;
+        if (time == PhaseUtils.ALWAYS_BELOW)
+            return Integer.MIN_VALUE;
+        return (int) Math.round((double) (time - midnight) / 1000);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException
+    {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    /**
+     * Maps a file written by {@link #write(Path, Observer[], LocalDate, int, ForkJoinPool)}
+     *
+     * @param file the file to read
+     * @return the almanac, readable until it is garbage collected
+     * @throws IOException if the file cannot be read or does not hold an almanac
+     */
+    public static MappedAlmanac open(Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+            while (buffer.hasRemaining())
+            {
+                if (channel.read(buffer) < 0)
+                    throw new IOException("not an almanac");
+            }
+            buffer.flip();
+
+            if (buffer.getInt() != MAGIC)
+                throw new IOException("not an almanac");
+            int events = buffer.getShort();
+            if (events != PhaseUtils.EVENT_COUNT)
+                throw new IOException("expected " + PhaseUtils.EVENT_COUNT + " events per record, got " + events);
+            buffer.getShort();
+            long startDay = buffer.getLong();
+            int days      = buffer.getInt();
+            int sites     = buffer.getInt();
+
+            if (days < 1 || sites < 0 || sites > (Integer.MAX_VALUE - HEADER_SIZE) / SITE_SIZE)
+                throw new IOException("invalid size " + sites + " x " + days);
+            long recordsOffset = HEADER_SIZE + (long) SITE_SIZE * sites;
+            long records = (long) sites * days;
+            if (channel.size() != recordsOffset + records * RECORD_SIZE)
+                throw new IOException("expected " + (recordsOffset + records * RECORD_SIZE) + " bytes, got " + channel.size());
+
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, recordsOffset);
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((records + SEGMENT_RECORDS - 1) / SEGMENT_RECORDS)];
+            for (int i = 0; i < segments.length; i++)
+            {
+                long first = (long) i * SEGMENT_RECORDS;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, recordsOffset + first * RECORD_SIZE,
+                        Math.min(SEGMENT_RECORDS, records - first) * RECORD_SIZE);
+            }
+            return new MappedAlmanac(startDay, days, sites, header, segments);
+        }
+    }
+
+    /**
+     * @return the first day
+     */
+    public LocalDate getStart()
+    {
+        return LocalDate.ofEpochDay(startDay);
+    }
+
+    /**
+     * @return number of days
+     */
+    public int getDays()
+    {
+        return days;
+    }
+
+    /**
+     * @return number of locations
+     */
+    public int getSites()
+    {
+        return sites;
+    }
+
+    /**
+     * @param site index of the location
+     * @return measured from North, in degrees
+     */
+    public double getLatitude(int site)
+    {
+        checkSite(site);
+        return header.getDouble(HEADER_SIZE + SITE_SIZE * site);
+    }
+
+    /**
+     * @param site index of the location
+     * @return measured from East, in degrees
+     */
+    public double getLongitude(int site)
+    {
+        checkSite(site);
+        return header.getDouble(HEADER_SIZE + SITE_SIZE * site + 8);
+    }
+
+    /**
+     * @param site index of the location
+     * @param epochDay the day, as an epoch day
+     * @param event index of the event, see {@link PhaseUtils#getEvent(double, boolean)}
+     * @return time of the event, in milliseconds since the POSIX epoch, or {@link PhaseUtils#ALWAYS_ABOVE} or
+     *         {@link PhaseUtils#ALWAYS_BELOW}
+     */
+    public long getEventTime(int site, long epochDay, int event)
+    {
+        checkSite(site);
+        long day = epochDay - startDay;
+        if (day < 0 || day >= days)
+            throw new IndexOutOfBoundsException("day " + LocalDate.ofEpochDay(epochDay) + " is not in the almanac");
+        if (event < 0 || event >= PhaseUtils.EVENT_COUNT)
+            throw new IndexOutOfBoundsException("event " + event);
+
+        long record = (long) site * days + day;
+        int seconds = segments[(int) (record / SEGMENT_RECORDS)].getInt((int) (record % SEGMENT_RECORDS) * RECORD_SIZE + 4 * event);
+
+        if (seconds == Integer.MAX_VALUE)
+            return PhaseUtils.ALWAYS_ABOVE;
+        if (seconds == Integer.MIN_VALUE)
+            return PhaseUtils.ALWAYS_BELOW;
+        return epochDay * DateUtils.DAY_MS + seconds * 1000L;
+    }
+
+    /**
+     * @param site index of the location
+     * @param date the day
+     * @param event index of the event, see {@link PhaseUtils#getEvent(double, boolean)}
+     * @return time of the event, in milliseconds since the POSIX epoch, or {@link PhaseUtils#ALWAYS_ABOVE} or
+     *         {@link PhaseUtils#ALWAYS_BELOW}
+     */
+    public long getEventTime(int site, LocalDate date, int event)
+    {
+        return getEventTime(site, date.toEpochDay(), event);
+    }
+
+    /**
+     * @param site index of the location
+     * @param epochDay the day, as an epoch day
+     * @param name the phase
+     * @return start time of the phase, in milliseconds since the POSIX epoch, or {@link PhaseUtils#ALWAYS_ABOVE} or
+     *         {@link PhaseUtils#ALWAYS_BELOW}
+     */
+    public long getStartTime(int site, long epochDay, SunPhase.Name name)
+    {
+        return getEventTime(site, epochDay, START_EVENTS[name.ordinal()]);
+    }
+
+    /**
+     * @param site index of the location
+     * @param epochDay the day, as an epoch day
+     * @param name the phase
+     * @return end time of the phase, in milliseconds since the POSIX epoch, or {@link PhaseUtils#ALWAYS_ABOVE} or
+     *         {@link PhaseUtils#ALWAYS_BELOW}
+     */
+    public long getEndTime(int site, long epochDay, SunPhase.Name name)
+    {
+        return getEventTime(site, epochDay, END_EVENTS[name.ordinal()]);
+    }
+
+    private void checkSite(int site)
+    {
+        if (site < 0 || site >= sites)
+            throw new IndexOutOfBoundsException("site " + site + " out of " + sites);
+    }
+
+    @Override
+    public String toString() {
+        return "MappedAlmanac{" +
+                "start=" + getStart() +
+                ", days=" + days +
+                ", sites=" + sites +
+                '}';
+    }
+}
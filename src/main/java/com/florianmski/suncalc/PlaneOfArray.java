@@ -0,0 +1,85 @@
+package com.florianmski.suncalc;
+
+import com.florianmski.suncalc.models.EquatorialCoordinates;
+import com.florianmski.suncalc.models.Observer;
+import com.florianmski.suncalc.models.Surfaces;
+import com.florianmski.suncalc.utils.*;
+
+/**
+ * Incidence of the sun on tilted surfaces, e.g. the plane of array of solar panels.
+ * <p>
+ *  For each moment the direction of the sun is calculated once, as a unit vector in the horizontal frame of the
+ *  observer (see {@link PositionUtils#getDirection(double, double, double, double, double, double, double[], int)}),
+ *  then the cosine of the incidence angle of every surface is the dot product of that vector with the normal of the
+ *  surface, precalculated by {@link Surfaces}. This loop has no trigonometric function and no branch, so it is cheap
+ *  and can be vectorized by the JIT compiler.
+ * </p>
+ * <p>
+ *  The cosine is negative when the sun is behind a surface. Moments when the sun is below the horizon are not
+ *  filtered out, check the UP component of the direction or the altitude of the sun for that.
+ * </p>
+ */
+public class PlaneOfArray
+{
+    /**
+     * Calculates the direction of the sun at a particular location and moment
+     *
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param observer the location to calculate for
+     * @param direction receives the EAST, NORTH and UP components of the unit vector pointing to the sun
+     * @param offset index of the EAST component in the array
+     */
+    public static void getSunDirection(long epochMillis, Observer observer, double[] direction, int offset)
+    {
+        ArrayUtils.checkRange(direction.length, offset, 3);
+
+        double d = DateUtils.toDays(epochMillis);
+        EquatorialCoordinates c = SunUtils.getSunCoords(d);
+        double H   = PositionUtils.getSiderealTime(d, observer.getLw()) - c.getRightAscension();
+        double dec = c.getDeclination();
+
+        PositionUtils.getDirection(Math.sin(H), Math.cos(H), observer.getSinPhi(), observer.getCosPhi(),
+                Math.sin(dec), Math.cos(dec), direction, offset);
+    }
+
+    /**
+     * Calculates the cosine of the incidence angle of the sun on every surface, at a particular location and moment
+     *
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param observer the location of the surfaces
+     * @param surfaces orientations of the surfaces
+     * @param cosines receives the cosine for each surface
+     * @param offset index of the cosine of the first surface in the array
+     */
+    public static void getIncidenceCosines(long epochMillis, Observer observer, Surfaces surfaces, double[] cosines, int offset)
+    {
+        ArrayUtils.checkRange(cosines.length, offset, surfaces.size());
+
+        double[] direction = new double[3];
+        getSunDirection(epochMillis, observer, direction, 0);
+        surfaces.getCosines(direction[0], direction[1], direction[2], 0, surfaces.size(), cosines, offset);
+    }
+
+    /**
+     * Calculates the cosine of the incidence angle of the sun on every surface, at a particular location and for many
+     * moments
+     *
+     * @param epochMillis the moments to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param observer the location of the surfaces
+     * @param surfaces orientations of the surfaces
+     * @param cosines receives the cosine for each moment and surface, moment by moment, i.e. the cosine of the surface
+     *                {@code s} at the moment {@code t} is at {@code t * surfaces.size() + s}
+     */
+    public static void getIncidenceCosines(long[] epochMillis, Observer observer, Surfaces surfaces, double[] cosines)
+    {
+        int size = surfaces.size();
+        ArrayUtils.checkRange(cosines.length, 0, Math.multiplyExact(epochMillis.length, size));
+
+        double[] direction = new double[3];
+        for (int t = 0; t < epochMillis.length; t++)
+        {
+            getSunDirection(epochMillis[t], observer, direction, 0);
+            surfaces.getCosines(direction[0], direction[1], direction[2], 0, size, cosines, t * size);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.florianmski.suncalc;
+
+import com.florianmski.suncalc.models.EquatorialCoordinates;
+import com.florianmski.suncalc.models.GeocentricCoordinates;
+import com.florianmski.suncalc.utils.*;
+
+/**
+ * Positions of the sun and moon for many locations at a single moment.
+ * <p>
+ *  The coordinates of the celestial body and the sidereal time only depend on the moment, so they are calculated once
+ *  per call; only the location dependent part of the azimuth and altitude is evaluated for each point. Results are the
+ *  same as {@link SunCalc#getSunPosition(java.util.Calendar, double, double)} and
+ *  {@link SunCalc#getMoonPosition(java.util.Calendar, double, double)} with a UTC calendar.
+ * </p>
+ * <p>
+ *  Locations are given either as flat latitude/longitude arrays or as a regular raster, in which case the results are
+ *  stored row by row (one row per latitude).
+ * </p>
+ */
+public class PositionGrid
+{
+    /**
+     * Calculates the sun's position at a particular moment for a list of locations
+     *
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param lats latitudes, measured from North, in degrees
+     * @param lngs longitudes, measured from East, in degrees
+     * @param azimuths receives the azimuth for each location, in radians, with NORTH as zero
+     * @param altitudes receives the altitude for each location, in radians
+     */
+    public static void getSunPositions(long epochMillis, double[] lats, double[] lngs, double[] azimuths, double[] altitudes)
+    {
+        getSunPositions(epochMillis, lats, lngs, 0, lats.length, azimuths, altitudes);
+    }
+
+    /**
+     * Calculates the sun's position at a particular moment for a slice of a list of locations
+     *
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param lats latitudes, measured from North, in degrees
+     * @param lngs longitudes, measured from East, in degrees
+     * @param offset index of the first location, also used as first index in the output arrays
+     * @param length number of locations to calculate
+     * @param azimuths receives the azimuth for each location, in radians, with NORTH as zero
+     * @param altitudes receives the altitude for each location, in radians
+     */
+    public static void getSunPositions(long epochMillis, double[] lats, double[] lngs, int offset, int length, double[] azimuths, double[] altitudes)
+    {
+        double d = DateUtils.toDays(epochMillis);
+        EquatorialCoordinates c = SunUtils.getSunCoords(d);
+
+        evaluate(PositionUtils.getSiderealTime(d, 0), c.getRightAscension(), c.getDeclination(), false,
+                lats, lngs, offset, length, azimuths, altitudes);
+    }
+
+    /**
+     * Calculates the sun's position at a particular moment for a regular raster of locations
+     *
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param latStart latitude of the first row, in degrees
+     * @param latStep latitude difference between two rows, in degrees
+     * @param rows number of rows
+     * @param lngStart longitude of the first column, in degrees
+     * @param lngStep longitude difference between two columns, in degrees
+     * @param columns number of columns
+     * @param azimuths receives the azimuth for each location, row by row, in radians, with NORTH as zero
+     * @param altitudes receives the altitude for each location, row by row, in radians
+     */
+    public static void getSunPositions(long epochMillis, double latStart, double latStep, int rows, double lngStart, double lngStep, int columns, double[] azimuths, double[] altitudes)
+    {
+        double d = DateUtils.toDays(epochMillis);
+        EquatorialCoordinates c = SunUtils.getSunCoords(d);
+
+        evaluate(PositionUtils.getSiderealTime(d, 0), c.getRightAscension(), c.getDeclination(), false,
+                latStart, latStep, rows, lngStart, lngStep, columns, azimuths, altitudes);
+    }
+
+    /**
+     * Calculates the moon's position at a particular moment for a list of locations
+     *
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param lats latitudes, measured from North, in degrees
+     * @param lngs longitudes, measured from East, in degrees
+     * @param azimuths receives the azimuth for each location, in radians, with NORTH as zero
+     * @param altitudes receives the altitude for each location, corrected for refraction, in radians
+     */
+    public static void getMoonPositions(long epochMillis, double[] lats, double[] lngs, double[] azimuths, double[] altitudes)
+    {
+        getMoonPositions(epochMillis, lats, lngs, 0, lats.length, azimuths, altitudes);
+    }
+
+    /**
+     * Calculates the moon's position at a particular moment for a slice of a list of locations
+     *
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param lats latitudes, measured from North, in degrees
+     * @param lngs longitudes, measured from East, in degrees
+     * @param offset index of the first location, also used as first index in the output arrays
+     * @param length number of locations to calculate
+     * @param azimuths receives the azimuth for each location, in radians, with NORTH as zero
+     * @param altitudes receives the altitude for each location, corrected for refraction, in radians
+     */
+    public static void getMoonPositions(long epochMillis, double[] lats, double[] lngs, int offset, int length, double[] azimuths, double[] altitudes)
+    {
+        double d = DateUtils.toDays(epochMillis);
+        GeocentricCoordinates c = MoonUtils.getMoonCoords(d);
+
+        evaluate(PositionUtils.getSiderealTime(d, 0), c.getRightAscension(), c.getDeclination(), true,
+                lats, lngs, offset, length, azimuths, altitudes);
+    }
+
+    /**
+     * Calculates the moon's position at a particular moment for a regular raster of locations
+     *
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param latStart latitude of the first row, in degrees
+     * @param latStep latitude difference between two rows, in degrees
+     * @param rows number of rows
+     * @param lngStart longitude of the first column, in degrees
+     * @param lngStep longitude difference between two columns, in degrees
+     * @param columns number of columns
+     * @param azimuths receives the azimuth for each location, row by row, in radians, with NORTH as zero
+     * @param altitudes receives the altitude for each location, row by row, corrected for refraction, in radians
+     */
+    public static void getMoonPositions(long epochMillis, double latStart, double latStep, int rows, double lngStart, double lngStep, int columns, double[] azimuths, double[] altitudes)
+    {
+        double d = DateUtils.toDays(epochMillis);
+        GeocentricCoordinates c = MoonUtils.getMoonCoords(d);
+
+        evaluate(PositionUtils.getSiderealTime(d, 0), c.getRightAscension(), c.getDeclination(), true,
+                latStart, latStep, rows, lngStart, lngStep, columns, azimuths, altitudes);
+    }
+
+    /**
+     * @param theta sidereal time at longitude 0, in radians
+     * @param ra right ascension of the celestial body, in radians
+     * @param dec declination of the celestial body, in radians
+     * @param refraction should the altitude be corrected for refraction?
+     */
+    private static void evaluate(double theta, double ra, double dec, boolean refraction,
+                                 double[] lats, double[] lngs, int offset, int length, double[] azimuths, double[] altitudes)
+    {
+        ArrayUtils.checkRange(lats.length, offset, length);
+        ArrayUtils.checkRange(lngs.length, offset, length);
+        ArrayUtils.checkRange(azimuths.length, offset, length);
+        ArrayUtils.checkRange(altitudes.length, offset, length);
+
+        double sinDec = Math.sin(dec);
+        double cosDec = Math.cos(dec);
+        double tanDec = Math.tan(dec);
+
+        for (int i = offset, end = offset + length; i < end; i++)
+        {
+            double lw  = Constants.TO_RAD * -lngs[i];
+            double phi = Constants.TO_RAD * lats[i];
+            double H   = theta - lw - ra;
+
+            double sinPhi = Math.sin(phi);
+            double cosPhi = Math.cos(phi);
+            double cosH   = Math.cos(H);
+
+            double h = PositionUtils.getAltitude(cosH, sinPhi, cosPhi, sinDec, cosDec);
+            altitudes[i] = refraction ? h + PositionUtils.getAstroRefraction(h) : h;
+            azimuths[i]  = PositionUtils.getAzimuth(Math.sin(H), cosH, sinPhi, cosPhi, tanDec);
+        }
+    }
+
+    /**
+     * @param theta sidereal time at longitude 0, in radians
+     * @param ra right ascension of the celestial body, in radians
+     * @param dec declination of the celestial body, in radians
+     * @param refraction should the altitude be corrected for refraction?
+     */
+    private static void evaluate(double theta, double ra, double dec, boolean refraction,
+                                 double latStart, double latStep, int rows, double lngStart, double lngStep, int columns,
+                                 double[] azimuths, double[] altitudes)
+    {
+        if (rows < 0 || columns < 0)
+            throw new IllegalArgumentException("rows and columns must be positive");
+        int size = Math.multiplyExact(rows, columns);
+        ArrayUtils.checkRange(azimuths.length, 0, size);
+        ArrayUtils.checkRange(altitudes.length, 0, size);
+
+        double sinDec = Math.sin(dec);
+        double cosDec = Math.cos(dec);
+        double tanDec = Math.tan(dec);
+
+        // the hour angle only depends on the column
+        double[] sinH = new double[columns];
+        double[] cosH = new double[columns];
+        for (int c = 0; c < columns; c++)
+        {
+            double lw = Constants.TO_RAD * -(lngStart + c * lngStep);
+            double H  = theta - lw - ra;
+            sinH[c] = Math.sin(H);
+            cosH[c] = Math.cos(H);
+        }
+
+        for (int r = 0; r < rows; r++)
+        {
+            double phi    = Constants.TO_RAD * (latStart + r * latStep);
+            double sinPhi = Math.sin(phi);
+            double cosPhi = Math.cos(phi);
+
+            for (int c = 0, i = r * columns; c < columns; c++, i++)
+            {
+                double h = PositionUtils.getAltitude(cosH[c], sinPhi, cosPhi, sinDec, cosDec);
+                altitudes[i] = refraction ? h + PositionUtils.getAstroRefraction(h) : h;
+                azimuths[i]  = PositionUtils.getAzimuth(sinH[c], cosH[c], sinPhi, cosPhi, tanDec);
+            }
+        }
+    }
+}
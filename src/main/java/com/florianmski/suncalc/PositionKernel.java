@@ -0,0 +1,190 @@
+package com.florianmski.suncalc;
+
+import com.florianmski.suncalc.models.EquatorialCoordinates;
+import com.florianmski.suncalc.models.Observer;
+import com.florianmski.suncalc.utils.*;
+
+/**
+ * Batch kernel calculating the sun's position for lanes of locations or moments.
+ * <p>
+ *  {@link #SCALAR} evaluates one lane after the other and gives the same results as {@link PositionGrid} and
+ *  {@link SunCalc#getSunPosition(long, Observer)}. It runs on every Java version.
+ * </p>
+ * <p>
+ *  The library is a multi-release JAR: on Java 16 and later, when the {@code jdk.incubator.vector} module is resolved
+ *  (e.g. with {@code --add-modules jdk.incubator.vector}), {@link #getDefault()} is a kernel using the Vector API,
+ *  evaluating as many lanes at once as the SIMD registers of the processor hold. Its vectorized trigonometric functions
+ *  differ from the ones of {@link Math} by a few ulps, so positions agree with {@link #SCALAR} to about 1e-14 radians.
+ *  Setting the system property {@value #VECTOR_PROPERTY} to {@code false} selects {@link #SCALAR} instead.
+ * </p>
+ */
+public abstract class PositionKernel
+{
+    /** System property which disables the Vector API kernel when {@code false} */
+    public static final String VECTOR_PROPERTY = "suncalc.vector";
+
+    /** Lane by lane evaluation, available on every Java version */
+    public static final PositionKernel SCALAR = new Scalar();
+
+    private static final PositionKernel DEFAULT = select();
+
+    PositionKernel()
+    {
+    }
+
+    /**
+     * @return the fastest kernel available on this Java runtime
+     */
+    public static PositionKernel getDefault()
+    {
+        return DEFAULT;
+    }
+
+    private static PositionKernel select()
+    {
+        if ("false".equalsIgnoreCase(System.getProperty(VECTOR_PROPERTY)))
+            return SCALAR;
+
+        PositionKernel kernel = VectorSupport.getKernel();
+        return kernel != null ? kernel : SCALAR;
+    }
+
+    /**
+     * @return name of the kernel, for logs and benchmarks
+     */
+    public abstract String getName();
+
+    /**
+     * @return number of lanes evaluated at once
+     */
+    public abstract int getLanes();
+
+    /**
+     * Calculates the sun's position at a particular moment for a slice of a list of locations
+     *
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param lats latitudes, measured from North, in degrees
+     * @param lngs longitudes, measured from East, in degrees
+     * @param offset index of the first location, also used as first index in the output arrays
+     * @param length number of locations to calculate
+     * @param azimuths receives the azimuth for each location, in radians, with NORTH as zero
+     * @param altitudes receives the altitude for each location, in radians
+     */
+    public void getSunPositions(long epochMillis, double[] lats, double[] lngs, int offset, int length, double[] azimuths, double[] altitudes)
+    {
+        ArrayUtils.checkRange(lats.length, offset, length);
+        ArrayUtils.checkRange(lngs.length, offset, length);
+        ArrayUtils.checkRange(azimuths.length, offset, length);
+        ArrayUtils.checkRange(altitudes.length, offset, length);
+
+        double d = DateUtils.toDays(epochMillis);
+        EquatorialCoordinates c = SunUtils.getSunCoords(d);
+        evaluate(PositionUtils.getSiderealTime(d, 0), c.getRightAscension(), c.getDeclination(),
+                lats, lngs, offset, offset + length, azimuths, altitudes);
+    }
+
+    /**
+     * Calculates the sun's position at a particular location for a slice of a list of moments
+     *
+     * @param epochMillis the moments to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param offset index of the first moment, also used as first index in the output arrays
+     * @param length number of moments to calculate
+     * @param observer the location to calculate for
+     * @param azimuths receives the azimuth for each moment, in radians, with NORTH as zero
+     * @param altitudes receives the altitude for each moment, in radians
+     */
+    public void getSunPositions(long[] epochMillis, int offset, int length, Observer observer, double[] azimuths, double[] altitudes)
+    {
+        ArrayUtils.checkRange(epochMillis.length, offset, length);
+        ArrayUtils.checkRange(azimuths.length, offset, length);
+        ArrayUtils.checkRange(altitudes.length, offset, length);
+
+        evaluate(epochMillis, offset, offset + length, observer.getLw(), observer.getSinPhi(), observer.getCosPhi(),
+                azimuths, altitudes);
+    }
+
+    /**
+     * @param theta sidereal time at longitude 0, in radians
+     * @param ra right ascension of the sun, in radians
+     * @param dec declination of the sun, in radians
+     * @param from index of the first location
+     * @param to index after the last location
+     */
+    abstract void evaluate(double theta, double ra, double dec, double[] lats, double[] lngs, int from, int to,
+                           double[] azimuths, double[] altitudes);
+
+    /**
+     * @param lw West longitude, in radians
+     * @param sinPhi sine of the latitude
+     * @param cosPhi cosine of the latitude
+     * @param from index of the first moment
+     * @param to index after the last moment
+     */
+    abstract void evaluate(long[] epochMillis, int from, int to, double lw, double sinPhi, double cosPhi,
+                           double[] azimuths, double[] altitudes);
+
+    @Override
+    public String toString() {
+        return "PositionKernel{" +
+                "name=" + getName() +
+                ", lanes=" + getLanes() +
+                '}';
+    }
+
+    private static final class Scalar extends PositionKernel
+    {
+        @Override
+        public String getName()
+        {
+            return "scalar";
+        }
+
+        @Override
+        public int getLanes()
+        {
+            return 1;
+        }
+
+        @Override
+        void evaluate(double theta, double ra, double dec, double[] lats, double[] lngs, int from, int to,
+                      double[] azimuths, double[] altitudes)
+        {
+            double sinDec = Math.sin(dec);
+            double cosDec = Math.cos(dec);
+            double tanDec = Math.tan(dec);
+
+            for (int i = from; i < to; i++)
+            {
+                double lw  = Constants.TO_RAD * -lngs[i];
+                double phi = Constants.TO_RAD * lats[i];
+                double H   = theta - lw - ra;
+
+                double sinPhi = Math.sin(phi);
+                double cosPhi = Math.cos(phi);
+                double cosH   = Math.cos(H);
+
+                altitudes[i] = PositionUtils.getAltitude(cosH, sinPhi, cosPhi, sinDec, cosDec);
+                azimuths[i]  = PositionUtils.getAzimuth(Math.sin(H), cosH, sinPhi, cosPhi, tanDec);
+            }
+        }
+
+        @Override
+        void evaluate(long[] epochMillis, int from, int to, double lw, double sinPhi, double cosPhi,
+                      double[] azimuths, double[] altitudes)
+        {
+            for (int i = from; i < to; i++)
+            {
+                double d = DateUtils.toDays(epochMillis[i]);
+                double M = SunUtils.getSolarMeanAnomaly(d);
+                double L = SunUtils.getEclipticLongitude(M, SunUtils.getEquationOfCenter(M));
+
+                double dec  = PositionUtils.getDeclination(L, 0);
+                double H    = PositionUtils.getSiderealTime(d, lw) - PositionUtils.getRightAscension(L, 0);
+                double cosH = Math.cos(H);
+
+                altitudes[i] = PositionUtils.getAltitude(cosH, sinPhi, cosPhi, Math.sin(dec), Math.cos(dec));
+                azimuths[i]  = PositionUtils.getAzimuth(Math.sin(H), cosH, sinPhi, cosPhi, Math.tan(dec));
+            }
+        }
+    }
+}
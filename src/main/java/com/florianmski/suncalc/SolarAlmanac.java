@@ -0,0 +1,226 @@
+package com.florianmski.suncalc;
+
+import com.florianmski.suncalc.models.Observer;
+import com.florianmski.suncalc.models.SunPhase;
+import com.florianmski.suncalc.utils.ArrayUtils;
+import com.florianmski.suncalc.utils.DateUtils;
+import com.florianmski.suncalc.utils.PhaseUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sun phases of consecutive days, for one or many locations.
+ * <p>
+ *  Times are stored in flat arrays of epoch millis, one block per day: {@link PhaseUtils#EVENT_COUNT} event times
+ *  (see {@link PhaseUtils#getEventTimes(double, Observer, long[], int)}) or {@link PhaseUtils#TIMES_LENGTH} phase
+ *  times (see {@link PhaseUtils#getStartIndex(SunPhase.Name)}). For many locations the blocks are grouped by location,
+ *  i.e. the block of the day {@code day} of the location {@code site} starts at {@code (site * days + day) * width}.
+ * </p>
+ * <p>
+ *  A day is solved from its local date only, so event times do not depend on the timezone; the timezone is only used
+ *  to clamp the first and last phases of a day to midnight, like {@link SunCalc#getPhaseTimes(java.time.ZonedDateTime,
+ *  Observer, long[], int)} does for noon of the same day.
+ * </p>
+ */
+public class SolarAlmanac
+{
+    /** Number of days solved by a single task when running in a {@link ForkJoinPool} */
+    private static final int GRAIN_SIZE = 256;
+
+    private static final LocalTime END_OF_DAY = LocalTime.of(23, 59, 59, 999000000);
+
+    /**
+     * Calculates the event times of consecutive days
+     *
+     * @param observer the location to calculate for
+     * @param start the first day
+     * @param days number of days
+     * @param times receives {@link PhaseUtils#EVENT_COUNT} event times per day, in milliseconds since the POSIX epoch
+     * @param offset index of the first time in the array
+     */
+    public static void getEventTimes(Observer observer, LocalDate start, int days, long[] times, int offset)
+    {
+        checkDays(days);
+        ArrayUtils.checkRange(times.length, offset, Math.multiplyExact(days, PhaseUtils.EVENT_COUNT));
+
+        new Task(new Observer[] { observer }, start.toEpochDay(), days, null, false, times, offset, 0, days).compute();
+    }
+
+    /**
+     * Calculates the event times of consecutive days, with {@link PhaseUtils#ALWAYS_ABOVE} or
+     * {@link PhaseUtils#ALWAYS_BELOW} for the events that do not happen. See
+     * {@link PhaseUtils#getClassifiedEventTimes(double, Observer, long[], int)}
+     *
+     * @param observer the location to calculate for
+     * @param start the first day
+     * @param days number of days
+     * @param times receives {@link PhaseUtils#EVENT_COUNT} event times per day, in milliseconds since the POSIX epoch
+     * @param offset index of the first time in the array
+     */
+    public static void getClassifiedEventTimes(Observer observer, LocalDate start, int days, long[] times, int offset)
+    {
+        checkDays(days);
+        ArrayUtils.checkRange(times.length, offset, Math.multiplyExact(days, PhaseUtils.EVENT_COUNT));
+
+        new Task(new Observer[] { observer }, start.toEpochDay(), days, null, true, times, offset, 0, days).compute();
+    }
+
+    /**
+     * Calculates the phase times of consecutive days
+     *
+     * @param observer the location to calculate for
+     * @param start the first day
+     * @param days number of days
+     * @param zone timezone of the days
+     * @param times receives {@link PhaseUtils#TIMES_LENGTH} phase times per day, in milliseconds since the POSIX epoch
+     * @param offset index of the first time in the array
+     */
+    public static void getPhaseTimes(Observer observer, LocalDate start, int days, ZoneId zone, long[] times, int offset)
+    {
+        checkDays(days);
+        ArrayUtils.checkRange(times.length, offset, Math.multiplyExact(days, PhaseUtils.TIMES_LENGTH));
+
+        new Task(new Observer[] { observer }, start.toEpochDay(), days, zone, false, times, offset, 0, days).compute();
+    }
+
+    /**
+     * Calculates the event times of consecutive days for many locations, splitting the work in the given pool
+     *
+     * @param observers the locations to calculate for
+     * @param start the first day
+     * @param days number of days
+     * @param times receives {@link PhaseUtils#EVENT_COUNT} event times per location and day, grouped by location, in
+     *              milliseconds since the POSIX epoch
+     * @param pool pool running the calculations
+     */
+    public static void getEventTimes(Observer[] observers, LocalDate start, int days, long[] times, ForkJoinPool pool)
+    {
+        checkDays(days);
+        int count = Math.multiplyExact(observers.length, days);
+        ArrayUtils.checkRange(times.length, 0, Math.multiplyExact(count, PhaseUtils.EVENT_COUNT));
+
+        pool.invoke(new Task(observers.clone(), start.toEpochDay(), days, null, false, times, 0, 0, count));
+    }
+
+    /**
+     * Calculates the event times of consecutive days for many locations, with {@link PhaseUtils#ALWAYS_ABOVE} or
+     * {@link PhaseUtils#ALWAYS_BELOW} for the events that do not happen, splitting the work in the given pool
+     *
+     * @param observers the locations to calculate for
+     * @param start the first day
+     * @param days number of days
+     * @param times receives {@link PhaseUtils#EVENT_COUNT} event times per location and day, grouped by location, in
+     *              milliseconds since the POSIX epoch
+     * @param pool pool running the calculations
+     */
+    public static void getClassifiedEventTimes(Observer[] observers, LocalDate start, int days, long[] times, ForkJoinPool pool)
+    {
+        checkDays(days);
+        int count = Math.multiplyExact(observers.length, days);
+        ArrayUtils.checkRange(times.length, 0, Math.multiplyExact(count, PhaseUtils.EVENT_COUNT));
+
+        pool.invoke(new Task(observers.clone(), start.toEpochDay(), days, null, true, times, 0, 0, count));
+    }
+
+    /**
+     * Calculates the phase times of consecutive days for many locations, splitting the work in the given pool
+     *
+     * @param observers the locations to calculate for
+     * @param start the first day
+     * @param days number of days
+     * @param zone timezone of the days
+     * @param times receives {@link PhaseUtils#TIMES_LENGTH} phase times per location and day, grouped by location, in
+     *              milliseconds since the POSIX epoch
+     * @param pool pool running the calculations
+     */
+    public static void getPhaseTimes(Observer[] observers, LocalDate start, int days, ZoneId zone, long[] times, ForkJoinPool pool)
+    {
+        checkDays(days);
+        int count = Math.multiplyExact(observers.length, days);
+        ArrayUtils.checkRange(times.length, 0, Math.multiplyExact(count, PhaseUtils.TIMES_LENGTH));
+
+        pool.invoke(new Task(observers.clone(), start.toEpochDay(), days, zone, false, times, 0, 0, count));
+    }
+
+    private static void checkDays(int days)
+    {
+        if (days < 0)
+            throw new IllegalArgumentException("days must be positive, got " + days);
+    }
+
+    /**
+     * Solves the days {@code from} (inclusive) to {@code to} (exclusive), counted over all the locations
+     */
+    private static final class Task extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Observer[] observers;
+        private final long startDay;
+        private final int days;
+        /** null to store event times, the timezone of the days to store phase times */
+        private final ZoneId zone;
+        /** store {@link PhaseUtils#ALWAYS_ABOVE} or {@link PhaseUtils#ALWAYS_BELOW} for events that do not happen? */
+        private final boolean classify;
+        private final long[] times;
+        private final int offset;
+        private final int from, to;
+
+        Task(Observer[] observers, long startDay, int days, ZoneId zone, boolean classify, long[] times, int offset, int from, int to)
+        {
+            this.observers = observers;
+            this.startDay = startDay;
+            this.days = days;
+            this.zone = zone;
+            this.classify = classify;
+            this.times = times;
+            this.offset = offset;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (to - from > GRAIN_SIZE)
+            {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Task(observers, startDay, days, zone, classify, times, offset, from, middle),
+                          new Task(observers, startDay, days, zone, classify, times, offset, middle, to));
+                return;
+            }
+
+            int width = zone == null ? PhaseUtils.EVENT_COUNT : PhaseUtils.TIMES_LENGTH;
+            for (int i = from; i < to; i++)
+            {
+                Observer observer = observers[i / days];
+                long epochDay = startDay + i % days;
+                int index = offset + i * width;
+
+                // noon of the local date, read as UTC, like the timezone offset added by DateUtils.toDays(Calendar)
+                double d = DateUtils.toDays(epochDay * DateUtils.DAY_MS + DateUtils.DAY_MS / 2);
+
+                if (zone == null)
+                {
+                    if (classify)
+                        PhaseUtils.getClassifiedEventTimes(d, observer, times, index);
+                    else
+                        PhaseUtils.getEventTimes(d, observer, times, index);
+                    continue;
+                }
+
+                PhaseUtils.getPhaseTimes(d, observer, times, index);
+
+                LocalDate date = LocalDate.ofEpochDay(epochDay);
+                times[index + PhaseUtils.getStartIndex(SunPhase.Name.NIGHT_MORNING)] =
+                        date.atStartOfDay(zone).toInstant().toEpochMilli();
+                times[index + PhaseUtils.getEndIndex(SunPhase.Name.NIGHT_RISING)] =
+                        date.atTime(END_OF_DAY).atZone(zone).toInstant().toEpochMilli();
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.florianmski.suncalc;
+
+import com.florianmski.suncalc.metrics.Metrics;
+import com.florianmski.suncalc.models.EquatorialCoordinates;
+import com.florianmski.suncalc.utils.PositionUtils;
+import com.florianmski.suncalc.utils.SunUtils;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded cache of the sun's equatorial coordinates, keyed by day.
+ * <p>
+ *  For every day the right ascension and declination of {@link SunUtils#getSunCoords(double)} are evaluated at the
+ *  start, middle and end of the day, and interpolated by a quadratic for any moment of that day. Compared with the
+ *  direct calculation the error is below {@link #MAX_ERROR} for the years 1800 to 2200.
+ * </p>
+ * <p>
+ *  The cache is a fixed size table where each day has a single slot, so a day evicts the day stored in its slot.
+ *  It can be shared by any number of threads: reads and writes of a slot are atomic and never block, and two threads
+ *  missing the same day at the same time simply both compute it.
+ * </p>
+ * <p>
+ *  Every lookup is reported to the listeners of {@link Metrics}, if any, as a hit or a miss, except for the caches
+ *  private to a calculation such as {@link SunPathDiagram}.
+ * </p>
+ */
+public class SolarEphemerisCache
+{
+    /** Maximum difference with {@link SunUtils#getSunCoords(double)} of the interpolated coordinates, in radians */
+    public static final double MAX_ERROR = 5e-8;
+
+    private final AtomicReferenceArray<Day> days;
+    private final int mask;
+    private final boolean reported;
+
+    /**
+     * @param capacity number of days kept in the cache, rounded up to a power of two
+     */
+    public SolarEphemerisCache(int capacity)
+    {
+        this(capacity, true);
+    }
+
+    /**
+     * @param capacity number of days kept in the cache, rounded up to a power of two
+     * @param reported are lookups reported to {@link Metrics}?
+     */
+    SolarEphemerisCache(int capacity, boolean reported)
+    {
+        if (capacity <= 0 || capacity > 1 << 30)
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30, got " + capacity);
+
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+            size <<= 1;
+
+        this.days = new AtomicReferenceArray<Day>(size);
+        this.mask = size - 1;
+        this.reported = reported;
+    }
+
+    /**
+     * @return number of days kept in the cache
+     */
+    public int getCapacity()
+    {
+        return days.length();
+    }
+
+    /**
+     * Right ascension of the sun
+     *
+     * @param d Julian days since Jan 1, 2000
+     * @return right ascension, in radians
+     */
+    public double getRightAscension(double d)
+    {
+        return getDay(d).getRightAscension(d);
+    }
+
+    /**
+     * Declination of the sun
+     *
+     * @param d Julian days since Jan 1, 2000
+     * @return declination, in radians
+     */
+    public double getDeclination(double d)
+    {
+        return getDay(d).getDeclination(d);
+    }
+
+    /**
+     * Same as {@link SunUtils#getSunCoords(double)}, interpolated from the cache
+     *
+     * @param d Julian days since Jan 1, 2000
+     * @return equatorial coordinates of the sun
+     */
+    public EquatorialCoordinates getSunCoords(double d)
+    {
+        Day day = getDay(d);
+        return new EquatorialCoordinates(day.getRightAscension(d), day.getDeclination(d));
+    }
+
+    private Day getDay(double d)
+    {
+        long key = (long) Math.floor(d);
+        int slot = (int) key & mask;
+
+        Day day = days.get(slot);
+        boolean hit = day != null && day.key == key;
+        if (!hit)
+        {
+            day = new Day(key);
+            days.set(slot, day);
+        }
+        if (reported)
+            Metrics.cacheAccess(hit);
+        return day;
+    }
+
+    /**
+     * Quadratic interpolation of the coordinates over a single day
+     */
+    private static final class Day
+    {
+        final long key;
+        final double ra0, ra1, ra2;
+        final double dec0, dec1, dec2;
+
+        Day(long key)
+        {
+            this.key = key;
+
+            double l0 = getEclipticLongitude(key);
+            double l1 = getEclipticLongitude(key + 0.5);
+            double l2 = getEclipticLongitude(key + 1);
+
+            // the right ascension wraps around at PI, unwrap it so it is continuous over the day
+            double r0 = PositionUtils.getRightAscension(l0, 0);
+            double r1 = unwrap(PositionUtils.getRightAscension(l1, 0), r0);
+            double r2 = unwrap(PositionUtils.getRightAscension(l2, 0), r1);
+
+            double d0 = PositionUtils.getDeclination(l0, 0);
+            double d1 = PositionUtils.getDeclination(l1, 0);
+            double d2 = PositionUtils.getDeclination(l2, 0);
+
+            // coefficients of the quadratic going through t = 0, 0.5 and 1
+            this.ra0 = r0;
+            this.ra1 = 4 * r1 - 3 * r0 - r2;
+            this.ra2 = 2 * r0 - 4 * r1 + 2 * r2;
+            this.dec0 = d0;
+            this.dec1 = 4 * d1 - 3 * d0 - d2;
+            this.dec2 = 2 * d0 - 4 * d1 + 2 * d2;
+        }
+
+        double getRightAscension(double d)
+        {
+            double t = d - key;
+            double ra = ra0 + t * (ra1 + t * ra2);
+            return ra > Math.PI ? ra - 2 * Math.PI : ra <= -Math.PI ? ra + 2 * Math.PI : ra;
+        }
+
+        double getDeclination(double d)
+        {
+            double t = d - key;
+            return dec0 + t * (dec1 + t * dec2);
+        }
+
+        private static double getEclipticLongitude(double d)
+        {
+            double M = SunUtils.getSolarMeanAnomaly(d);
+            return SunUtils.getEclipticLongitude(M, SunUtils.getEquationOfCenter(M));
+        }
+
+        private static double unwrap(double angle, double previous)
+        {
+            if (angle - previous > Math.PI)
+                return angle - 2 * Math.PI;
+            if (previous - angle > Math.PI)
+                return angle + 2 * Math.PI;
+            return angle;
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.florianmski.suncalc;
+
+import com.florianmski.suncalc.models.Observer;
+import com.florianmski.suncalc.utils.DateUtils;
+import com.florianmski.suncalc.utils.PhaseUtils;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Immutable raster of the sun events of a day over a regular grid of locations, with a compact binary format.
+ * <p>
+ *  Every cell holds the {@link PhaseUtils#EVENT_COUNT} event times of the day (see
+ *  {@link PhaseUtils#getClassifiedEventTimes(double, Observer, long[], int)}), each distinct altitude being solved once
+ *  per cell. Like {@link SolarAlmanac}, the day is solved from its date only, so the tile does not depend on any
+ *  timezone. Times are stored as signed 16 bits numbers of minutes since midnight UTC of the date, events near the
+ *  date line being on the previous or next day; {@link #ALWAYS_ABOVE} and {@link #ALWAYS_BELOW} mark the events that
+ *  do not happen.
+ * </p>
+ * <p>
+ *  The binary format, written by {@link #write(OutputStream)}, is big-endian:
+ * </p>
+ * <pre>
+ *  int     magic, "SCT1"
+ *  long    date, as an epoch day
+ *  double  latitude of the first row, in degrees
+ *  double  latitude difference between two rows, in degrees
+ *  int     number of rows
+ *  double  longitude of the first column, in degrees
+ *  double  longitude difference between two columns, in degrees
+ *  int     number of columns
+ *  short   number of events per cell
+ *  short[] event times, cell by cell, row by row
+ * </pre>
+ * <p>
+ *  That is 54 bytes of header plus 28 bytes per cell, e.g. 1.8 MB for a whole-Earth tile with a one degree step.
+ * </p>
+ * <p>
+ *  Point lookups interpolate bilinearly between the four surrounding cells. Times are rounded to the minute, so a cell
+ *  is at most 30 seconds off; with a one degree step the interpolation adds about 15 seconds, for a total error below
+ *  45 seconds. This does not hold within a few degrees of the latitude beyond which the sun stops reaching the altitude
+ *  of an event that day: times change quickly with the latitude there, and whether the event happens is only known
+ *  for the cells, a lookup taking the status of the nearest one. The time of the solar day changes by a whole day at
+ *  the date line, so a tile should not straddle it.
+ * </p>
+ */
+public final class SolarEventTile
+{
+    /** Stored time of an event that does not happen because the sun stays above its altitude */
+    public static final short ALWAYS_ABOVE = Short.MAX_VALUE;
+
+    /** Stored time of an event that does not happen because the sun stays below its altitude */
+    public static final short ALWAYS_BELOW = Short.MIN_VALUE;
+
+    /** "SCT1" */
+    private static final int MAGIC = 0x53435431;
+
+    private static final long MINUTE_MS = 60 * 1000;
+
+    private final long epochDay;
+    private final double latStart, latStep;
+    private final int rows;
+    private final double lngStart, lngStep;
+    private final int columns;
+    private final short[] minutes;
+
+    private SolarEventTile(long epochDay, double latStart, double latStep, int rows, double lngStart, double lngStep, int columns, short[] minutes)
+    {
+        if (rows < 1 || columns < 1)
+            throw new IllegalArgumentException("rows and columns must be at least 1, got " + rows + " and " + columns);
+        if (!isStep(latStep) || !isStep(lngStep))
+            throw new IllegalArgumentException("steps must be finite and not zero, got " + latStep + " and " + lngStep);
+        if (minutes.length != Math.multiplyExact(Math.multiplyExact(rows, columns), PhaseUtils.EVENT_COUNT))
+            throw new IllegalArgumentException("expected " + PhaseUtils.EVENT_COUNT + " events for each of the "
+                    + rows + " x " + columns + " cells, got " + minutes.length);
+
+        this.epochDay = epochDay;
+        this.latStart = latStart;
+        this.latStep = latStep;
+        this.rows = rows;
+        this.lngStart = lngStart;
+        this.lngStep = lngStep;
+        this.columns = columns;
+        this.minutes = minutes;
+    }
+
+    private static boolean isStep(double step)
+    {
+        return step != 0 && !Double.isNaN(step) && !Double.isInfinite(step);
+    }
+
+    /**
+     * Calculates the events of a day for every cell of a grid
+     *
+     * @param date the day
+     * @param latStart latitude of the first row, in degrees
+     * @param latStep latitude difference between two rows, in degrees
+     * @param rows number of rows
+     * @param lngStart longitude of the first column, in degrees
+     * @param lngStep longitude difference between two columns, in degrees
+     * @param columns number of columns
+     * @return the tile
+     */
+    public static SolarEventTile generate(LocalDate date, double latStart, double latStep, int rows, double lngStart, double lngStep, int columns)
+    {
+        if (rows < 1 || columns < 1)
+            throw new IllegalArgumentException("rows and columns must be at least 1, got " + rows + " and " + columns);
+
+        long epochDay = date.toEpochDay();
+        long midnight = epochDay * DateUtils.DAY_MS;
+        double d = DateUtils.toDays(midnight + DateUtils.DAY_MS / 2);
+
+        short[] minutes = new short[Math.multiplyExact(Math.multiplyExact(rows, columns), PhaseUtils.EVENT_COUNT)];
+        long[] times = new long[PhaseUtils.EVENT_COUNT];
+
+        for (int r = 0, i = 0; r < rows; r++)
+        {
+            double lat = latStart + r * latStep;
+            for (int c = 0; c < columns; c++)
+            {
+                PhaseUtils.getClassifiedEventTimes(d, new Observer(lat, lngStart + c * lngStep), times, 0);
+                for (long time : times)
+                    minutes[i++] = encode(time, midnight);
+            }
+        }
+        return new SolarEventTile(epochDay, latStart, latStep, rows, lngStart, lngStep, columns, minutes);
+    }
+
+    private static short encode(long time, long midnight)
+    {
+        if (time == PhaseUtils.ALWAYS_ABOVE)
+            return ALWAYS_ABOVE;
+        if (time == PhaseUtils.ALWAYS_BELOW)
+            return ALWAYS_BELOW;
+        return (short) Math.round((double) (time - midnight) / MINUTE_MS);
+    }
+
+    /**
+     * Reads a tile written by {@link #write(OutputStream)}
+     *
+     * @param in stream positioned at the start of the tile, left open
+     * @return the tile
+     * @throws IOException if the stream cannot be read or does not hold a tile
+     */
+    public static SolarEventTile read(InputStream in) throws IOException
+    {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC)
+            throw new IOException("not a solar event tile");
+
+        long epochDay   = data.readLong();
+        double latStart = data.readDouble();
+        double latStep  = data.readDouble();
+        int rows        = data.readInt();
+        double lngStart = data.readDouble();
+        double lngStep  = data.readDouble();
+        int columns     = data.readInt();
+        int events      = data.readShort();
+        if (events != PhaseUtils.EVENT_COUNT)
+            throw new IOException("expected " + PhaseUtils.EVENT_COUNT + " events per cell, got " + events);
+        if (rows < 1 || columns < 1 || (long) rows * columns * events > Integer.MAX_VALUE)
+            throw new IOException("invalid size " + rows + " x " + columns);
+
+        short[] minutes = new short[rows * columns * events];
+        for (int i = 0; i < minutes.length; i++)
+            minutes[i] = data.readShort();
+
+        try
+        {
+            return new SolarEventTile(epochDay, latStart, latStep, rows, lngStart, lngStep, columns, minutes);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes the tile in its binary format, see {@link SolarEventTile}
+     *
+     * @param out stream receiving the tile, flushed but left open
+     * @throws IOException if the stream cannot be written
+     */
+    public void write(OutputStream out) throws IOException
+    {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeLong(epochDay);
+        data.writeDouble(latStart);
+        data.writeDouble(latStep);
+        data.writeInt(rows);
+        data.writeDouble(lngStart);
+        data.writeDouble(lngStep);
+        data.writeInt(columns);
+        data.writeShort(PhaseUtils.EVENT_COUNT);
+        for (short m : minutes)
+            data.writeShort(m);
+        data.flush();
+    }
+
+    /**
+     * @return the day of the events
+     */
+    public LocalDate getDate()
+    {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * @return number of rows, i.e. latitudes
+     */
+    public int getRows()
+    {
+        return rows;
+    }
+
+    /**
+     * @return number of columns, i.e. longitudes
+     */
+    public int getColumns()
+    {
+        return columns;
+    }
+
+    /**
+     * @param row index of the row
+     * @param column index of the column
+     * @param event index of the event, see {@link PhaseUtils#getEvent(double, boolean)}
+     * @return stored time of the event, in minutes since midnight UTC of the date, or {@link #ALWAYS_ABOVE} or
+     *         {@link #ALWAYS_BELOW}
+     */
+    public short getMinutes(int row, int column, int event)
+    {
+        if (row < 0 || row >= rows || column < 0 || column >= columns || event < 0 || event >= PhaseUtils.EVENT_COUNT)
+            throw new IndexOutOfBoundsException("cell " + row + ", " + column + ", event " + event);
+        return minutes[(row * columns + column) * PhaseUtils.EVENT_COUNT + event];
+    }
+
+    /**
+     * Time of an event at any location of the tile, interpolated from the surrounding cells. When the event does not
+     * happen in some of these cells, the nearest cell is used instead
+     *
+     * @param lat measured from North, in degrees, within the rows of the tile
+     * @param lng measured from East, in degrees, within the columns of the tile
+     * @param event index of the event, see {@link PhaseUtils#getEvent(double, boolean)}
+     * @return time of the event, in milliseconds since the POSIX epoch, or {@link PhaseUtils#ALWAYS_ABOVE} or
+     *         {@link PhaseUtils#ALWAYS_BELOW}
+     */
+    public long getEventTime(double lat, double lng, int event)
+    {
+        if (event < 0 || event >= PhaseUtils.EVENT_COUNT)
+            throw new IndexOutOfBoundsException("event " + event);
+
+        double y = position(lat, latStart, latStep, rows, "latitude");
+        double x = position(lng, lngStart, lngStep, columns, "longitude");
+
+        int r = Math.min((int) y, Math.max(rows - 2, 0));
+        int c = Math.min((int) x, Math.max(columns - 2, 0));
+        int r1 = Math.min(r + 1, rows - 1);
+        int c1 = Math.min(c + 1, columns - 1);
+        double fy = y - r;
+        double fx = x - c;
+
+        short m00 = minutes[(r * columns + c) * PhaseUtils.EVENT_COUNT + event];
+        short m01 = minutes[(r * columns + c1) * PhaseUtils.EVENT_COUNT + event];
+        short m10 = minutes[(r1 * columns + c) * PhaseUtils.EVENT_COUNT + event];
+        short m11 = minutes[(r1 * columns + c1) * PhaseUtils.EVENT_COUNT + event];
+
+        double value;
+        if (isOccurring(m00) && isOccurring(m01) && isOccurring(m10) && isOccurring(m11))
+        {
+            value = (1 - fy) * ((1 - fx) * m00 + fx * m01) + fy * ((1 - fx) * m10 + fx * m11);
+        }
+        else
+        {
+            short nearest = fy < 0.5 ? (fx < 0.5 ? m00 : m01) : (fx < 0.5 ? m10 : m11);
+            if (nearest == ALWAYS_ABOVE)
+                return PhaseUtils.ALWAYS_ABOVE;
+            if (nearest == ALWAYS_BELOW)
+                return PhaseUtils.ALWAYS_BELOW;
+            value = nearest;
+        }
+        return epochDay * DateUtils.DAY_MS + Math.round(value * MINUTE_MS);
+    }
+
+    /**
+     * Time of an event at any location of the tile, see {@link #getEventTime(double, double, int)}
+     *
+     * @param lat measured from North, in degrees, within the rows of the tile
+     * @param lng measured from East, in degrees, within the columns of the tile
+     * @param angle altitude of the sun at the event, in degrees. See {@link com.florianmski.suncalc.utils.Constants.SunAngles}
+     * @param rising is the sun rising or setting? Ignored for nadir and solar noon
+     * @return time of the event, in milliseconds since the POSIX epoch, or {@link PhaseUtils#ALWAYS_ABOVE} or
+     *         {@link PhaseUtils#ALWAYS_BELOW}
+     */
+    public long getEventTime(double lat, double lng, double angle, boolean rising)
+    {
+        return getEventTime(lat, lng, PhaseUtils.getEvent(angle, rising));
+    }
+
+    private static boolean isOccurring(short minutes)
+    {
+        return minutes != ALWAYS_ABOVE && minutes != ALWAYS_BELOW;
+    }
+
+    /**
+     * @return fractional index of a coordinate along an axis of the grid
+     */
+    private static double position(double value, double start, double step, int count, String axis)
+    {
+        double position = (value - start) / step;
+        // tolerate the rounding of a coordinate on the last row or column
+        if (position > count - 1 && position < count - 1 + 1e-9)
+            position = count - 1;
+        if (!(position >= 0 && position <= count - 1))
+            throw new IllegalArgumentException(axis + " " + value + " is out of the tile");
+        return position;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) return true;
+        if (!(o instanceof SolarEventTile)) return false;
+        SolarEventTile that = (SolarEventTile) o;
+        return epochDay == that.epochDay
+                && Double.compare(latStart, that.latStart) == 0 && Double.compare(latStep, that.latStep) == 0 && rows == that.rows
+                && Double.compare(lngStart, that.lngStart) == 0 && Double.compare(lngStep, that.lngStep) == 0 && columns == that.columns
+                && Arrays.equals(minutes, that.minutes);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int result = Long.hashCode(epochDay);
+        result = 31 * result + Double.hashCode(latStart);
+        result = 31 * result + Double.hashCode(latStep);
+        result = 31 * result + rows;
+        result = 31 * result + Double.hashCode(lngStart);
+        result = 31 * result + Double.hashCode(lngStep);
+        result = 31 * result + columns;
+        return 31 * result + Arrays.hashCode(minutes);
+    }
+
+    @Override
+    public String toString() {
+        return "SolarEventTile{" +
+                "date=" + getDate() +
+                ", lat=" + latStart + "+" + latStep + "x" + rows +
+                ", lng=" + lngStart + "+" + lngStep + "x" + columns +
+                '}';
+    }
+}
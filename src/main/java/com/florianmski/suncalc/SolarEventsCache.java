@@ -0,0 +1,356 @@
+package com.florianmski.suncalc;
+
+import com.florianmski.suncalc.models.DailySolarEvents;
+import com.florianmski.suncalc.models.Observer;
+import com.florianmski.suncalc.models.SunPhase;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of the phases of the sun, keyed by location, local date and timezone.
+ * <p>
+ *  Locations are quantized to a grid of a given resolution, and the phases of a cell are those of its center, so all
+ *  the requests within a cell share a single entry. With the default resolution of {@link #DEFAULT_RESOLUTION} degree
+ *  (about a kilometer) the times differ from the exact location by a few seconds, more near the poles where the sun
+ *  barely reaches the altitude of some events.
+ * </p>
+ * <p>
+ *  The cache holds {@link DailySolarEvents}, which are immutable, so an entry can be read by any number of threads;
+ *  {@link #getPhases(ZonedDateTime, double, double)} creates new {@link SunPhase} objects on every call, which the caller
+ *  is free to modify. Entries are split in stripes, each one a small LRU map behind its own lock, only held to look up
+ *  or store an entry: the phases are calculated outside of the lock, so two threads missing the same entry at the
+ *  same time simply both calculate it. Each stripe holds an equal part of the maximum size, and an entry is evicted
+ *  when its stripe is full (least recently used first) or once it is older than the expiry, if any.
+ * </p>
+ * <p>
+ *  Lookups are counted by the cache itself, see {@link #getHitRate()}: the cache accesses of
+ *  {@link com.florianmski.suncalc.metrics.Metrics} are those of {@link SolarEphemerisCache} only.
+ * </p>
+ */
+public final class SolarEventsCache
+{
+    /** Default size of the cells of the locations, in degrees */
+    public static final double DEFAULT_RESOLUTION = 0.01;
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final int maximumSize;
+    private final long expiryNanos;
+    private final double resolution;
+    private final LongSupplier ticker;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maximumSize maximum number of entries, entries never expire and locations are quantized to
+     *                    {@link #DEFAULT_RESOLUTION}
+     */
+    public SolarEventsCache(int maximumSize)
+    {
+        this(maximumSize, 0, TimeUnit.NANOSECONDS, DEFAULT_RESOLUTION);
+    }
+
+    /**
+     * @param maximumSize maximum number of entries
+     * @param expiry time after which an entry is calculated again, 0 for never
+     * @param unit unit of the expiry
+     * @param resolution size of the cells the locations are quantized to, in degrees
+     */
+    public SolarEventsCache(int maximumSize, long expiry, TimeUnit unit, double resolution)
+    {
+        this(maximumSize, unit.toNanos(expiry), resolution, System::nanoTime);
+    }
+
+    SolarEventsCache(int maximumSize, long expiryNanos, double resolution, LongSupplier ticker)
+    {
+        if (maximumSize <= 0)
+            throw new IllegalArgumentException("maximumSize must be positive, got " + maximumSize);
+        if (expiryNanos < 0)
+            throw new IllegalArgumentException("expiry must be positive, got " + expiryNanos + " ns");
+        if (!(resolution > 0))
+            throw new IllegalArgumentException("resolution must be positive, got " + resolution);
+
+        this.maximumSize = maximumSize;
+        this.expiryNanos = expiryNanos;
+        this.resolution = resolution;
+        this.ticker = ticker;
+
+        // about 4 stripes per processor, each holding at least 16 entries, and no more than maximumSize in total
+        int count = Integer.highestOneBit(Math.max(1, Math.min(4 * Runtime.getRuntime().availableProcessors(), maximumSize / 16)));
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++)
+            stripes[i] = new Stripe(maximumSize / count);
+        this.mask = count - 1;
+    }
+
+    /**
+     * Phases of the sun for a single day, from the cache or calculated as
+     * {@link SunCalc#getSolarEvents(ZonedDateTime, Observer)} for the center of the cell of the location
+     *
+     * @param date the day and timezone to calculate sun positions for, time is ignored
+     * @param lat measured from North, in degrees
+     * @param lng measured from East, in degrees
+     * @return phase times of the day, in the timezone of the date
+     */
+    public DailySolarEvents getSolarEvents(ZonedDateTime date, double lat, double lng)
+    {
+        return getSolarEvents(date.toLocalDate(), date.getZone(), lat, lng);
+    }
+
+    /**
+     * Phases of the sun for a single day, from the cache or calculated as
+     * {@link SunCalc#getSolarEvents(ZonedDateTime, Observer)} for the center of the cell of the location
+     *
+     * @param date the day to calculate sun positions for
+     * @param zone the timezone of the day
+     * @param lat measured from North, in degrees
+     * @param lng measured from East, in degrees
+     * @return phase times of the day, in the timezone of the date
+     */
+    public DailySolarEvents getSolarEvents(LocalDate date, ZoneId zone, double lat, double lng)
+    {
+        Key key = new Key(Math.round(lat / resolution), Math.round(lng / resolution), date.toEpochDay(), zone);
+        Stripe stripe = stripes[key.hashCode() & mask];
+
+        long now = ticker.getAsLong();
+        DailySolarEvents events = stripe.get(key, now);
+        if (events != null)
+        {
+            hits.increment();
+            return events;
+        }
+
+        misses.increment();
+        events = SunCalc.getSolarEvents(date.atStartOfDay(zone),
+                new Observer(key.latIndex * resolution, key.lngIndex * resolution));
+        stripe.put(key, events, now);
+        return events;
+    }
+
+    /**
+     * Same as {@link SunCalc#getPhases(java.util.Calendar, double, double)}, from the cache
+     *
+     * @param date the day and timezone to calculate sun positions for, time is ignored
+     * @param lat measured from North, in degrees
+     * @param lng measured from East, in degrees
+     * @return new phases, with their start/end angles and start/end times
+     */
+    public List<SunPhase> getPhases(ZonedDateTime date, double lat, double lng)
+    {
+        return getSolarEvents(date, lat, lng).getPhases();
+    }
+
+    /**
+     * @return maximum number of entries, the cache may hold less once a stripe is full
+     */
+    public int getMaximumSize()
+    {
+        return maximumSize;
+    }
+
+    /**
+     * @return size of the cells the locations are quantized to, in degrees
+     */
+    public double getResolution()
+    {
+        return resolution;
+    }
+
+    /**
+     * @return number of entries, including the expired ones not evicted yet
+     */
+    public int size()
+    {
+        int size = 0;
+        for (Stripe stripe : stripes)
+            size += stripe.size();
+        return size;
+    }
+
+    /**
+     * @return number of lookups finding their entry
+     */
+    public long getHits()
+    {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of lookups calculating their entry
+     */
+    public long getMisses()
+    {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of entries evicted because the cache was full or they expired
+     */
+    public long getEvictions()
+    {
+        return evictions.sum();
+    }
+
+    /**
+     * @return part of the lookups finding their entry, between 0 and 1, NaN if there was no lookup
+     */
+    public double getHitRate()
+    {
+        long hits = getHits();
+        long lookups = hits + getMisses();
+        return lookups == 0 ? Double.NaN : (double) hits / lookups;
+    }
+
+    /**
+     * Removes every entry, the statistics are kept
+     */
+    public void clear()
+    {
+        for (Stripe stripe : stripes)
+            stripe.clear();
+    }
+
+    private static final class Key
+    {
+        final long latIndex, lngIndex, epochDay;
+        final ZoneId zone;
+        final int hash;
+
+        Key(long latIndex, long lngIndex, long epochDay, ZoneId zone)
+        {
+            this.latIndex = latIndex;
+            this.lngIndex = lngIndex;
+            this.epochDay = epochDay;
+            this.zone = zone;
+
+            long h = latIndex * 0x9E3779B97F4A7C15L + lngIndex;
+            h = h * 0x9E3779B97F4A7C15L + epochDay;
+            h = h * 31 + zone.hashCode();
+            // spread the high bits to the low ones, which select the stripe
+            this.hash = (int) (h ^ (h >>> 32) ^ (h >>> 17));
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return latIndex == key.latIndex && lngIndex == key.lngIndex && epochDay == key.epochDay && zone.equals(key.zone);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+    }
+
+    private static final class Entry
+    {
+        final DailySolarEvents events;
+        final long created;
+
+        Entry(DailySolarEvents events, long created)
+        {
+            this.events = events;
+            this.created = created;
+        }
+    }
+
+    /**
+     * LRU map of a part of the keys
+     */
+    private final class Stripe
+    {
+        /** entries in access order, least recently used first */
+        private final LinkedHashMap<Key, Entry> entries;
+        /** the same entries in creation order, oldest first, null if entries never expire */
+        private final LinkedHashMap<Key, Entry> created;
+
+        Stripe(final int capacity)
+        {
+            this.created = expiryNanos == 0 ? null : new LinkedHashMap<Key, Entry>();
+            this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true)
+            {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest)
+                {
+                    if (size() <= capacity)
+                        return false;
+                    if (created != null)
+                        created.remove(eldest.getKey());
+                    evictions.increment();
+                    return true;
+                }
+            };
+        }
+
+        synchronized DailySolarEvents get(Key key, long now)
+        {
+            Entry entry = entries.get(key);
+            if (entry == null)
+                return null;
+            if (isExpired(entry, now))
+            {
+                entries.remove(key);
+                created.remove(key);
+                evictions.increment();
+                return null;
+            }
+            return entry.events;
+        }
+
+        synchronized void put(Key key, DailySolarEvents events, long now)
+        {
+            Entry entry = new Entry(events, now);
+            entries.put(key, entry);
+
+            if (created == null)
+                return;
+
+            // a new entry goes last, then drop the oldest entries while they are expired
+            created.remove(key);
+            created.put(key, entry);
+            for (Iterator<Map.Entry<Key, Entry>> it = created.entrySet().iterator(); it.hasNext(); )
+            {
+                Map.Entry<Key, Entry> oldest = it.next();
+                if (!isExpired(oldest.getValue(), now))
+                    break;
+                it.remove();
+                entries.remove(oldest.getKey());
+                evictions.increment();
+            }
+        }
+
+        synchronized int size()
+        {
+            return entries.size();
+        }
+
+        synchronized void clear()
+        {
+            entries.clear();
+            if (created != null)
+                created.clear();
+        }
+
+        private boolean isExpired(Entry entry, long now)
+        {
+            return expiryNanos != 0 && now - entry.created >= expiryNanos;
+        }
+    }
+}
@@ -1,15 +1,24 @@
 package com.florianmski.suncalc;
 
 
+import com.florianmski.suncalc.metrics.Metrics;
+import com.florianmski.suncalc.metrics.Operation;
 import com.florianmski.suncalc.models.*;
 import com.florianmski.suncalc.utils.*;
 
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 import java.util.TimeZone;
 
 /**
- * Calculations for the sun and moon relative to earth
+ * Calculations for the sun and moon relative to earth.
+ * <p>
+ *  Calls are reported to the listeners of {@link Metrics}, if any, see {@link Operation}.
+ * </p>
  */
 public class SunCalc
 {
@@ -24,16 +33,289 @@ public class SunCalc
      */
     public static SunPosition getSunPosition(Calendar date, double lat, double lng)
     {
-        double lw  = Constants.TO_RAD * -lng;
+        return getSunPosition(DateUtils.toDays(date), lat, lng);
+    }
+
+    /**
+     * Calculates the sun's position at a particular location and moment
+     *
+     * @param instant the moment to calculate for
+     * @param lat measured from North, in degrees
+     * @param lng measured from East, in degrees
+     * @return the sun's position in the sky relative to the location
+     */
+    public static SunPosition getSunPosition(Instant instant, double lat, double lng)
+    {
+        return getSunPosition(instant.toEpochMilli(), lat, lng);
+    }
+
+    /**
+     * Calculates the sun's position at a particular location and moment
+     *
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param lat measured from North, in degrees
+     * @param lng measured from East, in degrees
+     * @return the sun's position in the sky relative to the location
+     */
+    public static SunPosition getSunPosition(long epochMillis, double lat, double lng)
+    {
+        return getSunPosition(DateUtils.toDays(epochMillis), lat, lng);
+    }
+
+    /**
+     * Calculates the sun's position at a particular location and moment
+     *
+     * @param date the day, time and timezone to calculate for
+     * @param observer the location to calculate for
+     * @return the sun's position in the sky relative to the location
+     */
+    public static SunPosition getSunPosition(Calendar date, Observer observer)
+    {
+        return getSunPosition(DateUtils.toDays(date), observer.getLw(), observer.getSinPhi(), observer.getCosPhi());
+    }
+
+    /**
+     * Calculates the sun's position at a particular location and moment
+     *
+     * @param instant the moment to calculate for
+     * @param observer the location to calculate for
+     * @return the sun's position in the sky relative to the location
+     */
+    public static SunPosition getSunPosition(Instant instant, Observer observer)
+    {
+        return getSunPosition(instant.toEpochMilli(), observer);
+    }
+
+    /**
+     * Calculates the sun's position at a particular location and moment
+     *
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param observer the location to calculate for
+     * @return the sun's position in the sky relative to the location
+     */
+    public static SunPosition getSunPosition(long epochMillis, Observer observer)
+    {
+        return getSunPosition(DateUtils.toDays(epochMillis), observer.getLw(), observer.getSinPhi(), observer.getCosPhi());
+    }
+
+    /**
+     * Calculates the sun's position at a particular location and moment, with the sun's coordinates interpolated
+     * from a cache. See {@link SolarEphemerisCache#MAX_ERROR} for the accuracy.
+     *
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param observer the location to calculate for
+     * @param cache cache of the sun's coordinates
+     * @return the sun's position in the sky relative to the location
+     */
+    public static SunPosition getSunPosition(long epochMillis, Observer observer, SolarEphemerisCache cache)
+    {
+        long start = Metrics.start();
+        double d = DateUtils.toDays(epochMillis);
+        EquatorialCoordinates c = cache.getSunCoords(d);
+        SunPosition position = getSunPosition(d, c.getRightAscension(), c.getDeclination(), observer.getLw(), observer.getSinPhi(), observer.getCosPhi());
+        Metrics.stop(Operation.SUN_POSITION, start);
+        return position;
+    }
+
+    /**
+     * Calculates the sun's position at a particular location and moment, with the trigonometric functions of a
+     * strategy
+     *
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param observer the location to calculate for
+     * @param math trigonometric functions to use, see {@link MathStrategy}
+     * @return the sun's position in the sky relative to the location
+     */
+    public static SunPosition getSunPosition(long epochMillis, Observer observer, MathStrategy math)
+    {
+        long start = Metrics.start();
+        double d = DateUtils.toDays(epochMillis);
+        EquatorialCoordinates c = SunUtils.getSunCoords(d, math);
+        double H    = PositionUtils.getSiderealTime(d, observer.getLw()) - c.getRightAscension();
+        double dec  = c.getDeclination();
+        double cosH = math.cos(H);
+
+        SunPosition position = new SunPosition(
+                PositionUtils.getAzimuth(math.sin(H), cosH, observer.getSinPhi(), observer.getCosPhi(), math.tan(dec), math),
+                PositionUtils.getAltitude(cosH, observer.getSinPhi(), observer.getCosPhi(), math.sin(dec), math.cos(dec), math));
+        Metrics.stop(Operation.SUN_POSITION, start);
+        return position;
+    }
+
+    private static SunPosition getSunPosition(double d, double lat, double lng)
+    {
         double phi = Constants.TO_RAD * lat;
-        double d   = DateUtils.toDays(date);
+        return getSunPosition(d, Constants.TO_RAD * -lng, Math.sin(phi), Math.cos(phi));
+    }
 
+    private static SunPosition getSunPosition(double d, double lw, double sinPhi, double cosPhi)
+    {
+        long start = Metrics.start();
         EquatorialCoordinates c = SunUtils.getSunCoords(d);
-        double H  = PositionUtils.getSiderealTime(d, lw) - c.getRightAscension();
+        SunPosition position = getSunPosition(d, c.getRightAscension(), c.getDeclination(), lw, sinPhi, cosPhi);
+        Metrics.stop(Operation.SUN_POSITION, start);
+        return position;
+    }
+
+    private static SunPosition getSunPosition(double d, double ra, double dec, double lw, double sinPhi, double cosPhi)
+    {
+        double H    = PositionUtils.getSiderealTime(d, lw) - ra;
+        double cosH = Math.cos(H);
 
         return new SunPosition(
-                PositionUtils.getAzimuth(H, phi, c.getDeclination()),
-                PositionUtils.getAltitude(H, phi, c.getDeclination()));
+                PositionUtils.getAzimuth(Math.sin(H), cosH, sinPhi, cosPhi, Math.tan(dec)),
+                PositionUtils.getAltitude(cosH, sinPhi, cosPhi, Math.sin(dec), Math.cos(dec)));
+    }
+
+    /**
+     * Calculates the sun's position at a particular location for many moments at once, without allocating anything
+     * per moment. Results are the same as {@link #getSunPosition(long, double, double)}.
+     *
+     * @param epochMillis the moments to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param lat measured from North, in degrees
+     * @param lng measured from East, in degrees
+     * @param azimuths receives the azimuth for each moment, in radians, with NORTH as zero
+     * @param altitudes receives the altitude for each moment, in radians
+     */
+    public static void getSunPositions(long[] epochMillis, double lat, double lng, double[] azimuths, double[] altitudes)
+    {
+        getSunPositions(epochMillis, 0, epochMillis.length, lat, lng, azimuths, altitudes);
+    }
+
+    /**
+     * Calculates the sun's position at a particular location for a slice of moments, without allocating anything
+     * per moment. Results are the same as {@link #getSunPosition(long, double, double)}.
+     *
+     * @param epochMillis the moments to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param offset index of the first moment to calculate, also used as first index in the output arrays
+     * @param length number of moments to calculate
+     * @param lat measured from North, in degrees
+     * @param lng measured from East, in degrees
+     * @param azimuths receives the azimuth for each moment, in radians, with NORTH as zero
+     * @param altitudes receives the altitude for each moment, in radians
+     */
+    public static void getSunPositions(long[] epochMillis, int offset, int length, double lat, double lng, double[] azimuths, double[] altitudes)
+    {
+        double phi = Constants.TO_RAD * lat;
+        getSunPositions(epochMillis, offset, length, Constants.TO_RAD * -lng, Math.sin(phi), Math.cos(phi), azimuths, altitudes);
+    }
+
+    /**
+     * Calculates the sun's position at a particular location for a slice of moments, without allocating anything
+     * per moment. Results are the same as {@link #getSunPosition(long, Observer)}.
+     *
+     * @param epochMillis the moments to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param offset index of the first moment to calculate, also used as first index in the output arrays
+     * @param length number of moments to calculate
+     * @param observer the location to calculate for
+     * @param azimuths receives the azimuth for each moment, in radians, with NORTH as zero
+     * @param altitudes receives the altitude for each moment, in radians
+     */
+    public static void getSunPositions(long[] epochMillis, int offset, int length, Observer observer, double[] azimuths, double[] altitudes)
+    {
+        getSunPositions(epochMillis, offset, length, observer.getLw(), observer.getSinPhi(), observer.getCosPhi(), azimuths, altitudes);
+    }
+
+    /**
+     * Calculates the sun's position at a particular location for a slice of moments, with the sun's coordinates
+     * interpolated from a cache. See {@link SolarEphemerisCache#MAX_ERROR} for the accuracy.
+     *
+     * @param epochMillis the moments to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param offset index of the first moment to calculate, also used as first index in the output arrays
+     * @param length number of moments to calculate
+     * @param observer the location to calculate for
+     * @param cache cache of the sun's coordinates
+     * @param azimuths receives the azimuth for each moment, in radians, with NORTH as zero
+     * @param altitudes receives the altitude for each moment, in radians
+     */
+    public static void getSunPositions(long[] epochMillis, int offset, int length, Observer observer, SolarEphemerisCache cache, double[] azimuths, double[] altitudes)
+    {
+        ArrayUtils.checkRange(epochMillis.length, offset, length);
+        ArrayUtils.checkRange(azimuths.length, offset, length);
+        ArrayUtils.checkRange(altitudes.length, offset, length);
+
+        long start = Metrics.start();
+        double lw     = observer.getLw();
+        double sinPhi = observer.getSinPhi();
+        double cosPhi = observer.getCosPhi();
+
+        for (int i = offset, end = offset + length; i < end; i++)
+        {
+            double d    = DateUtils.toDays(epochMillis[i]);
+            EquatorialCoordinates c = cache.getSunCoords(d);
+            double dec  = c.getDeclination();
+            double H    = PositionUtils.getSiderealTime(d, lw) - c.getRightAscension();
+            double cosH = Math.cos(H);
+
+            azimuths[i]  = PositionUtils.getAzimuth(Math.sin(H), cosH, sinPhi, cosPhi, Math.tan(dec));
+            altitudes[i] = PositionUtils.getAltitude(cosH, sinPhi, cosPhi, Math.sin(dec), Math.cos(dec));
+        }
+        Metrics.stop(Operation.SUN_POSITIONS, start);
+    }
+
+    /**
+     * Calculates the sun's position at a particular location for a slice of moments, with the trigonometric functions
+     * of a strategy
+     *
+     * @param epochMillis the moments to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param offset index of the first moment to calculate, also used as first index in the output arrays
+     * @param length number of moments to calculate
+     * @param observer the location to calculate for
+     * @param math trigonometric functions to use, see {@link MathStrategy}
+     * @param azimuths receives the azimuth for each moment, in radians, with NORTH as zero
+     * @param altitudes receives the altitude for each moment, in radians
+     */
+    public static void getSunPositions(long[] epochMillis, int offset, int length, Observer observer, MathStrategy math, double[] azimuths, double[] altitudes)
+    {
+        ArrayUtils.checkRange(epochMillis.length, offset, length);
+        ArrayUtils.checkRange(azimuths.length, offset, length);
+        ArrayUtils.checkRange(altitudes.length, offset, length);
+
+        long start = Metrics.start();
+        double lw     = observer.getLw();
+        double sinPhi = observer.getSinPhi();
+        double cosPhi = observer.getCosPhi();
+
+        for (int i = offset, end = offset + length; i < end; i++)
+        {
+            double d = DateUtils.toDays(epochMillis[i]);
+
+            double M   = SunUtils.getSolarMeanAnomaly(d);
+            double L   = SunUtils.getEclipticLongitude(M, SunUtils.getEquationOfCenter(M, math));
+            double dec = PositionUtils.getDeclination(L, 0, math);
+            double H   = PositionUtils.getSiderealTime(d, lw) - PositionUtils.getRightAscension(L, 0, math);
+
+            double cosH = math.cos(H);
+
+            azimuths[i]  = PositionUtils.getAzimuth(math.sin(H), cosH, sinPhi, cosPhi, math.tan(dec), math);
+            altitudes[i] = PositionUtils.getAltitude(cosH, sinPhi, cosPhi, math.sin(dec), math.cos(dec), math);
+        }
+        Metrics.stop(Operation.SUN_POSITIONS, start);
+    }
+
+    private static void getSunPositions(long[] epochMillis, int offset, int length, double lw, double sinPhi, double cosPhi, double[] azimuths, double[] altitudes)
+    {
+        ArrayUtils.checkRange(epochMillis.length, offset, length);
+        ArrayUtils.checkRange(azimuths.length, offset, length);
+        ArrayUtils.checkRange(altitudes.length, offset, length);
+
+        long start = Metrics.start();
+        for (int i = offset, end = offset + length; i < end; i++)
+        {
+            double d = DateUtils.toDays(epochMillis[i]);
+
+            // same as SunUtils.getSunCoords(d), without the EquatorialCoordinates allocation
+            double M   = SunUtils.getSolarMeanAnomaly(d);
+            double L   = SunUtils.getEclipticLongitude(M, SunUtils.getEquationOfCenter(M));
+            double dec = PositionUtils.getDeclination(L, 0);
+            double H   = PositionUtils.getSiderealTime(d, lw) - PositionUtils.getRightAscension(L, 0);
+
+            double cosH = Math.cos(H);
+
+            azimuths[i]  = PositionUtils.getAzimuth(Math.sin(H), cosH, sinPhi, cosPhi, Math.tan(dec));
+            altitudes[i] = PositionUtils.getAltitude(cosH, sinPhi, cosPhi, Math.sin(dec), Math.cos(dec));
+        }
+        Metrics.stop(Operation.SUN_POSITIONS, start);
     }
 
     /**
@@ -47,18 +329,257 @@ public class SunCalc
      */
     public static MoonPosition getMoonPosition(Calendar date, double lat, double lng)
     {
-        double lw  = Constants.TO_RAD * -lng;
+        return getMoonPosition(DateUtils.toDays(date), lat, lng);
+    }
+
+    /**
+     * Calculates the moon's position at a particular location and moment
+     *
+     * @param instant the moment to calculate for
+     * @param lat measured from North, in degrees
+     * @param lng measured from East, in degrees
+     * @return the moon's position in the sky relative to the location
+     */
+    public static MoonPosition getMoonPosition(Instant instant, double lat, double lng)
+    {
+        return getMoonPosition(instant.toEpochMilli(), lat, lng);
+    }
+
+    /**
+     * Calculates the moon's position at a particular location and moment
+     *
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param lat measured from North, in degrees
+     * @param lng measured from East, in degrees
+     * @return the moon's position in the sky relative to the location
+     */
+    public static MoonPosition getMoonPosition(long epochMillis, double lat, double lng)
+    {
+        return getMoonPosition(DateUtils.toDays(epochMillis), lat, lng);
+    }
+
+    /**
+     * Calculates the moon's position at a particular location and moment
+     *
+     * @param date the day, time and timezone to calculate for
+     * @param observer the location to calculate for
+     * @return the moon's position in the sky relative to the location
+     */
+    public static MoonPosition getMoonPosition(Calendar date, Observer observer)
+    {
+        return getMoonPosition(DateUtils.toDays(date), observer.getLw(), observer.getSinPhi(), observer.getCosPhi());
+    }
+
+    /**
+     * Calculates the moon's position at a particular location and moment
+     *
+     * @param instant the moment to calculate for
+     * @param observer the location to calculate for
+     * @return the moon's position in the sky relative to the location
+     */
+    public static MoonPosition getMoonPosition(Instant instant, Observer observer)
+    {
+        return getMoonPosition(instant.toEpochMilli(), observer);
+    }
+
+    /**
+     * Calculates the moon's position at a particular location and moment
+     *
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param observer the location to calculate for
+     * @return the moon's position in the sky relative to the location
+     */
+    public static MoonPosition getMoonPosition(long epochMillis, Observer observer)
+    {
+        return getMoonPosition(DateUtils.toDays(epochMillis), observer.getLw(), observer.getSinPhi(), observer.getCosPhi());
+    }
+
+    /**
+     * Calculates the moon's position at a particular location and moment, with the trigonometric functions of a
+     * strategy
+     *
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @param observer the location to calculate for
+     * @param math trigonometric functions to use, see {@link MathStrategy}
+     * @return the moon's position in the sky relative to the location
+     */
+    public static MoonPosition getMoonPosition(long epochMillis, Observer observer, MathStrategy math)
+    {
+        long start = Metrics.start();
+        double d = DateUtils.toDays(epochMillis);
+        GeocentricCoordinates c = MoonUtils.getMoonCoords(d, math);
+        double H    = PositionUtils.getSiderealTime(d, observer.getLw()) - c.getRightAscension();
+        double dec  = c.getDeclination();
+        double cosH = math.cos(H);
+        double h = PositionUtils.getAltitude(cosH, observer.getSinPhi(), observer.getCosPhi(), math.sin(dec), math.cos(dec), math);
+
+        // altitude correction for refraction
+        h = h + PositionUtils.getAstroRefraction(h, math);
+
+        MoonPosition position = new MoonPosition(PositionUtils.getAzimuth(math.sin(H), cosH, observer.getSinPhi(), observer.getCosPhi(), math.tan(dec), math), h, c.getDistance());
+        Metrics.stop(Operation.MOON_POSITION, start);
+        return position;
+    }
+
+    private static MoonPosition getMoonPosition(double d, double lat, double lng)
+    {
         double phi = Constants.TO_RAD * lat;
-        double d = DateUtils.toDays(date);
+        return getMoonPosition(d, Constants.TO_RAD * -lng, Math.sin(phi), Math.cos(phi));
+    }
 
+    private static MoonPosition getMoonPosition(double d, double lw, double sinPhi, double cosPhi)
+    {
+        long start = Metrics.start();
         GeocentricCoordinates c = MoonUtils.getMoonCoords(d);
-        double H = PositionUtils.getSiderealTime(d, lw) - c.getRightAscension();
-        double h = PositionUtils.getAltitude(H, phi, c.getDeclination());
+        double H   = PositionUtils.getSiderealTime(d, lw) - c.getRightAscension();
+        double dec = c.getDeclination();
+        double cosH = Math.cos(H);
+        double h = PositionUtils.getAltitude(cosH, sinPhi, cosPhi, Math.sin(dec), Math.cos(dec));
 
         // altitude correction for refraction
-        h = h + Constants.TO_RAD * 0.017 / Math.tan(h + Constants.TO_RAD * 10.26 / (h + Constants.TO_RAD * 5.10));
+        h = h + PositionUtils.getAstroRefraction(h);
+
+        MoonPosition position = new MoonPosition(PositionUtils.getAzimuth(Math.sin(H), cosH, sinPhi, cosPhi, Math.tan(dec)), h, c.getDistance());
+        Metrics.stop(Operation.MOON_POSITION, start);
+        return position;
+    }
+
+    /**
+     * Calculates the moon rise, set and transit times of a day
+     *
+     * @param date the day and timezone to calculate for, time is ignored
+     * @param lat measured from North, in degrees
+     * @param lng measured from East, in degrees
+     * @return the moon times during the 24 hours following midnight of the day
+     */
+    public static MoonTimes getMoonTimes(Calendar date, double lat, double lng)
+    {
+        Calendar midnight = (Calendar) date.clone();
+        midnight.set(Calendar.HOUR_OF_DAY, 0);
+        midnight.set(Calendar.MINUTE, 0);
+        midnight.set(Calendar.SECOND, 0);
+        midnight.set(Calendar.MILLISECOND, 0);
+        return getMoonTimes(midnight.getTimeInMillis(), new Observer(lat, lng));
+    }
+
+    /**
+     * Calculates the moon rise, set and transit times of a day
+     *
+     * @param date the day and timezone to calculate for, time is ignored
+     * @param lat measured from North, in degrees
+     * @param lng measured from East, in degrees
+     * @return the moon times during the 24 hours following midnight of the day
+     */
+    public static MoonTimes getMoonTimes(ZonedDateTime date, double lat, double lng)
+    {
+        return getMoonTimes(date, new Observer(lat, lng));
+    }
+
+    /**
+     * Calculates the moon rise, set and transit times of a day
+     *
+     * @param date the day and timezone to calculate for, time is ignored
+     * @param observer the location to calculate for
+     * @return the moon times during the 24 hours following midnight of the day
+     */
+    public static MoonTimes getMoonTimes(ZonedDateTime date, Observer observer)
+    {
+        return getMoonTimes(date.toLocalDate().atStartOfDay(date.getZone()).toInstant().toEpochMilli(), observer);
+    }
+
+    private static MoonTimes getMoonTimes(long midnight, Observer observer)
+    {
+        long start = Metrics.start();
+        MoonTimes times = MoonUtils.getMoonTimes(midnight, observer);
+        Metrics.stop(Operation.MOON_TIMES, start);
+        return times;
+    }
+
+    /**
+     * Calculates the illumination and phase of the moon at a particular moment
+     *
+     * @param date the day, time and timezone to calculate for
+     * @return illumination of the moon, its fraction being the same as {@link #getMoonFraction(Calendar)}
+     */
+    public static MoonIllumination getMoonIllumination(Calendar date)
+    {
+        return getMoonIllumination(DateUtils.toDays(date));
+    }
+
+    /**
+     * Calculates the illumination and phase of the moon at a particular moment
+     *
+     * @param instant the moment to calculate for
+     * @return illumination of the moon, its fraction being the same as {@link #getMoonFraction(Instant)}
+     */
+    public static MoonIllumination getMoonIllumination(Instant instant)
+    {
+        return getMoonIllumination(instant.toEpochMilli());
+    }
+
+    /**
+     * Calculates the illumination and phase of the moon at a particular moment
+     *
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @return illumination of the moon, its fraction being the same as {@link #getMoonFraction(long)}
+     */
+    public static MoonIllumination getMoonIllumination(long epochMillis)
+    {
+        return getMoonIllumination(DateUtils.toDays(epochMillis));
+    }
+
+    private static MoonIllumination getMoonIllumination(double d)
+    {
+        long start = Metrics.start();
+        MoonIllumination illumination = MoonUtils.getIllumination(d);
+        Metrics.stop(Operation.MOON_ILLUMINATION, start);
+        return illumination;
+    }
+
+    /**
+     * Finds the principal phases of the moon (new moon, first quarter, full moon and last quarter) between two moments
+     *
+     * @param from first moment of the range, in milliseconds since the POSIX epoch (UTC), inclusive
+     * @param to last moment of the range, in milliseconds since the POSIX epoch (UTC), exclusive
+     * @return the phases, in chronological order
+     */
+    public static List<MoonPhase> getMoonPhases(long from, long to)
+    {
+        long start = Metrics.start();
+        List<MoonPhase> phases = new ArrayList<MoonPhase>();
+        addMoonPhases(from, to, phases);
+        Metrics.stop(Operation.MOON_PHASES, start);
+        return phases;
+    }
+
+    private static void addMoonPhases(long from, long to, List<MoonPhase> phases)
+    {
+        MoonPhase.Name[] names = MoonPhase.Name.values();
+
+        // a phase is less than a day away from its mean instant, so start one lunation early
+        for (long lunation = MoonUtils.getLunation(DateUtils.toDays(from)) - 1; ; lunation++)
+        {
+            for (MoonPhase.Name name : names)
+            {
+                long time = DateUtils.toMillis(MoonUtils.getPhaseDay(name, lunation) + DateUtils.J2000);
+                if (time >= to)
+                    return;
+                if (time >= from)
+                    phases.add(new MoonPhase(name, time));
+            }
+        }
+    }
 
-        return new MoonPosition(PositionUtils.getAzimuth(H, phi, c.getDeclination()), h, c.getDistance());
+    /**
+     * Finds the principal phases of the moon (new moon, first quarter, full moon and last quarter) between two moments
+     *
+     * @param from first moment of the range, inclusive
+     * @param to last moment of the range, exclusive
+     * @return the phases, in chronological order
+     */
+    public static List<MoonPhase> getMoonPhases(Instant from, Instant to)
+    {
+        return getMoonPhases(from.toEpochMilli(), to.toEpochMilli());
     }
 
     /**
@@ -71,7 +592,34 @@ public class SunCalc
      */
     public static double getMoonFraction(Calendar date)
     {
-        double d = DateUtils.toDays(date);
+        return getMoonFraction(DateUtils.toDays(date));
+    }
+
+    /**
+     * Calculates moon illumination for a particular moment.
+     *
+     * @param instant the moment to calculate for
+     * @return fraction of moon's illuminated limb and phase
+     */
+    public static double getMoonFraction(Instant instant)
+    {
+        return getMoonFraction(instant.toEpochMilli());
+    }
+
+    /**
+     * Calculates moon illumination for a particular moment.
+     *
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @return fraction of moon's illuminated limb and phase
+     */
+    public static double getMoonFraction(long epochMillis)
+    {
+        return getMoonFraction(DateUtils.toDays(epochMillis));
+    }
+
+    private static double getMoonFraction(double d)
+    {
+        long start = Metrics.start();
         EquatorialCoordinates s = SunUtils.getSunCoords(d);
         GeocentricCoordinates m = MoonUtils.getMoonCoords(d);
 
@@ -80,7 +628,9 @@ public class SunCalc
         double phi = Math.acos(Math.sin(s.getDeclination()) * Math.sin(m.getDeclination()) + Math.cos(s.getDeclination()) * Math.cos(m.getDeclination()) * Math.cos(s.getRightAscension() - m.getRightAscension()));
         double inc = Math.atan2(sdist * Math.sin(phi), m.getDistance() - sdist * Math.cos(phi));
 
-        return (1 + Math.cos(inc)) / 2;
+        double fraction = (1 + Math.cos(inc)) / 2;
+        Metrics.stop(Operation.MOON_ILLUMINATION, start);
+        return fraction;
     }
 
     /**
@@ -93,75 +643,257 @@ public class SunCalc
      */
     public static List<SunPhase> getPhases(Calendar date, double lat, double lng)
     {
-        double lw  = Constants.TO_RAD * -lng;
-        double phi = Constants.TO_RAD * lat;
-        double d   = DateUtils.toDays(date);
-
-        double n  = TimeUtils.getJulianCycle(d, lw);
-        double ds = TimeUtils.getApproxTransit(0, lw, n);
-
-        double M = SunUtils.getSolarMeanAnomaly(ds);
-        double C = SunUtils.getEquationOfCenter(M);
-        double L = SunUtils.getEclipticLongitude(M, C);
-
-        double dec = PositionUtils.getDeclination(L, 0);
+        return getSolarEvents(date, lat, lng).getPhases();
+    }
 
-        double jnoon = TimeUtils.getSolarTransitJ(ds, M, L);
+    /**
+     * Calculates phases of the sun for a single day
+     *
+     * @param date the day and timezone to calculate sun positions for, time is ignored
+     * @param observer the location to calculate for
+     * @return phases by name, with their start/end angles and start/end times
+     */
+    public static List<SunPhase> getPhases(Calendar date, Observer observer)
+    {
+        return getSolarEvents(date, observer).getPhases();
+    }
 
-        List<SunPhase> results = SunPhase.all();
+    /**
+     * Calculates phases of the sun for a single day, as a compact immutable result
+     *
+     * @param date the day and timezone to calculate sun positions for, time is ignored
+     * @param lat measured from North, in degrees
+     * @param lng measured from East, in degrees
+     * @return phase times of the day, in the timezone of the date
+     */
+    public static DailySolarEvents getSolarEvents(Calendar date, double lat, double lng)
+    {
+        long start = Metrics.start();
+        long[] times = new long[PhaseUtils.TIMES_LENGTH];
+        PhaseUtils.getPhaseTimes(DateUtils.toDays(date), lat, lng, times, 0);
+        DailySolarEvents events = toSolarEvents(date, times);
+        stopPhases(start, times, 0);
+        return events;
+    }
 
-        TimeZone originalTimeZone = date.getTimeZone();
-        for(SunPhase sunPhase : results)
-        {
-            // not pretty, this is to have correct timezones
-            Calendar startDate = getPhaseDate(sunPhase.getStartAngle(), sunPhase.isStartRise(), jnoon, phi, dec, lw, n, M, L);
-            startDate.setTimeZone(originalTimeZone);
-            sunPhase.setStartDate(startDate);
-            Calendar endDate = getPhaseDate(sunPhase.getEndAngle(), sunPhase.isEndRise(), jnoon, phi, dec, lw, n, M, L);
-            endDate.setTimeZone(originalTimeZone);
-            sunPhase.setEndDate(endDate);
-        }
+    /**
+     * Calculates phases of the sun for a single day, as a compact immutable result
+     *
+     * @param date the day and timezone to calculate sun positions for, time is ignored
+     * @param observer the location to calculate for
+     * @return phase times of the day, in the timezone of the date
+     */
+    public static DailySolarEvents getSolarEvents(Calendar date, Observer observer)
+    {
+        long start = Metrics.start();
+        long[] times = new long[PhaseUtils.TIMES_LENGTH];
+        PhaseUtils.getPhaseTimes(DateUtils.toDays(date), observer, times, 0);
+        DailySolarEvents events = toSolarEvents(date, times);
+        stopPhases(start, times, 0);
+        return events;
+    }
 
+    private static DailySolarEvents toSolarEvents(Calendar date, long[] times)
+    {
         // not pretty, this is to have correct dates
         Calendar nightMorningStartDate = (Calendar) date.clone();
         nightMorningStartDate.set(Calendar.HOUR_OF_DAY, 0);
         nightMorningStartDate.set(Calendar.MINUTE, 0);
         nightMorningStartDate.set(Calendar.SECOND, 0);
         nightMorningStartDate.set(Calendar.MILLISECOND, 0);
-        results.get(0).setStartDate(nightMorningStartDate);
+        times[PhaseUtils.getStartIndex(SunPhase.Name.NIGHT_MORNING)] = nightMorningStartDate.getTimeInMillis();
 
         Calendar nightEveningEndDate = (Calendar) date.clone();
         nightEveningEndDate.set(Calendar.HOUR_OF_DAY, 23);
         nightEveningEndDate.set(Calendar.MINUTE, 59);
         nightEveningEndDate.set(Calendar.SECOND, 59);
         nightEveningEndDate.set(Calendar.MILLISECOND, 999);
-        results.get(results.size()-1).setEndDate(nightEveningEndDate);
+        times[PhaseUtils.getEndIndex(SunPhase.Name.NIGHT_RISING)] = nightEveningEndDate.getTimeInMillis();
 
-        return results;
+        return new DailySolarEvents(times, date.getTimeZone());
     }
 
-    private static Calendar getPhaseDate(double angle, boolean rising, double jnoon, double phi, double dec, double lw, double n, double M, double L)
+    /**
+     * Calculates phases of the sun for a single day, as a compact immutable result
+     *
+     * @param date the day and timezone to calculate sun positions for, time is ignored
+     * @param lat measured from North, in degrees
+     * @param lng measured from East, in degrees
+     * @return phase times of the day, in the timezone of the date
+     */
+    public static DailySolarEvents getSolarEvents(ZonedDateTime date, double lat, double lng)
     {
-        // short circuit at inflection points
-        if (angle == Constants.SunAngles.SOLAR_NOON) {
-            return DateUtils.fromJulian(jnoon);
-        } else if (angle == Constants.SunAngles.NADIR) {
-            return DateUtils.fromJulian(jnoon - 0.5);
-        }
+        return new DailySolarEvents(getPhaseTimes(date, lat, lng), TimeZone.getTimeZone(date.getZone()));
+    }
 
-        double h = angle * Constants.TO_RAD;
-        double w = TimeUtils.getHourAngle(h, phi, dec);
-        double a = TimeUtils.getApproxTransit(w, lw, n);
+    /**
+     * Calculates phases of the sun for a single day, as a compact immutable result
+     *
+     * @param date the day and timezone to calculate sun positions for, time is ignored
+     * @param observer the location to calculate for
+     * @return phase times of the day, in the timezone of the date
+     */
+    public static DailySolarEvents getSolarEvents(ZonedDateTime date, Observer observer)
+    {
+        long[] times = new long[PhaseUtils.TIMES_LENGTH];
+        getPhaseTimes(date, observer, times, 0);
+        return new DailySolarEvents(times, TimeZone.getTimeZone(date.getZone()));
+    }
 
-        // set time for the given sun altitude
-        double jset = TimeUtils.getSolarTransitJ(a, M, L);
+    /**
+     * Calculates the times of the phases of the sun for a single day, without creating any phase or calendar
+     *
+     * @param date the day and timezone to calculate sun positions for, time is ignored
+     * @param lat measured from North, in degrees
+     * @param lng measured from East, in degrees
+     * @return start and end times of every phase, in milliseconds since the POSIX epoch, see
+     *         {@link PhaseUtils#getStartIndex(SunPhase.Name)} and {@link PhaseUtils#getEndIndex(SunPhase.Name)}
+     */
+    public static long[] getPhaseTimes(ZonedDateTime date, double lat, double lng)
+    {
+        long[] times = new long[PhaseUtils.TIMES_LENGTH];
+        getPhaseTimes(date, lat, lng, times, 0);
+        return times;
+    }
 
-        if(rising)
+    /**
+     * Calculates the times of the phases of the sun for a single day, without creating any phase or calendar
+     *
+     * @param date the day and timezone to calculate sun positions for, time is ignored
+     * @param lat measured from North, in degrees
+     * @param lng measured from East, in degrees
+     * @param times receives the start and end times of every phase, in milliseconds since the POSIX epoch, see
+     *              {@link PhaseUtils#getStartIndex(SunPhase.Name)} and {@link PhaseUtils#getEndIndex(SunPhase.Name)}
+     * @param offset index of the first time in the array
+     */
+    public static void getPhaseTimes(ZonedDateTime date, double lat, double lng, long[] times, int offset)
+    {
+        long start = Metrics.start();
+        PhaseUtils.getPhaseTimes(toLocalDays(date), lat, lng, times, offset);
+        clampToDay(date, times, offset);
+        stopPhases(start, times, offset);
+    }
+
+    /**
+     * Calculates the times of the phases of the sun for a single day, without creating any phase or calendar
+     *
+     * @param date the day and timezone to calculate sun positions for, time is ignored
+     * @param observer the location to calculate for
+     * @param times receives the start and end times of every phase, in milliseconds since the POSIX epoch, see
+     *              {@link PhaseUtils#getStartIndex(SunPhase.Name)} and {@link PhaseUtils#getEndIndex(SunPhase.Name)}
+     * @param offset index of the first time in the array
+     */
+    public static void getPhaseTimes(ZonedDateTime date, Observer observer, long[] times, int offset)
+    {
+        long start = Metrics.start();
+        PhaseUtils.getPhaseTimes(toLocalDays(date), observer, times, offset);
+        clampToDay(date, times, offset);
+        stopPhases(start, times, offset);
+    }
+
+    /**
+     * Calculates the times of the phases of the sun for a single day, with the trigonometric functions of a strategy
+     *
+     * @param date the day and timezone to calculate sun positions for, time is ignored
+     * @param observer the location to calculate for
+     * @param math trigonometric functions to use, see {@link MathStrategy}
+     * @param times receives the start and end times of every phase, in milliseconds since the POSIX epoch, see
+     *              {@link PhaseUtils#getStartIndex(SunPhase.Name)} and {@link PhaseUtils#getEndIndex(SunPhase.Name)}
+     * @param offset index of the first time in the array
+     */
+    public static void getPhaseTimes(ZonedDateTime date, Observer observer, MathStrategy math, long[] times, int offset)
+    {
+        long start = Metrics.start();
+        PhaseUtils.getPhaseTimes(toLocalDays(date), observer, math, times, offset);
+        clampToDay(date, times, offset);
+        stopPhases(start, times, offset);
+    }
+
+    /**
+     * Calculates the times of the phases of the sun for a single day, with {@link PhaseUtils#ALWAYS_ABOVE} or
+     * {@link PhaseUtils#ALWAYS_BELOW} for the starts and ends that do not happen, e.g. near the poles. See
+     * {@link PhaseUtils#getClassifiedPhaseTimes(double, Observer, long[], int)}
+     *
+     * @param date the day and timezone to calculate sun positions for, time is ignored
+     * @param observer the location to calculate for
+     * @param times receives the start and end times of every phase, in milliseconds since the POSIX epoch, see
+     *              {@link PhaseUtils#getStartIndex(SunPhase.Name)} and {@link PhaseUtils#getEndIndex(SunPhase.Name)}
+     * @param offset index of the first time in the array
+     */
+    public static void getClassifiedPhaseTimes(ZonedDateTime date, Observer observer, long[] times, int offset)
+    {
+        long start = Metrics.start();
+        PhaseUtils.getClassifiedPhaseTimes(toLocalDays(date), observer, times, offset);
+        clampToDay(date, times, offset);
+        stopPhases(start, times, offset);
+    }
+
+    /**
+     * Calculates phases of the sun for a single day, as a compact immutable result telling which starts and ends do
+     * not happen, e.g. near the poles. See {@link DailySolarEvents#hasStart(SunPhase.Name)}
+     *
+     * @param date the day and timezone to calculate sun positions for, time is ignored
+     * @param observer the location to calculate for
+     * @return phase times of the day, in the timezone of the date
+     */
+    public static DailySolarEvents getClassifiedSolarEvents(ZonedDateTime date, Observer observer)
+    {
+        long[] times = new long[PhaseUtils.TIMES_LENGTH];
+        getClassifiedPhaseTimes(date, observer, times, 0);
+        return new DailySolarEvents(times, TimeZone.getTimeZone(date.getZone()));
+    }
+
+    /**
+     * Calculates phases of the sun for a single day, as a compact immutable result telling which starts and ends do
+     * not happen, e.g. near the poles. See {@link DailySolarEvents#hasStart(SunPhase.Name)}
+     *
+     * @param date the day and timezone to calculate sun positions for, time is ignored
+     * @param observer the location to calculate for
+     * @return phase times of the day, in the timezone of the date
+     */
+    public static DailySolarEvents getClassifiedSolarEvents(Calendar date, Observer observer)
+    {
+        long start = Metrics.start();
+        long[] times = new long[PhaseUtils.TIMES_LENGTH];
+        PhaseUtils.getClassifiedPhaseTimes(DateUtils.toDays(date), observer, times, 0);
+        DailySolarEvents events = toSolarEvents(date, times);
+        stopPhases(start, times, 0);
+        return events;
+    }
+
+    /**
+     * @return same as {@link DateUtils#toDays(Calendar)}, including the timezone offset
+     */
+    private static double toLocalDays(ZonedDateTime date)
+    {
+        return DateUtils.toDays(date.toInstant().toEpochMilli() + date.getOffset().getTotalSeconds() * 1000L);
+    }
+
+    /**
+     * Reports a calculation of phase times, with the starts and ends which are not valid: the January 1970 of the
+     * events that do not happen, or their classification
+     */
+    private static void stopPhases(long start, long[] times, int offset)
+    {
+        Metrics.stop(Operation.SUN_PHASES, start);
+        if (start == 0)
+            return;
+
+        int invalid = 0;
+        for (int i = offset, end = offset + PhaseUtils.TIMES_LENGTH; i < end; i++)
         {
-            double jrise = jnoon - (jset - jnoon);
-            return DateUtils.fromJulian(jrise);
+            if (times[i] == 0 || !PhaseUtils.isOccurring(times[i]))
+                invalid++;
         }
-        else
-            return DateUtils.fromJulian(jset);
+        Metrics.invalidResults(Operation.SUN_PHASES, invalid);
+    }
+
+    private static void clampToDay(ZonedDateTime date, long[] times, int offset)
+    {
+        // same as the Calendar version, the first phase starts at midnight and the last one ends at midnight
+        times[offset + PhaseUtils.getStartIndex(SunPhase.Name.NIGHT_MORNING)] =
+                date.toLocalDate().atStartOfDay(date.getZone()).toInstant().toEpochMilli();
+        times[offset + PhaseUtils.getEndIndex(SunPhase.Name.NIGHT_RISING)] =
+                date.with(LocalTime.of(23, 59, 59, 999000000)).toInstant().toEpochMilli();
     }
 }
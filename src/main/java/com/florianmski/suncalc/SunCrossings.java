@@ -0,0 +1,331 @@
+package com.florianmski.suncalc;
+
+import com.florianmski.suncalc.models.EquatorialCoordinates;
+import com.florianmski.suncalc.models.Observer;
+import com.florianmski.suncalc.utils.*;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Next moment the sun crosses an arbitrary altitude or azimuth, for a single location.
+ * <p>
+ *  The search goes through solar days, from the one containing the start moment. For each day the crossing is
+ *  estimated analytically from the position of the sun at solar transit, like the sun phases are, then bracketed
+ *  around the estimate and refined with Brent's method on the exact position of the sun, down to a millisecond.
+ * </p>
+ * <p>
+ *  The work per day is bounded: at most {@link #MAX_ITERATIONS} evaluations per crossing, and none for days where
+ *  the estimate shows the sun stays far from the altitude. A search over {@code maxDays} days therefore takes a
+ *  predictable time, whether or not the crossing happens.
+ * </p>
+ */
+public class SunCrossings
+{
+    /** Time of a crossing not happening within the searched days */
+    public static final long NEVER = Long.MIN_VALUE;
+
+    /** Maximum number of evaluations of the position of the sun when refining a crossing */
+    public static final int MAX_ITERATIONS = 50;
+
+    /** Precision of the crossing times, in days */
+    private static final double TOLERANCE = 1.0 / DateUtils.DAY_MS;
+
+    /** Half width of the bracket around an estimated crossing, in days */
+    private static final double ESTIMATE_MARGIN = 30.0 / (24 * 60);
+
+    /**
+     * How far the altitude can be from the estimated extremes of a day and still be checked exactly, in radians. Covers
+     * the change of declination of the sun over half a day
+     */
+    private static final double ALTITUDE_MARGIN = Constants.TO_RAD * 1;
+
+    /**
+     * Finds the next moment the sun crosses an altitude
+     *
+     * @param observer the location to calculate for
+     * @param start the moment to search from, in milliseconds since the POSIX epoch (UTC)
+     * @param altitude altitude of the sun, in degrees, without refraction like {@link Constants.SunAngles}
+     * @param rising should the sun be rising or setting at the crossing?
+     * @param maxDays number of solar days to search after the one containing the start moment
+     * @return the first crossing at or after the start moment, in milliseconds since the POSIX epoch, or {@link #NEVER}
+     */
+    public static long getNextAltitudeCrossing(Observer observer, long start, double altitude, boolean rising, int maxDays)
+    {
+        if (!(Math.abs(altitude) <= 90))
+            throw new IllegalArgumentException("altitude must be between -90 and 90 degrees, got " + altitude);
+        checkDays(maxDays);
+
+        final double lw     = observer.getLw();
+        final double sinPhi = observer.getSinPhi();
+        final double cosPhi = observer.getCosPhi();
+        final double h      = Constants.TO_RAD * altitude;
+        final double sinH   = Math.sin(h);
+
+        DoubleUnaryOperator offset = new DoubleUnaryOperator()
+        {
+            @Override
+            public double applyAsDouble(double d)
+            {
+                EquatorialCoordinates c = SunUtils.getSunCoords(d);
+                double H = PositionUtils.getSiderealTime(d, lw) - c.getRightAscension();
+                double dec = c.getDeclination();
+                return PositionUtils.getAltitude(Math.cos(H), sinPhi, cosPhi, Math.sin(dec), Math.cos(dec)) - h;
+            }
+        };
+
+        double dStart = DateUtils.toDays(start);
+        double n0 = TimeUtils.getJulianCycle(dStart, lw);
+
+        for (int day = 0; day <= maxDays; day++)
+        {
+            double n  = n0 + day;
+            double ds = TimeUtils.getApproxTransit(0, lw, n);
+
+            double M = SunUtils.getSolarMeanAnomaly(ds);
+            double L = SunUtils.getEclipticLongitude(M, SunUtils.getEquationOfCenter(M));
+            double dec = PositionUtils.getDeclination(L, 0);
+            double sinDec = Math.sin(dec);
+            double cosDec = Math.cos(dec);
+
+            double noon = TimeUtils.getSolarTransitJ(ds, M, L) - DateUtils.J2000;
+            double lo = rising ? noon - 0.5 : noon;
+            double hi = rising ? noon : noon + 0.5;
+            if (hi < dStart)
+                continue;
+            lo = Math.max(lo, dStart);
+
+            // the sun stays well below or above the altitude this day
+            if (h > Math.asin(sinPhi * sinDec + cosPhi * cosDec) + ALTITUDE_MARGIN
+                    || h < Math.asin(sinPhi * sinDec - cosPhi * cosDec) - ALTITUDE_MARGIN)
+                continue;
+
+            double w = TimeUtils.getHourAngle(sinH, sinPhi, cosPhi, sinDec, cosDec);
+            double estimate = Double.NaN;
+            if (!Double.isNaN(w))
+            {
+                double set = TimeUtils.getSolarTransitJ(TimeUtils.getApproxTransit(w, lw, n), M, L) - DateUtils.J2000;
+                estimate = rising ? noon - (set - noon) : set;
+            }
+
+            double d = findCrossing(offset, lo, hi, estimate, rising, true);
+            if (!Double.isNaN(d))
+                return DateUtils.toMillis(d + DateUtils.J2000);
+        }
+        return NEVER;
+    }
+
+    /**
+     * Finds the next moment the sun crosses an azimuth
+     *
+     * @param observer the location to calculate for
+     * @param start the moment to search from, in milliseconds since the POSIX epoch (UTC)
+     * @param azimuth azimuth of the sun, in degrees, with NORTH as zero, clockwise
+     * @param clockwise should the azimuth of the sun be increasing (clockwise, as usual away from the tropics) or
+     *                  decreasing at the crossing?
+     * @param maxDays number of solar days to search after the one containing the start moment
+     * @return the first crossing at or after the start moment, in milliseconds since the POSIX epoch, or {@link #NEVER}
+     */
+    public static long getNextAzimuthCrossing(Observer observer, long start, double azimuth, boolean clockwise, int maxDays)
+    {
+        if (Double.isNaN(azimuth) || Double.isInfinite(azimuth))
+            throw new IllegalArgumentException("azimuth must be finite, got " + azimuth);
+        checkDays(maxDays);
+
+        final double lw     = observer.getLw();
+        final double sinPhi = observer.getSinPhi();
+        final double cosPhi = observer.getCosPhi();
+        final double a      = Constants.TO_RAD * azimuth;
+
+        DoubleUnaryOperator offset = new DoubleUnaryOperator()
+        {
+            @Override
+            public double applyAsDouble(double d)
+            {
+                EquatorialCoordinates c = SunUtils.getSunCoords(d);
+                double H = PositionUtils.getSiderealTime(d, lw) - c.getRightAscension();
+                return wrap(PositionUtils.getAzimuth(Math.sin(H), Math.cos(H), sinPhi, cosPhi, Math.tan(c.getDeclination())) - a);
+            }
+        };
+
+        // with the azimuth A measured from SOUTH, sin(H) cos(A) - cos(H) sin(phi) sin(A) = -tan(dec) cos(phi) sin(A)
+        double sinA = Math.sin(a - Math.PI);
+        double cosA = Math.cos(a - Math.PI);
+        double r    = Math.hypot(cosA, -sinPhi * sinA);
+        double beta = Math.atan2(-sinPhi * sinA, cosA);
+
+        double dStart = DateUtils.toDays(start);
+        double n0 = TimeUtils.getJulianCycle(dStart, lw);
+
+        for (int day = 0; day <= maxDays; day++)
+        {
+            double n  = n0 + day;
+            double ds = TimeUtils.getApproxTransit(0, lw, n);
+
+            double M = SunUtils.getSolarMeanAnomaly(ds);
+            double L = SunUtils.getEclipticLongitude(M, SunUtils.getEquationOfCenter(M));
+            double dec = PositionUtils.getDeclination(L, 0);
+
+            double noon = TimeUtils.getSolarTransitJ(ds, M, L) - DateUtils.J2000;
+            if (noon + 0.5 < dStart)
+                continue;
+
+            // both solutions of sin(H + beta) = s, one of them may be the opposite azimuth
+            double s = -Math.tan(dec) * cosPhi * sinA / r;
+            if (!(Math.abs(s) <= 1))
+                continue;
+            double first  = wrap(Math.asin(s) - beta) / (2 * Math.PI);
+            double second = wrap(Math.PI - Math.asin(s) - beta) / (2 * Math.PI);
+
+            double lo = Math.max(noon - 0.5, dStart);
+            double hi = noon + 0.5;
+            double d1 = findCrossing(offset, lo, hi, noon + Math.min(first, second), clockwise, false);
+            double d2 = findCrossing(offset, lo, hi, noon + Math.max(first, second), clockwise, false);
+
+            double d = Double.isNaN(d1) ? d2 : d1;
+            if (!Double.isNaN(d))
+                return DateUtils.toMillis(d + DateUtils.J2000);
+        }
+        return NEVER;
+    }
+
+    private static void checkDays(int maxDays)
+    {
+        if (maxDays < 0)
+            throw new IllegalArgumentException("maxDays must be positive, got " + maxDays);
+    }
+
+    /**
+     * @return the angle, between -PI and PI
+     */
+    private static double wrap(double angle)
+    {
+        return angle - 2 * Math.PI * Math.floor((angle + Math.PI) / (2 * Math.PI));
+    }
+
+    /**
+     * Crossing of an offset going up (or down) through zero, between two moments
+     *
+     * @param offset offset to the target, an angle between -PI and PI
+     * @param lo first moment, in Julian days since Jan 1, 2000
+     * @param hi last moment, in Julian days since Jan 1, 2000
+     * @param estimate estimated crossing, NaN if there is no estimate
+     * @param increasing should the offset be increasing at the crossing?
+     * @param monotonic is the offset monotonic between the two moments? If so the whole range is searched when there
+     *                  is no crossing around the estimate
+     * @return the crossing, NaN if there is none
+     */
+    private static double findCrossing(DoubleUnaryOperator offset, double lo, double hi, double estimate,
+                                       boolean increasing, boolean monotonic)
+    {
+        if (!(lo < hi))
+            return Double.NaN;
+
+        if (!Double.isNaN(estimate))
+        {
+            double a = Math.max(lo, estimate - ESTIMATE_MARGIN);
+            double b = Math.min(hi, estimate + ESTIMATE_MARGIN);
+            if (a < b)
+            {
+                double d = findCrossing(offset, a, offset.applyAsDouble(a), b, offset.applyAsDouble(b), increasing);
+                if (!Double.isNaN(d) || (a == lo && b == hi))
+                    return d;
+            }
+        }
+        if (!monotonic)
+            return Double.NaN;
+        return findCrossing(offset, lo, offset.applyAsDouble(lo), hi, offset.applyAsDouble(hi), increasing);
+    }
+
+    private static double findCrossing(DoubleUnaryOperator offset, double a, double fa, double b, double fb, boolean increasing)
+    {
+        // offsets wrapping around PI are not crossings
+        if (increasing ? !(fa <= 0 && fb >= 0) : !(fa >= 0 && fb <= 0))
+            return Double.NaN;
+        if (fb - fa > Math.PI || fa - fb > Math.PI)
+            return Double.NaN;
+        return brent(offset, a, fa, b, fb);
+    }
+
+    /**
+     * Root of a function bracketed by two moments, with Brent's method
+     */
+    private static double brent(DoubleUnaryOperator f, double a, double fa, double b, double fb)
+    {
+        if (fa == 0)
+            return a;
+        if (fb == 0)
+            return b;
+
+        double c = a, fc = fa;
+        double d = b - a, e = d;
+
+        for (int i = 0; i < MAX_ITERATIONS; i++)
+        {
+            if ((fb > 0) == (fc > 0))
+            {
+                c = a;
+                fc = fa;
+                d = b - a;
+                e = d;
+            }
+            if (Math.abs(fc) < Math.abs(fb))
+            {
+                a = b;
+                b = c;
+                c = a;
+                fa = fb;
+                fb = fc;
+                fc = fa;
+            }
+
+            double tol = TOLERANCE / 2;
+            double m = (c - b) / 2;
+            if (Math.abs(m) <= tol || fb == 0)
+                return b;
+
+            if (Math.abs(e) < tol || Math.abs(fa) <= Math.abs(fb))
+            {
+                // bisection
+                d = m;
+                e = m;
+            }
+            else
+            {
+                // secant or inverse quadratic interpolation
+                double p, q, s = fb / fa;
+                if (a == c)
+                {
+                    p = 2 * m * s;
+                    q = 1 - s;
+                }
+                else
+                {
+                    double t = fa / fc, u = fb / fc;
+                    p = s * (2 * m * t * (t - u) - (b - a) * (u - 1));
+                    q = (t - 1) * (u - 1) * (s - 1);
+                }
+                if (p > 0)
+                    q = -q;
+                else
+                    p = -p;
+
+                if (2 * p < Math.min(3 * m * q - Math.abs(tol * q), Math.abs(e * q)))
+                {
+                    e = d;
+                    d = p / q;
+                }
+                else
+                {
+                    d = m;
+                    e = m;
+                }
+            }
+
+            a = b;
+            fa = fb;
+            b += Math.abs(d) > tol ? d : (m > 0 ? tol : -tol);
+            fb = f.applyAsDouble(b);
+        }
+        return b;
+    }
+}
@@ -0,0 +1,228 @@
+package com.florianmski.suncalc;
+
+import com.florianmski.suncalc.models.EquatorialCoordinates;
+import com.florianmski.suncalc.models.Observer;
+import com.florianmski.suncalc.utils.ArrayUtils;
+import com.florianmski.suncalc.utils.DateUtils;
+import com.florianmski.suncalc.utils.PositionUtils;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Data of the sun-path diagram of a location over a year: the daily path of the sun for each month, and the analemma
+ * of each hour.
+ * <p>
+ *  Positions are stored in flat arrays of azimuths and altitudes, in radians, like
+ *  {@link SunCalc#getSunPosition(long, double, double)}:
+ * </p>
+ * <ul>
+ *  <li>the path of the month {@code month} (1 to 12) is sampled on its {@link #PATH_DAY_OF_MONTH}th day, from
+ *  midnight, {@code samplesPerHour} times per hour, the sample {@code sample} being at
+ *  {@code ((month - 1) * HOURS * samplesPerHour + sample)}</li>
+ *  <li>the analemma of the hour {@code hour} (0 to 23) goes through every day of the year at that time, the day of
+ *  the year {@code dayOfYear} (1 to 365 or 366) being at {@code (hour * days + dayOfYear - 1)}</li>
+ * </ul>
+ * <p>
+ *  Times are local times at a fixed offset from UTC, so an analemma is not split by daylight saving time.
+ * </p>
+ * <p>
+ *  The trigonometric functions of the latitude are evaluated once, and the coordinates of the sun are interpolated
+ *  from a {@link SolarEphemerisCache} filled once per day, so positions differ from the direct calculation by less
+ *  than {@link SolarEphemerisCache#MAX_ERROR}. Each month, its path and its days of the analemmas, can be calculated
+ *  by a different task of a {@link ForkJoinPool}.
+ * </p>
+ */
+public class SunPathDiagram
+{
+    /** Number of hours in a day, and of analemmas */
+    public static final int HOURS = 24;
+
+    /** Number of paths, one per month */
+    public static final int MONTHS = 12;
+
+    /** Day of the month of the paths, the day of the solstices and about the day of the equinoxes */
+    public static final int PATH_DAY_OF_MONTH = 21;
+
+    /**
+     * @param samplesPerHour number of positions per hour of each path
+     * @return number of positions of the paths of all the months
+     */
+    public static int getPathsLength(int samplesPerHour)
+    {
+        checkSamplesPerHour(samplesPerHour);
+        return MONTHS * HOURS * samplesPerHour;
+    }
+
+    /**
+     * @param year the year of the diagram
+     * @return number of positions of the analemmas of all the hours
+     */
+    public static int getAnalemmasLength(int year)
+    {
+        return HOURS * Year.of(year).length();
+    }
+
+    /**
+     * Calculates the sun-path diagram of a year
+     *
+     * @param observer the location to calculate for
+     * @param year the year of the diagram
+     * @param offset offset of the local times from UTC
+     * @param samplesPerHour number of positions per hour of each path
+     * @param pathAzimuths receives the azimuths of the paths, in radians, with NORTH as zero
+     * @param pathAltitudes receives the altitudes of the paths, in radians
+     * @param analemmaAzimuths receives the azimuths of the analemmas, in radians, with NORTH as zero
+     * @param analemmaAltitudes receives the altitudes of the analemmas, in radians
+     */
+    public static void getSunPaths(Observer observer, int year, ZoneOffset offset, int samplesPerHour,
+                                   double[] pathAzimuths, double[] pathAltitudes,
+                                   double[] analemmaAzimuths, double[] analemmaAltitudes)
+    {
+        newTask(observer, year, offset, samplesPerHour, pathAzimuths, pathAltitudes, analemmaAzimuths, analemmaAltitudes)
+                .compute();
+    }
+
+    /**
+     * Calculates the sun-path diagram of a year, splitting the months in the given pool
+     *
+     * @param observer the location to calculate for
+     * @param year the year of the diagram
+     * @param offset offset of the local times from UTC
+     * @param samplesPerHour number of positions per hour of each path
+     * @param pathAzimuths receives the azimuths of the paths, in radians, with NORTH as zero
+     * @param pathAltitudes receives the altitudes of the paths, in radians
+     * @param analemmaAzimuths receives the azimuths of the analemmas, in radians, with NORTH as zero
+     * @param analemmaAltitudes receives the altitudes of the analemmas, in radians
+     * @param pool pool running the calculations
+     */
+    public static void getSunPaths(Observer observer, int year, ZoneOffset offset, int samplesPerHour,
+                                   double[] pathAzimuths, double[] pathAltitudes,
+                                   double[] analemmaAzimuths, double[] analemmaAltitudes, ForkJoinPool pool)
+    {
+        pool.invoke(newTask(observer, year, offset, samplesPerHour,
+                pathAzimuths, pathAltitudes, analemmaAzimuths, analemmaAltitudes));
+    }
+
+    private static Task newTask(Observer observer, int year, ZoneOffset offset, int samplesPerHour,
+                                double[] pathAzimuths, double[] pathAltitudes,
+                                double[] analemmaAzimuths, double[] analemmaAltitudes)
+    {
+        int pathsLength = getPathsLength(samplesPerHour);
+        ArrayUtils.checkRange(pathAzimuths.length, 0, pathsLength);
+        ArrayUtils.checkRange(pathAltitudes.length, 0, pathsLength);
+        int analemmasLength = getAnalemmasLength(year);
+        ArrayUtils.checkRange(analemmaAzimuths.length, 0, analemmasLength);
+        ArrayUtils.checkRange(analemmaAltitudes.length, 0, analemmasLength);
+
+        Diagram diagram = new Diagram(observer, year, offset, samplesPerHour,
+                pathAzimuths, pathAltitudes, analemmaAzimuths, analemmaAltitudes);
+        return new Task(diagram, 1, MONTHS + 1);
+    }
+
+    private static void checkSamplesPerHour(int samplesPerHour)
+    {
+        if (samplesPerHour <= 0 || samplesPerHour > 3600)
+            throw new IllegalArgumentException("samplesPerHour must be between 1 and 3600, got " + samplesPerHour);
+    }
+
+    /**
+     * Parameters and output arrays of a diagram, shared by the tasks of its months
+     */
+    private static final class Diagram
+    {
+        final double lw, sinPhi, cosPhi;
+        final int year;
+        final long offsetMillis;
+        final int samplesPerHour;
+        final int days;
+        final double[] pathAzimuths, pathAltitudes;
+        final double[] analemmaAzimuths, analemmaAltitudes;
+        /** a local day overlaps two days of the cache, which start at noon UTC; its lookups are not reported */
+        final SolarEphemerisCache ephemeris = new SolarEphemerisCache(1024, false);
+
+        Diagram(Observer observer, int year, ZoneOffset offset, int samplesPerHour,
+                double[] pathAzimuths, double[] pathAltitudes, double[] analemmaAzimuths, double[] analemmaAltitudes)
+        {
+            this.lw = observer.getLw();
+            this.sinPhi = observer.getSinPhi();
+            this.cosPhi = observer.getCosPhi();
+            this.year = year;
+            this.offsetMillis = offset.getTotalSeconds() * 1000L;
+            this.samplesPerHour = samplesPerHour;
+            this.days = Year.of(year).length();
+            this.pathAzimuths = pathAzimuths;
+            this.pathAltitudes = pathAltitudes;
+            this.analemmaAzimuths = analemmaAzimuths;
+            this.analemmaAltitudes = analemmaAltitudes;
+        }
+
+        void computeMonth(int month)
+        {
+            LocalDate first = LocalDate.of(year, month, 1);
+
+            long midnight = first.withDayOfMonth(PATH_DAY_OF_MONTH).toEpochDay() * DateUtils.DAY_MS - offsetMillis;
+            int samples = HOURS * samplesPerHour;
+            for (int sample = 0, index = (month - 1) * samples; sample < samples; sample++, index++)
+                evaluate(midnight + sample * 3600000L / samplesPerHour, pathAzimuths, pathAltitudes, index);
+
+            for (int day = 0, length = first.lengthOfMonth(); day < length; day++)
+            {
+                midnight = (first.toEpochDay() + day) * DateUtils.DAY_MS - offsetMillis;
+                int dayOfYear = first.getDayOfYear() - 1 + day;
+                for (int hour = 0; hour < HOURS; hour++)
+                    evaluate(midnight + hour * 3600000L, analemmaAzimuths, analemmaAltitudes, hour * days + dayOfYear);
+            }
+        }
+
+        private void evaluate(long epochMillis, double[] azimuths, double[] altitudes, int index)
+        {
+            double d = DateUtils.toDays(epochMillis);
+            EquatorialCoordinates c = ephemeris.getSunCoords(d);
+
+            // the declination is within +/-24 degrees, so its cosine is positive
+            double sinDec = Math.sin(c.getDeclination());
+            double cosDec = Math.sqrt(1 - sinDec * sinDec);
+            double H      = PositionUtils.getSiderealTime(d, lw) - c.getRightAscension();
+            double cosH   = Math.cos(H);
+
+            azimuths[index]  = PositionUtils.getAzimuth(Math.sin(H), cosH, sinPhi, cosPhi, sinDec / cosDec);
+            altitudes[index] = PositionUtils.getAltitude(cosH, sinPhi, cosPhi, sinDec, cosDec);
+        }
+    }
+
+    /**
+     * Calculates the months {@code from} (inclusive) to {@code to} (exclusive)
+     */
+    private static final class Task extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Diagram diagram;
+        private final int from, to;
+
+        Task(Diagram diagram, int from, int to)
+        {
+            this.diagram = diagram;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (to - from > 1)
+            {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Task(diagram, from, middle), new Task(diagram, middle, to));
+                return;
+            }
+
+            for (int month = from; month < to; month++)
+                diagram.computeMonth(month);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.florianmski.suncalc;
+
+import com.florianmski.suncalc.models.EquatorialCoordinates;
+import com.florianmski.suncalc.models.Observer;
+import com.florianmski.suncalc.utils.*;
+
+/**
+ * Positions of the sun for a single location at regularly spaced moments.
+ * <p>
+ *  The samples are split in windows. At both ends of a window the coordinates of the sun are calculated exactly, and
+ *  in between the right ascension and declination are interpolated linearly. The hour angle and the declination then
+ *  change by a constant amount from one sample to the next, so their sines and cosines are advanced with the
+ *  angle-addition formulas instead of being evaluated for every sample.
+ * </p>
+ * <p>
+ *  The window is as long as possible while keeping the error of the interpolated hour angle and declination below a
+ *  tolerance. With the default tolerance, samples every minute are anchored about every five hours.
+ * </p>
+ */
+public class SunPositionSeries
+{
+    /** Default maximum error of the hour angle and declination, in radians */
+    public static final double DEFAULT_TOLERANCE = 1e-6;
+
+    /**
+     * Upper bound of the second derivative of the sun's right ascension and declination, in radians/day^2, used to
+     * derive the window length from the tolerance
+     */
+    private static final double MAX_CURVATURE = 1.5e-4;
+
+    /**
+     * Calculates the sun's position at a particular location for regularly spaced moments, with the
+     * {@link #DEFAULT_TOLERANCE}
+     *
+     * @param start the first moment, in milliseconds since the POSIX epoch (UTC)
+     * @param step time between two moments, in milliseconds
+     * @param count number of moments
+     * @param observer the location to calculate for
+     * @param azimuths receives the azimuth for each moment, in radians, with NORTH as zero
+     * @param altitudes receives the altitude for each moment, in radians
+     */
+    public static void getSunPositions(long start, long step, int count, Observer observer, double[] azimuths, double[] altitudes)
+    {
+        getSunPositions(start, step, count, observer, DEFAULT_TOLERANCE, azimuths, altitudes, 0);
+    }
+
+    /**
+     * Calculates the sun's position at a particular location for regularly spaced moments
+     *
+     * @param start the first moment, in milliseconds since the POSIX epoch (UTC)
+     * @param step time between two moments, in milliseconds
+     * @param count number of moments
+     * @param observer the location to calculate for
+     * @param tolerance maximum error of the hour angle and declination, in radians
+     * @param azimuths receives the azimuth for each moment, in radians, with NORTH as zero
+     * @param altitudes receives the altitude for each moment, in radians
+     * @param offset index of the first moment in the output arrays
+     */
+    public static void getSunPositions(long start, long step, int count, Observer observer, double tolerance,
+                                       double[] azimuths, double[] altitudes, int offset)
+    {
+        if (!(tolerance > 0))
+            throw new IllegalArgumentException("tolerance must be positive, got " + tolerance);
+        ArrayUtils.checkRange(azimuths.length, offset, count);
+        ArrayUtils.checkRange(altitudes.length, offset, count);
+
+        double lw     = observer.getLw();
+        double sinPhi = observer.getSinPhi();
+        double cosPhi = observer.getCosPhi();
+
+        int window = getWindow(step, count, tolerance);
+
+        for (int i = 0; i < count; i += window)
+        {
+            int length = Math.min(window, count - i);
+
+            double da = DateUtils.toDays(start + i * step);
+            EquatorialCoordinates a = SunUtils.getSunCoords(da);
+            double H   = PositionUtils.getSiderealTime(da, lw) - a.getRightAscension();
+            double dec = a.getDeclination();
+
+            double sinH   = Math.sin(H);
+            double cosH   = Math.cos(H);
+            double sinDec = Math.sin(dec);
+            double cosDec = Math.cos(dec);
+
+            double sinStepH = 0, cosStepH = 1, sinStepDec = 0, cosStepDec = 1;
+            if (length > 1)
+            {
+                double db = DateUtils.toDays(start + ((long) i + window) * step);
+                EquatorialCoordinates b = SunUtils.getSunCoords(db);
+
+                double deltaRa = b.getRightAscension() - a.getRightAscension();
+                if (deltaRa > Math.PI)
+                    deltaRa -= 2 * Math.PI;
+                else if (deltaRa <= -Math.PI)
+                    deltaRa += 2 * Math.PI;
+
+                double stepH   = (PositionUtils.getSiderealTime(db, 0) - PositionUtils.getSiderealTime(da, 0) - deltaRa) / window;
+                double stepDec = (b.getDeclination() - dec) / window;
+
+                sinStepH   = Math.sin(stepH);
+                cosStepH   = Math.cos(stepH);
+                sinStepDec = Math.sin(stepDec);
+                cosStepDec = Math.cos(stepDec);
+            }
+
+            for (int j = offset + i, end = j + length; j < end; j++)
+            {
+                altitudes[j] = PositionUtils.getAltitude(cosH, sinPhi, cosPhi, sinDec, cosDec);
+                azimuths[j]  = PositionUtils.getAzimuth(sinH, cosH, sinPhi, cosPhi, sinDec / cosDec);
+
+                double s = sinH * cosStepH + cosH * sinStepH;
+                cosH = cosH * cosStepH - sinH * sinStepH;
+                sinH = s;
+
+                s = sinDec * cosStepDec + cosDec * sinStepDec;
+                cosDec = cosDec * cosStepDec - sinDec * sinStepDec;
+                sinDec = s;
+            }
+        }
+    }
+
+    /**
+     * @return number of samples between two exact evaluations, at least 1
+     */
+    private static int getWindow(long step, int count, double tolerance)
+    {
+        if (step == 0)
+            return Math.max(count, 1);
+
+        // the error of a linear interpolation over a window of T days is at most MAX_CURVATURE * T^2 / 8
+        double days = Math.sqrt(8 * tolerance / MAX_CURVATURE);
+        double window = Math.floor(days * DateUtils.DAY_MS / Math.abs((double) step));
+        return (int) Math.max(1, Math.min(window, Math.max(count, 1)));
+    }
+}
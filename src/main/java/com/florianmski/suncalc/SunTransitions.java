@@ -0,0 +1,300 @@
+package com.florianmski.suncalc;
+
+import com.florianmski.suncalc.models.Observer;
+import com.florianmski.suncalc.models.SunPhase;
+import com.florianmski.suncalc.models.SunTransition;
+import com.florianmski.suncalc.utils.*;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy iterator over the moments the sun enters a new phase, in chronological order.
+ * <p>
+ *  Unlike {@link SunCalc#getPhases(java.util.Calendar, Observer)}, phases are not cut at midnight: the transitions
+ *  go from one solar day to the next, from nadir to nadir, each of them entering one of the phases that do not
+ *  overlap: {@link SunPhase.Name#NIGHT_RISING}, the morning phases, {@link SunPhase.Name#DAYLIGHT_RISING},
+ *  {@link SunPhase.Name#DAYLIGHT_SETTING}, the evening phases and {@link SunPhase.Name#NIGHT_SETTING}. The times are
+ *  the same as {@link PhaseUtils#getClassifiedEventTimes(double, Observer, long[], int)}.
+ * </p>
+ * <p>
+ *  Events that do not happen near the poles are skipped. At nadir and solar noon the sun stays within the same
+ *  altitudes and only changes direction, so e.g. during a day with twilight only the transition at noon goes from
+ *  {@link SunPhase.Name#TWILIGHT_CIVIL_MORNING} to {@link SunPhase.Name#TWILIGHT_CIVIL_EVENING}.
+ * </p>
+ * <p>
+ *  Nothing is calculated ahead of what is read: the terms of a solar day are calculated when reaching it, and the time
+ *  of each event only when it is needed, so reading the next transition costs a fraction of the phases of a day.
+ * </p>
+ */
+public final class SunTransitions implements Iterator<SunTransition>
+{
+    /** Number of altitude ranges between the altitudes of the events, from night to daylight */
+    private static final int BANDS = PhaseUtils.SOLAR_NOON_EVENT;
+
+    /** Phase of each altitude range while the sun rises, and while it sets */
+    private static final SunPhase.Name[] RISING_PHASES = new SunPhase.Name[BANDS];
+    private static final SunPhase.Name[] SETTING_PHASES = new SunPhase.Name[BANDS];
+
+    /** Sines of the altitudes of the rising events, from the lowest to the highest */
+    private static final double[] SIN_ANGLES = new double[BANDS - 1];
+
+    static
+    {
+        // the phases that do not overlap end at the event following their start
+        for (SunPhase sunPhase : SunPhase.all())
+        {
+            int start = PhaseUtils.getEvent(sunPhase.getStartAngle(), sunPhase.isStartRise());
+            int end = PhaseUtils.getEvent(sunPhase.getEndAngle(), sunPhase.isEndRise());
+            if (end != (start + 1) % PhaseUtils.EVENT_COUNT)
+                continue;
+
+            if (PhaseUtils.isEventRising(start))
+                RISING_PHASES[start] = sunPhase.getName();
+            else
+                SETTING_PHASES[PhaseUtils.EVENT_COUNT - 1 - start] = sunPhase.getName();
+        }
+
+        for (int i = 0; i < SIN_ANGLES.length; i++)
+            SIN_ANGLES[i] = Math.sin(PhaseUtils.getEventAngle(1 + i) * Constants.TO_RAD);
+    }
+
+    private final double lw, sinPhi, cosPhi;
+    private final long to;
+
+    private Day day;
+    /** index in the occurring events of the day of the next transition */
+    private int position;
+    private SunPhase.Name phase;
+    private SunTransition next;
+
+    private SunTransitions(Observer observer, long from, long to)
+    {
+        this.lw = observer.getLw();
+        this.sinPhi = observer.getSinPhi();
+        this.cosPhi = observer.getCosPhi();
+        this.to = to;
+
+        double n = TimeUtils.getJulianCycle(DateUtils.toDays(from), lw);
+        day = new Day(n);
+        if (day.getTime(0) > from)
+            day = new Day(n - 1);
+
+        // first event at or after the start, the nadir being at or before it
+        int lo = 0, hi = day.events.length;
+        while (lo < hi)
+        {
+            int middle = (lo + hi) >>> 1;
+            if (day.getTime(middle) < from)
+                lo = middle + 1;
+            else
+                hi = middle;
+        }
+        position = lo;
+        if (lo > 0)
+        {
+            phase = day.phases[lo - 1];
+        }
+        else
+        {
+            // starting right at nadir, the sun is in the last phase of the previous day
+            SunPhase.Name[] previous = new Day(day.n - 1).phases;
+            phase = previous[previous.length - 1];
+        }
+    }
+
+    /**
+     * Iterates over the transitions between two moments
+     *
+     * @param observer the location to calculate for
+     * @param from first moment, in milliseconds since the POSIX epoch (UTC), inclusive
+     * @param to last moment, in milliseconds since the POSIX epoch (UTC), exclusive. {@link Long#MAX_VALUE} for no end
+     * @return the transitions
+     */
+    public static SunTransitions between(Observer observer, long from, long to)
+    {
+        return new SunTransitions(observer, from, to);
+    }
+
+    /**
+     * Streams the transitions between two moments
+     *
+     * @param observer the location to calculate for
+     * @param from first moment, inclusive
+     * @param to last moment, exclusive
+     * @return the transitions, in chronological order
+     */
+    public static Stream<SunTransition> stream(Observer observer, Instant from, Instant to)
+    {
+        return stream(new SunTransitions(observer, from.toEpochMilli(), to.toEpochMilli()));
+    }
+
+    /**
+     * Streams the transitions from a moment on, without end
+     *
+     * @param observer the location to calculate for
+     * @param from first moment, inclusive
+     * @return the transitions, in chronological order
+     */
+    public static Stream<SunTransition> stream(Observer observer, Instant from)
+    {
+        return stream(new SunTransitions(observer, from.toEpochMilli(), Long.MAX_VALUE));
+    }
+
+    private static Stream<SunTransition> stream(SunTransitions transitions)
+    {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(transitions,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    /**
+     * @return the phase of the sun at the start moment, then the phase entered by the last transition returned
+     */
+    public SunPhase.Name getPhase()
+    {
+        return phase;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        if (next != null)
+            return true;
+
+        if (position == day.events.length)
+        {
+            day = new Day(day.n + 1);
+            position = 0;
+        }
+
+        long time = day.getTime(position);
+        if (time >= to)
+            return false;
+
+        next = new SunTransition(time, day.phases[position++]);
+        return true;
+    }
+
+    @Override
+    public SunTransition next()
+    {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        SunTransition transition = next;
+        next = null;
+        phase = transition.getPhase();
+        return transition;
+    }
+
+    /**
+     * Events of a solar day, calculated the same way as {@link PhaseUtils}, each time only when it is needed
+     */
+    private final class Day
+    {
+        final double n;
+        final double M, L, jnoon;
+        final double sinDec, cosDec;
+
+        /** indexes of the events happening this day, in chronological order */
+        final int[] events;
+        /** phase entered at each of these events */
+        final SunPhase.Name[] phases;
+        /** times of the events, by index of event, 0 if not calculated yet */
+        final long[] times = new long[PhaseUtils.EVENT_COUNT];
+        final boolean[] solved = new boolean[PhaseUtils.EVENT_COUNT];
+
+        Day(double n)
+        {
+            this.n = n;
+
+            double ds = TimeUtils.getApproxTransit(0, lw, n);
+            M = SunUtils.getSolarMeanAnomaly(ds);
+            L = SunUtils.getEclipticLongitude(M, SunUtils.getEquationOfCenter(M, MathStrategy.STRICT));
+
+            double dec = PositionUtils.getDeclination(L, 0, MathStrategy.STRICT);
+            sinDec = Math.sin(dec);
+            cosDec = Math.cos(dec);
+            jnoon = TimeUtils.getSolarTransitJ(ds, M, L, MathStrategy.STRICT);
+
+            // the classification needs no trigonometric function, see PhaseUtils.getClassifiedEventTimes
+            int below = 0, above = 0;
+            boolean[] occurring = new boolean[SIN_ANGLES.length];
+            for (int i = 0; i < SIN_ANGLES.length; i++)
+            {
+                double cosW = (SIN_ANGLES[i] - sinPhi * sinDec) / (cosPhi * cosDec);
+                if (cosW > 1)
+                    below++;
+                else if (cosW < -1)
+                    above++;
+                else
+                    occurring[i] = true;
+            }
+
+            int count = 2 * (SIN_ANGLES.length - below - above) + 2;
+            events = new int[count];
+            phases = new SunPhase.Name[count];
+
+            int k = 0;
+            events[k] = PhaseUtils.NADIR_EVENT;
+            phases[k++] = RISING_PHASES[above];
+            for (int i = 0; i < SIN_ANGLES.length; i++)
+            {
+                if (!occurring[i])
+                    continue;
+                events[k] = 1 + i;
+                phases[k++] = RISING_PHASES[i + 1];
+            }
+            events[k] = PhaseUtils.SOLAR_NOON_EVENT;
+            phases[k++] = SETTING_PHASES[SIN_ANGLES.length - below];
+            for (int i = SIN_ANGLES.length - 1; i >= 0; i--)
+            {
+                if (!occurring[i])
+                    continue;
+                events[k] = PhaseUtils.EVENT_COUNT - 1 - i;
+                phases[k++] = SETTING_PHASES[i];
+            }
+        }
+
+        /**
+         * @param position index in {@link #events}
+         * @return time of the event, in milliseconds since the POSIX epoch
+         */
+        long getTime(int position)
+        {
+            int event = events[position];
+            if (solved[event])
+                return times[event];
+
+            if (event == PhaseUtils.NADIR_EVENT)
+            {
+                store(event, DateUtils.toMillis(jnoon - 0.5));
+            }
+            else if (event == PhaseUtils.SOLAR_NOON_EVENT)
+            {
+                store(event, DateUtils.toMillis(jnoon));
+            }
+            else
+            {
+                // the rising and setting events of an altitude share their hour angle
+                int i = PhaseUtils.isEventRising(event) ? event - 1 : PhaseUtils.EVENT_COUNT - 1 - event;
+                double w    = TimeUtils.getHourAngle(SIN_ANGLES[i], sinPhi, cosPhi, sinDec, cosDec, MathStrategy.STRICT);
+                double jset = TimeUtils.getSolarTransitJ(TimeUtils.getApproxTransit(w, lw, n), M, L, MathStrategy.STRICT);
+                store(1 + i, DateUtils.toMillis(jnoon - (jset - jnoon)));
+                store(PhaseUtils.EVENT_COUNT - 1 - i, DateUtils.toMillis(jset));
+            }
+            return times[event];
+        }
+
+        private void store(int event, long time)
+        {
+            times[event] = time;
+            solved[event] = true;
+        }
+    }
+}
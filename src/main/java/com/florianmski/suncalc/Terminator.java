@@ -0,0 +1,142 @@
+package com.florianmski.suncalc;
+
+import com.florianmski.suncalc.models.EquatorialCoordinates;
+import com.florianmski.suncalc.utils.*;
+
+import java.time.Instant;
+
+/**
+ * Day/night terminator and curves of equal sun altitude over the whole Earth at a single moment.
+ * <p>
+ *  The sun is at the zenith of the subsolar point, whose latitude is the declination of the sun and whose longitude
+ *  is its right ascension minus the sidereal time at longitude 0. Every location where the sun has a given altitude
+ *  is then at the same angular distance from the subsolar point, 90 degrees minus the altitude, so the curve is a
+ *  circle on the sphere and each of its vertices is found directly, without sampling the altitude of a grid. Altitudes
+ *  are the same as {@link SunCalc#getSunPosition(long, double, double)}, without refraction, so the angles of
+ *  {@link Constants.SunAngles} give the lines where the phases of the sun start and end.
+ * </p>
+ * <p>
+ *  A curve is a closed ring: its vertices are evenly spaced around the subsolar point, going clockwise from the one
+ *  north of it, and the last one joins the first one, which is not repeated. Longitudes are between -180 and 180
+ *  degrees, so a ring going over the antimeridian jumps from one side of the map to the other; when a ring goes around
+ *  a pole (the polar day or night) it crosses every meridian once.
+ * </p>
+ */
+public final class Terminator
+{
+    /** Altitude of the center of the sun on the day/night terminator, in degrees */
+    public static final double TERMINATOR = 0;
+
+    private final double subsolarLat, subsolarLng;
+    private final double sinDec, cosDec;
+
+    private Terminator(double d)
+    {
+        EquatorialCoordinates c = SunUtils.getSunCoords(d);
+        double dec = c.getDeclination();
+
+        this.subsolarLat = dec / Constants.TO_RAD;
+        this.subsolarLng = normalize((c.getRightAscension() - PositionUtils.getSiderealTime(d, 0)) / Constants.TO_RAD);
+        this.sinDec = Math.sin(dec);
+        this.cosDec = Math.cos(dec);
+    }
+
+    /**
+     * @param epochMillis the moment to calculate for, in milliseconds since the POSIX epoch (UTC)
+     * @return the terminator at that moment
+     */
+    public static Terminator at(long epochMillis)
+    {
+        return new Terminator(DateUtils.toDays(epochMillis));
+    }
+
+    /**
+     * @param instant the moment to calculate for
+     * @return the terminator at that moment
+     */
+    public static Terminator at(Instant instant)
+    {
+        return at(instant.toEpochMilli());
+    }
+
+    /**
+     * @return latitude of the location where the sun is at the zenith, in degrees
+     */
+    public double getSubsolarLatitude()
+    {
+        return subsolarLat;
+    }
+
+    /**
+     * @return longitude of the location where the sun is at the zenith, between -180 and 180 degrees
+     */
+    public double getSubsolarLongitude()
+    {
+        return subsolarLng;
+    }
+
+    /**
+     * Calculates the day/night terminator, where the center of the sun is on the horizon
+     *
+     * @param lats receives the latitude of each vertex, in degrees
+     * @param lngs receives the longitude of each vertex, in degrees
+     */
+    public void getTerminator(double[] lats, double[] lngs)
+    {
+        getCurve(TERMINATOR, lats, lngs, 0, lats.length);
+    }
+
+    /**
+     * Calculates the locations where the sun has an altitude, with as many vertices as the latitude array
+     *
+     * @param angle altitude of the sun, between -90 and 90 degrees, see {@link Constants.SunAngles}
+     * @param lats receives the latitude of each vertex, in degrees
+     * @param lngs receives the longitude of each vertex, in degrees
+     */
+    public void getCurve(double angle, double[] lats, double[] lngs)
+    {
+        getCurve(angle, lats, lngs, 0, lats.length);
+    }
+
+    /**
+     * Calculates the locations where the sun has an altitude
+     *
+     * @param angle altitude of the sun, between -90 and 90 degrees, see {@link Constants.SunAngles}
+     * @param lats receives the latitude of each vertex, in degrees
+     * @param lngs receives the longitude of each vertex, in degrees
+     * @param offset index of the first vertex in the output arrays
+     * @param length number of vertices
+     */
+    public void getCurve(double angle, double[] lats, double[] lngs, int offset, int length)
+    {
+        if (!(angle >= -90 && angle <= 90))
+            throw new IllegalArgumentException("angle must be between -90 and 90 degrees, got " + angle);
+        ArrayUtils.checkRange(lats.length, offset, length);
+        ArrayUtils.checkRange(lngs.length, offset, length);
+
+        // angular distance from the subsolar point
+        double r    = Constants.TO_RAD * (90 - angle);
+        double sinR = Math.sin(r);
+        double cosR = Math.cos(r);
+
+        for (int i = 0; i < length; i++)
+        {
+            double bearing = 2 * Math.PI * i / length;
+            double cosB    = Math.cos(bearing);
+            double sinLat  = sinDec * cosR + cosDec * sinR * cosB;
+            double dLng    = Math.atan2(Math.sin(bearing) * sinR * cosDec, cosR - sinDec * sinLat);
+
+            lats[offset + i] = Math.asin(sinLat) / Constants.TO_RAD;
+            lngs[offset + i] = normalize(subsolarLng + dLng / Constants.TO_RAD);
+        }
+    }
+
+    /**
+     * @param lng a longitude, in degrees
+     * @return the same longitude, between -180 and 180 degrees
+     */
+    private static double normalize(double lng)
+    {
+        return lng - 360 * Math.floor((lng + 180) / 360);
+    }
+}
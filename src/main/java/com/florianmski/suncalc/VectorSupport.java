@@ -0,0 +1,20 @@
+package com.florianmski.suncalc;
+
+/**
+ * Access to the Vector API kernel. The Vector API needs Java 16, so this version, used up to Java 15, has none; the
+ * multi-release JAR holds another version of this class for Java 16 and later, in {@code src/main/java16}.
+ */
+final class VectorSupport
+{
+    private VectorSupport()
+    {
+    }
+
+    /**
+     * @return the Vector API kernel, null if not available
+     */
+    static PositionKernel getKernel()
+    {
+        return null;
+    }
+}
@@ -0,0 +1,53 @@
+package com.florianmski.suncalc.metrics;
+
+/**
+ * Listener committing a {@link SlowCallEvent} to the Flight Recorder for every call slower than a threshold. Needs the
+ * {@code jdk.jfr} module (Java 11, or Java 8 from update 262), only when this listener is created.
+ */
+public final class JfrMetricsListener implements MetricsListener
+{
+    private final long thresholdNanos;
+
+    /**
+     * @param thresholdNanos latency from which a call is slow, in nanoseconds
+     */
+    public JfrMetricsListener(long thresholdNanos)
+    {
+        if (thresholdNanos < 0)
+            throw new IllegalArgumentException("thresholdNanos must be positive, got " + thresholdNanos);
+
+        this.thresholdNanos = thresholdNanos;
+    }
+
+    /**
+     * @return latency from which a call is slow, in nanoseconds
+     */
+    public long getThresholdNanos()
+    {
+        return thresholdNanos;
+    }
+
+    @Override
+    public void onCall(Operation operation, long nanos)
+    {
+        if (nanos < thresholdNanos)
+            return;
+
+        SlowCallEvent event = new SlowCallEvent();
+        if (!event.shouldCommit())
+            return;
+        event.operation = operation.name();
+        event.latency = nanos;
+        event.commit();
+    }
+
+    @Override
+    public void onInvalidResults(Operation operation, int count)
+    {
+    }
+
+    @Override
+    public void onCacheAccess(boolean hit)
+    {
+    }
+}
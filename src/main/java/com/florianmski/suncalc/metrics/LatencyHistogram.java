@@ -0,0 +1,146 @@
+package com.florianmski.suncalc.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies, in nanoseconds.
+ * <p>
+ *  Like HdrHistogram the buckets are log-linear: values below 128 ns each have their bucket, then every power of two
+ *  is split in 64 buckets, so a value is known within 1/64 (1.6%). Values above {@link #MAX_VALUE} are counted in the
+ *  last bucket. Recording is a single atomic increment, and any number of threads can record at the same time. Reads
+ *  are not atomic with the recording: a percentile read while values are recorded may miss some of them.
+ * </p>
+ */
+public final class LatencyHistogram
+{
+    /** Highest value told apart from the higher ones, about 18 minutes */
+    public static final long MAX_VALUE = (1L << 40) - 1;
+
+    /** Number of bits of the values below 128, each having its bucket */
+    private static final int LINEAR_BITS = 7;
+    /** Number of buckets of every power of two above */
+    private static final int SUB_BUCKETS = 1 << (LINEAR_BITS - 1);
+
+    private static final int BUCKETS = getIndex(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value
+     *
+     * @param nanos the latency, in nanoseconds, negative values are recorded as 0
+     */
+    public void record(long nanos)
+    {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(getIndex(Math.min(value, MAX_VALUE)));
+        total.add(value);
+
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value))
+        {
+            // another thread raised the maximum, compare again
+        }
+    }
+
+    /**
+     * @return number of values recorded
+     */
+    public long getCount()
+    {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++)
+            count += counts.get(i);
+        return count;
+    }
+
+    /**
+     * @return highest value recorded, 0 if none was
+     */
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    /**
+     * @return mean of the values recorded, 0 if none was
+     */
+    public double getMean()
+    {
+        long count = getCount();
+        return count == 0 ? 0 : total.doubleValue() / count;
+    }
+
+    /**
+     * Value below which a percentage of the values recorded are, within the precision of the buckets
+     *
+     * @param percentile the percentage, between 0 and 100
+     * @return highest value of the bucket holding the percentile, 0 if no value was recorded
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        if (!(percentile >= 0 && percentile <= 100))
+            throw new IllegalArgumentException("percentile must be between 0 and 100, got " + percentile);
+
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++)
+            count += snapshot[i] = counts.get(i);
+        if (count == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += snapshot[i];
+            if (seen >= rank)
+                return Math.min(getHighestValue(i), getMax());
+        }
+        return getMax();
+    }
+
+    /**
+     * Forgets the values recorded. Values recorded at the same time may or may not be forgotten.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < BUCKETS; i++)
+            counts.set(i, 0);
+        total.reset();
+        max.set(0);
+    }
+
+    /**
+     * @param value a value between 0 and {@link #MAX_VALUE}
+     * @return index of the bucket of the value
+     */
+    static int getIndex(long value)
+    {
+        if (value < 1 << LINEAR_BITS)
+            return (int) value;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - (LINEAR_BITS - 1);
+        return (1 << LINEAR_BITS) + (exponent - LINEAR_BITS) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * @param index index of a bucket
+     * @return highest value of the bucket
+     */
+    static long getHighestValue(int index)
+    {
+        if (index < 1 << LINEAR_BITS)
+            return index;
+
+        int exponent = (index - (1 << LINEAR_BITS)) / SUB_BUCKETS + LINEAR_BITS;
+        int shift = exponent - (LINEAR_BITS - 1);
+        long lowest = (long) ((index - (1 << LINEAR_BITS)) % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
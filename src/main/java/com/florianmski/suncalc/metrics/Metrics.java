@@ -0,0 +1,157 @@
+package com.florianmski.suncalc.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Registry of the {@link MetricsListener}s, and entry points called by the calculations.
+ * <p>
+ *  The listeners are kept in a single volatile field, null when none is registered, so an uninstrumented call costs a
+ *  read of that field and a branch, and never reads the clock.
+ * </p>
+ */
+public final class Metrics
+{
+    /** The registered listener, a {@link Composite} when several are registered, null when none is */
+    private static volatile MetricsListener listener;
+
+    private static MetricsListener[] listeners = new MetricsListener[0];
+
+    private Metrics()
+    {
+    }
+
+    /**
+     * Starts reporting the calculations to a listener
+     *
+     * @param listener the listener to add
+     */
+    public static synchronized void addListener(MetricsListener listener)
+    {
+        if (listener == null)
+            throw new NullPointerException("listener");
+
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+        update();
+    }
+
+    /**
+     * Stops reporting the calculations to a listener
+     *
+     * @param listener the listener to remove
+     * @return false if the listener was not registered
+     */
+    public static synchronized boolean removeListener(MetricsListener listener)
+    {
+        for (int i = 0; i < listeners.length; i++)
+        {
+            if (listeners[i] != listener)
+                continue;
+
+            MetricsListener[] remaining = new MetricsListener[listeners.length - 1];
+            System.arraycopy(listeners, 0, remaining, 0, i);
+            System.arraycopy(listeners, i + 1, remaining, i, remaining.length - i);
+            listeners = remaining;
+            update();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return is at least one listener registered?
+     */
+    public static boolean isEnabled()
+    {
+        return listener != null;
+    }
+
+    private static void update()
+    {
+        if (listeners.length == 0)
+            listener = null;
+        else if (listeners.length == 1)
+            listener = listeners[0];
+        else
+            listener = new Composite(listeners.clone());
+    }
+
+    /**
+     * Called at the start of a calculation
+     *
+     * @return the time to give to {@link #stop(Operation, long)}, 0 when no listener is registered
+     */
+    public static long start()
+    {
+        return listener == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Called at the end of a calculation
+     *
+     * @param operation the calculation
+     * @param start the value returned by {@link #start()}
+     */
+    public static void stop(Operation operation, long start)
+    {
+        MetricsListener l = listener;
+        if (l != null && start != 0)
+            l.onCall(operation, System.nanoTime() - start);
+    }
+
+    /**
+     * Called when a calculation returns invalid times
+     *
+     * @param operation the calculation
+     * @param count number of invalid times, nothing is reported if 0
+     */
+    public static void invalidResults(Operation operation, int count)
+    {
+        MetricsListener l = listener;
+        if (l != null && count > 0)
+            l.onInvalidResults(operation, count);
+    }
+
+    /**
+     * Called when a {@link com.florianmski.suncalc.SolarEphemerisCache} is looked up
+     *
+     * @param hit was the value in the cache?
+     */
+    public static void cacheAccess(boolean hit)
+    {
+        MetricsListener l = listener;
+        if (l != null)
+            l.onCacheAccess(hit);
+    }
+
+    private static final class Composite implements MetricsListener
+    {
+        private final MetricsListener[] listeners;
+
+        Composite(MetricsListener[] listeners)
+        {
+            this.listeners = listeners;
+        }
+
+        @Override
+        public void onCall(Operation operation, long nanos)
+        {
+            for (MetricsListener listener : listeners)
+                listener.onCall(operation, nanos);
+        }
+
+        @Override
+        public void onInvalidResults(Operation operation, int count)
+        {
+            for (MetricsListener listener : listeners)
+                listener.onInvalidResults(operation, count);
+        }
+
+        @Override
+        public void onCacheAccess(boolean hit)
+        {
+            for (MetricsListener listener : listeners)
+                listener.onCacheAccess(hit);
+        }
+    }
+}
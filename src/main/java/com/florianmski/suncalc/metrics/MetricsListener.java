@@ -0,0 +1,35 @@
+package com.florianmski.suncalc.metrics;
+
+/**
+ * Receives the measurements of the calculations, see {@link Metrics#addListener(MetricsListener)}.
+ * <p>
+ *  Methods are called on the thread of the calculation, right after it, so they should be quick and must be thread
+ *  safe. Calls ending with an exception are not reported.
+ * </p>
+ */
+public interface MetricsListener
+{
+    /**
+     * A calculation returned
+     *
+     * @param operation the calculation
+     * @param nanos time spent in the calculation, in nanoseconds
+     */
+    void onCall(Operation operation, long nanos);
+
+    /**
+     * A calculation returned times which are not valid, e.g. the January 1970 of the sun phases near the poles
+     *
+     * @param operation the calculation
+     * @param count number of invalid times in the result
+     */
+    void onInvalidResults(Operation operation, int count);
+
+    /**
+     * A {@link com.florianmski.suncalc.SolarEphemerisCache} was looked up. Other caches, such as
+     * {@link com.florianmski.suncalc.SolarEventsCache}, keep their own statistics and are not reported.
+     *
+     * @param hit was the day in the cache?
+     */
+    void onCacheAccess(boolean hit);
+}
@@ -0,0 +1,110 @@
+package com.florianmski.suncalc.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Listener keeping, for every {@link Operation}, the number of calls, a histogram of their latencies and the number
+ * of invalid times returned, and the number of hits and misses of the caches of the sun's coordinates. Recording
+ * never blocks.
+ */
+public final class MetricsRecorder implements MetricsListener
+{
+    private final LatencyHistogram[] histograms = new LatencyHistogram[Operation.values().length];
+    private final LongAdder[] invalidResults = new LongAdder[Operation.values().length];
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    public MetricsRecorder()
+    {
+        for (int i = 0; i < histograms.length; i++)
+        {
+            histograms[i] = new LatencyHistogram();
+            invalidResults[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void onCall(Operation operation, long nanos)
+    {
+        histograms[operation.ordinal()].record(nanos);
+    }
+
+    @Override
+    public void onInvalidResults(Operation operation, int count)
+    {
+        invalidResults[operation.ordinal()].add(count);
+    }
+
+    @Override
+    public void onCacheAccess(boolean hit)
+    {
+        (hit ? cacheHits : cacheMisses).increment();
+    }
+
+    /**
+     * @param operation the calculation
+     * @return number of calls recorded
+     */
+    public long getCalls(Operation operation)
+    {
+        return histograms[operation.ordinal()].getCount();
+    }
+
+    /**
+     * @param operation the calculation
+     * @return latencies of the calls, in nanoseconds
+     */
+    public LatencyHistogram getLatencies(Operation operation)
+    {
+        return histograms[operation.ordinal()];
+    }
+
+    /**
+     * @param operation the calculation
+     * @return number of invalid times returned
+     */
+    public long getInvalidResults(Operation operation)
+    {
+        return invalidResults[operation.ordinal()].sum();
+    }
+
+    /**
+     * @return number of lookups finding their value in a cache
+     */
+    public long getCacheHits()
+    {
+        return cacheHits.sum();
+    }
+
+    /**
+     * @return number of lookups not finding their value in a cache
+     */
+    public long getCacheMisses()
+    {
+        return cacheMisses.sum();
+    }
+
+    /**
+     * @return part of the lookups finding their value in a cache, between 0 and 1, NaN if no lookup was recorded
+     */
+    public double getCacheHitRate()
+    {
+        long hits = getCacheHits();
+        long lookups = hits + getCacheMisses();
+        return lookups == 0 ? Double.NaN : (double) hits / lookups;
+    }
+
+    /**
+     * Forgets everything recorded
+     */
+    public void reset()
+    {
+        for (int i = 0; i < histograms.length; i++)
+        {
+            histograms[i].reset();
+            invalidResults[i].reset();
+        }
+        cacheHits.reset();
+        cacheMisses.reset();
+    }
+}
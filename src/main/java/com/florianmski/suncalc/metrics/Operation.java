@@ -0,0 +1,23 @@
+package com.florianmski.suncalc.metrics;
+
+/**
+ * Calculations reported to the {@link MetricsListener}s, each covering all the overloads of a method of
+ * {@link com.florianmski.suncalc.SunCalc}
+ */
+public enum Operation
+{
+    /** getSunPosition */
+    SUN_POSITION,
+    /** getSunPositions, a call for all the moments */
+    SUN_POSITIONS,
+    /** getMoonPosition */
+    MOON_POSITION,
+    /** getPhases, getSolarEvents, getPhaseTimes and their classified versions */
+    SUN_PHASES,
+    /** getMoonTimes */
+    MOON_TIMES,
+    /** getMoonIllumination and getMoonFraction */
+    MOON_ILLUMINATION,
+    /** getMoonPhases */
+    MOON_PHASES
+}
@@ -0,0 +1,25 @@
+package com.florianmski.suncalc.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event of a calculation slower than the threshold of a {@link JfrMetricsListener}
+ */
+@Name("com.florianmski.suncalc.SlowCall")
+@Label("Slow SunCalc Call")
+@Category("SunCalc")
+@Description("A calculation slower than the threshold of the listener")
+public final class SlowCallEvent extends Event
+{
+    @Label("Operation")
+    String operation;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+}
@@ -0,0 +1,14 @@
+/**
+ * <p>
+ *     Optional instrumentation of the calculations. Nothing is measured until a {@link
+ *     com.florianmski.suncalc.metrics.MetricsListener} is registered with {@link
+ *     com.florianmski.suncalc.metrics.Metrics#addListener(com.florianmski.suncalc.metrics.MetricsListener)}, the
+ *     calculations then only test that no listener is registered.
+ * </p>
+ * <p>
+ *     {@link com.florianmski.suncalc.metrics.MetricsRecorder} counts the calls and records their latencies in
+ *     lock-free histograms, {@link com.florianmski.suncalc.metrics.JfrMetricsListener} emits Flight Recorder events
+ *     for slow calls. Only the latter needs the {@code jdk.jfr} module, it is not loaded unless used.
+ * </p>
+ */
+package com.florianmski.suncalc.metrics;
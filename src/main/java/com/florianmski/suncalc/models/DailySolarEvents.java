@@ -0,0 +1,164 @@
+package com.florianmski.suncalc.models;
+
+import com.florianmski.suncalc.utils.PhaseUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Immutable phases of the Sun for a particular day.
+ * <p>
+ *  Only the start and end times of the phases are stored, as epoch millis; {@link SunPhase} objects and their
+ *  calendars are only created when asked for, every call returning new ones.
+ * </p>
+ * <p>
+ *  When calculated with the classification of the events, the time of a start or end that does not happen is
+ *  {@link PhaseUtils#ALWAYS_ABOVE} or {@link PhaseUtils#ALWAYS_BELOW}, and the corresponding instant and calendar
+ *  are null.
+ * </p>
+ */
+public final class DailySolarEvents
+{
+    private final long[] times;
+    private final TimeZone timeZone;
+
+    /**
+     * @param times start and end times of every phase, in milliseconds since the POSIX epoch, see
+     *              {@link PhaseUtils#getStartIndex(SunPhase.Name)} and {@link PhaseUtils#getEndIndex(SunPhase.Name)}
+     * @param timeZone timezone of the calendars created by {@link #getPhase(SunPhase.Name)}
+     */
+    public DailySolarEvents(long[] times, TimeZone timeZone)
+    {
+        if (times.length != PhaseUtils.TIMES_LENGTH)
+            throw new IllegalArgumentException("expected " + PhaseUtils.TIMES_LENGTH + " times, got " + times.length);
+
+        this.times = times.clone();
+        this.timeZone = timeZone;
+    }
+
+    /**
+     * @param name the phase
+     * @return start time of the phase, in milliseconds since the POSIX epoch
+     */
+    public long getStartTime(SunPhase.Name name)
+    {
+        return times[PhaseUtils.getStartIndex(name)];
+    }
+
+    /**
+     * @param name the phase
+     * @return end time of the phase, in milliseconds since the POSIX epoch
+     */
+    public long getEndTime(SunPhase.Name name)
+    {
+        return times[PhaseUtils.getEndIndex(name)];
+    }
+
+    /**
+     * @param name the phase
+     * @return does the start of the phase happen this day? Always true unless calculated with the classification
+     */
+    public boolean hasStart(SunPhase.Name name)
+    {
+        return PhaseUtils.isOccurring(getStartTime(name));
+    }
+
+    /**
+     * @param name the phase
+     * @return does the end of the phase happen this day? Always true unless calculated with the classification
+     */
+    public boolean hasEnd(SunPhase.Name name)
+    {
+        return PhaseUtils.isOccurring(getEndTime(name));
+    }
+
+    /**
+     * @param name the phase
+     * @return start of the phase, null if it does not happen
+     */
+    public Instant getStart(SunPhase.Name name)
+    {
+        return hasStart(name) ? Instant.ofEpochMilli(getStartTime(name)) : null;
+    }
+
+    /**
+     * @param name the phase
+     * @return end of the phase, null if it does not happen
+     */
+    public Instant getEnd(SunPhase.Name name)
+    {
+        return hasEnd(name) ? Instant.ofEpochMilli(getEndTime(name)) : null;
+    }
+
+    /**
+     * @return timezone of the calendars created by {@link #getPhase(SunPhase.Name)}
+     */
+    public TimeZone getTimeZone()
+    {
+        return timeZone;
+    }
+
+    /**
+     * Creates a phase with its start and end dates
+     *
+     * @param name the phase
+     * @return a new phase, with calendars in {@link #getTimeZone()}, null for a start or end that does not happen
+     */
+    public SunPhase getPhase(SunPhase.Name name)
+    {
+        SunPhase sunPhase = SunPhase.get(name);
+        sunPhase.setStartDate(toCalendar(getStartTime(name)));
+        sunPhase.setEndDate(toCalendar(getEndTime(name)));
+        return sunPhase;
+    }
+
+    /**
+     * Creates all the phases with their start and end dates
+     *
+     * @return new phases, in the order of {@link SunPhase.Name}, with calendars in {@link #getTimeZone()}
+     */
+    public List<SunPhase> getPhases()
+    {
+        List<SunPhase> results = new ArrayList<SunPhase>();
+        for (SunPhase.Name name : SunPhase.Name.values())
+            results.add(getPhase(name));
+        return results;
+    }
+
+    private Calendar toCalendar(long epochMillis)
+    {
+        if (!PhaseUtils.isOccurring(epochMillis))
+            return null;
+
+        Calendar date = Calendar.getInstance(timeZone);
+        date.setTimeInMillis(epochMillis);
+        return date;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) return true;
+        if (!(o instanceof DailySolarEvents)) return false;
+        DailySolarEvents that = (DailySolarEvents) o;
+        return Arrays.equals(times, that.times) && timeZone.equals(that.timeZone);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * Arrays.hashCode(times) + timeZone.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "DailySolarEvents{" +
+                "times=" + Arrays.toString(times) +
+                ", timeZone=" + timeZone.getID() +
+                '}';
+    }
+}
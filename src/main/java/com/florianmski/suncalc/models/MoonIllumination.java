@@ -0,0 +1,84 @@
+package com.florianmski.suncalc.models;
+
+/**
+ * Immutable illumination of the moon at a particular moment
+ */
+public final class MoonIllumination
+{
+    private final double fraction, phase, angle;
+
+    /**
+     * @param fraction illuminated fraction of the moon, from 0 (new moon) to 1 (full moon)
+     * @param phase phase of the moon, from 0 (new moon) through 0.25 (first quarter), 0.5 (full moon) and 0.75 (last
+     *              quarter) back to 1
+     * @param angle midpoint angle of the illuminated limb, in radians, eastward from the north point of the disk.
+     *              Negative while the moon is waxing, positive while it is waning
+     */
+    public MoonIllumination(double fraction, double phase, double angle)
+    {
+        this.fraction = fraction;
+        this.phase = phase;
+        this.angle = angle;
+    }
+
+    /**
+     * @return illuminated fraction of the moon, from 0 (new moon) to 1 (full moon)
+     */
+    public double getFraction()
+    {
+        return fraction;
+    }
+
+    /**
+     * @return phase of the moon, from 0 (new moon) through 0.25 (first quarter), 0.5 (full moon) and 0.75 (last
+     *         quarter) back to 1
+     */
+    public double getPhase()
+    {
+        return phase;
+    }
+
+    /**
+     * @return midpoint angle of the illuminated limb, in radians, eastward from the north point of the disk
+     */
+    public double getAngle()
+    {
+        return angle;
+    }
+
+    /**
+     * @return is the illuminated fraction growing?
+     */
+    public boolean isWaxing()
+    {
+        return phase < 0.5;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) return true;
+        if (!(o instanceof MoonIllumination)) return false;
+        MoonIllumination that = (MoonIllumination) o;
+        return Double.compare(fraction, that.fraction) == 0
+                && Double.compare(phase, that.phase) == 0
+                && Double.compare(angle, that.angle) == 0;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int result = Double.hashCode(fraction);
+        result = 31 * result + Double.hashCode(phase);
+        return 31 * result + Double.hashCode(angle);
+    }
+
+    @Override
+    public String toString() {
+        return "MoonIllumination{" +
+                "fraction=" + fraction +
+                ", phase=" + phase +
+                ", angle=" + angle +
+                '}';
+    }
+}
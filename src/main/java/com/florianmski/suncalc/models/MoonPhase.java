@@ -0,0 +1,97 @@
+package com.florianmski.suncalc.models;
+
+import java.time.Instant;
+
+/**
+ * Immutable instant of a principal phase of the moon
+ */
+public final class MoonPhase
+{
+    public enum Name
+    {
+        NEW_MOON("New Moon"),
+        FIRST_QUARTER("First Quarter"),
+        FULL_MOON("Full Moon"),
+        LAST_QUARTER("Last Quarter");
+
+        private final String value;
+        Name(String value)
+        {
+            this.value = value;
+        }
+
+        /**
+         * @return difference between the ecliptic longitudes of the moon and the sun at the phase, in radians
+         */
+        public double getElongation()
+        {
+            return ordinal() * Math.PI / 2;
+        }
+
+        @Override
+        public String toString()
+        {
+            return this.value;
+        }
+    }
+
+    private final Name name;
+    private final long time;
+
+    /**
+     * @param name the phase
+     * @param time instant of the phase, in milliseconds since the POSIX epoch
+     */
+    public MoonPhase(Name name, long time)
+    {
+        this.name = name;
+        this.time = time;
+    }
+
+    /**
+     * @return the phase
+     */
+    public Name getName()
+    {
+        return name;
+    }
+
+    /**
+     * @return instant of the phase, in milliseconds since the POSIX epoch
+     */
+    public long getTime()
+    {
+        return time;
+    }
+
+    /**
+     * @return instant of the phase
+     */
+    public Instant getInstant()
+    {
+        return Instant.ofEpochMilli(time);
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) return true;
+        if (!(o instanceof MoonPhase)) return false;
+        MoonPhase that = (MoonPhase) o;
+        return name == that.name && time == that.time;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * name.hashCode() + Long.hashCode(time);
+    }
+
+    @Override
+    public String toString() {
+        return "MoonPhase{" +
+                "name=" + name +
+                ", instant=" + getInstant() +
+                '}';
+    }
+}
@@ -0,0 +1,138 @@
+package com.florianmski.suncalc.models;
+
+import java.time.Instant;
+
+/**
+ * Immutable rise, set and transit times of the moon over a day.
+ * <p>
+ *  Times are epoch millis, {@link #NONE} when the event does not happen during the day. When the moon neither rises
+ *  nor sets, {@link #isAlwaysUp()} or {@link #isAlwaysDown()} tells whether it stays above or below the horizon.
+ * </p>
+ */
+public final class MoonTimes
+{
+    /** Time of an event not happening during the day */
+    public static final long NONE = Long.MIN_VALUE;
+
+    private final long riseTime, setTime, transitTime;
+    private final boolean alwaysUp, alwaysDown;
+
+    /**
+     * @param riseTime time the moon rises, in milliseconds since the POSIX epoch, or {@link #NONE}
+     * @param setTime time the moon sets, in milliseconds since the POSIX epoch, or {@link #NONE}
+     * @param transitTime time the moon crosses the meridian, in milliseconds since the POSIX epoch, or {@link #NONE}
+     * @param alwaysUp does the moon stay above the horizon the whole day?
+     * @param alwaysDown does the moon stay below the horizon the whole day?
+     */
+    public MoonTimes(long riseTime, long setTime, long transitTime, boolean alwaysUp, boolean alwaysDown)
+    {
+        if (alwaysUp && alwaysDown)
+            throw new IllegalArgumentException("the moon cannot be always up and always down");
+
+        this.riseTime = riseTime;
+        this.setTime = setTime;
+        this.transitTime = transitTime;
+        this.alwaysUp = alwaysUp;
+        this.alwaysDown = alwaysDown;
+    }
+
+    /**
+     * @return time the moon rises, in milliseconds since the POSIX epoch, or {@link #NONE}
+     */
+    public long getRiseTime()
+    {
+        return riseTime;
+    }
+
+    /**
+     * @return time the moon sets, in milliseconds since the POSIX epoch, or {@link #NONE}
+     */
+    public long getSetTime()
+    {
+        return setTime;
+    }
+
+    /**
+     * @return time the moon crosses the meridian, in milliseconds since the POSIX epoch, or {@link #NONE}
+     */
+    public long getTransitTime()
+    {
+        return transitTime;
+    }
+
+    /**
+     * @return moment the moon rises, null if it does not rise during the day
+     */
+    public Instant getRise()
+    {
+        return toInstant(riseTime);
+    }
+
+    /**
+     * @return moment the moon sets, null if it does not set during the day
+     */
+    public Instant getSet()
+    {
+        return toInstant(setTime);
+    }
+
+    /**
+     * @return moment the moon crosses the meridian, null if it does not cross it during the day
+     */
+    public Instant getTransit()
+    {
+        return toInstant(transitTime);
+    }
+
+    /**
+     * @return does the moon stay above the horizon the whole day?
+     */
+    public boolean isAlwaysUp()
+    {
+        return alwaysUp;
+    }
+
+    /**
+     * @return does the moon stay below the horizon the whole day?
+     */
+    public boolean isAlwaysDown()
+    {
+        return alwaysDown;
+    }
+
+    private static Instant toInstant(long time)
+    {
+        return time == NONE ? null : Instant.ofEpochMilli(time);
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) return true;
+        if (!(o instanceof MoonTimes)) return false;
+        MoonTimes that = (MoonTimes) o;
+        return riseTime == that.riseTime && setTime == that.setTime && transitTime == that.transitTime
+                && alwaysUp == that.alwaysUp && alwaysDown == that.alwaysDown;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int result = Long.hashCode(riseTime);
+        result = 31 * result + Long.hashCode(setTime);
+        result = 31 * result + Long.hashCode(transitTime);
+        result = 31 * result + (alwaysUp ? 1 : 0);
+        return 31 * result + (alwaysDown ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return "MoonTimes{" +
+                "rise=" + getRise() +
+                ", set=" + getSet() +
+                ", transit=" + getTransit() +
+                ", alwaysUp=" + alwaysUp +
+                ", alwaysDown=" + alwaysDown +
+                '}';
+    }
+}
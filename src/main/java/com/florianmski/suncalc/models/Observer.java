@@ -0,0 +1,102 @@
+package com.florianmski.suncalc.models;
+
+import com.florianmski.suncalc.utils.Constants;
+
+/**
+ * Immutable location of an observer on Earth.
+ * <p>
+ *  The radians and trigonometric terms of the location are calculated once, so reusing the same observer for many
+ *  calculations avoids recomputing them on every call.
+ * </p>
+ */
+public final class Observer
+{
+    private final double latitude, longitude;
+    private final double phi, lw, sinPhi, cosPhi;
+
+    /**
+     * @param latitude measured from North, in degrees
+     * @param longitude measured from East, in degrees
+     */
+    public Observer(double latitude, double longitude)
+    {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.phi = Constants.TO_RAD * latitude;
+        this.lw = Constants.TO_RAD * -longitude;
+        this.sinPhi = Math.sin(phi);
+        this.cosPhi = Math.cos(phi);
+    }
+
+    /**
+     * @return measured from North, in degrees
+     */
+    public double getLatitude()
+    {
+        return latitude;
+    }
+
+    /**
+     * @return measured from East, in degrees
+     */
+    public double getLongitude()
+    {
+        return longitude;
+    }
+
+    /**
+     * @return latitude, in radians
+     */
+    public double getPhi()
+    {
+        return phi;
+    }
+
+    /**
+     * @return West longitude, in radians
+     */
+    public double getLw()
+    {
+        return lw;
+    }
+
+    /**
+     * @return sine of the latitude
+     */
+    public double getSinPhi()
+    {
+        return sinPhi;
+    }
+
+    /**
+     * @return cosine of the latitude
+     */
+    public double getCosPhi()
+    {
+        return cosPhi;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) return true;
+        if (!(o instanceof Observer)) return false;
+        Observer that = (Observer) o;
+        return Double.compare(latitude, that.latitude) == 0 && Double.compare(longitude, that.longitude) == 0;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        long bits = Double.doubleToLongBits(latitude) * 31 + Double.doubleToLongBits(longitude);
+        return (int) (bits ^ (bits >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "Observer{" +
+                "latitude=" + latitude +
+                ", longitude=" + longitude +
+                '}';
+    }
+}
@@ -0,0 +1,69 @@
+package com.florianmski.suncalc.models;
+
+import java.time.Instant;
+
+/**
+ * Immutable moment the sun enters a phase
+ */
+public final class SunTransition
+{
+    private final long time;
+    private final SunPhase.Name phase;
+
+    /**
+     * @param time moment of the transition, in milliseconds since the POSIX epoch
+     * @param phase the phase entered
+     */
+    public SunTransition(long time, SunPhase.Name phase)
+    {
+        this.time = time;
+        this.phase = phase;
+    }
+
+    /**
+     * @return moment of the transition, in milliseconds since the POSIX epoch
+     */
+    public long getTime()
+    {
+        return time;
+    }
+
+    /**
+     * @return moment of the transition
+     */
+    public Instant getInstant()
+    {
+        return Instant.ofEpochMilli(time);
+    }
+
+    /**
+     * @return the phase entered
+     */
+    public SunPhase.Name getPhase()
+    {
+        return phase;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) return true;
+        if (!(o instanceof SunTransition)) return false;
+        SunTransition that = (SunTransition) o;
+        return time == that.time && phase == that.phase;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * Long.hashCode(time) + phase.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "SunTransition{" +
+                "instant=" + getInstant() +
+                ", phase=" + phase +
+                '}';
+    }
+}
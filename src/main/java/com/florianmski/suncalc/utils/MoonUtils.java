@@ -1,9 +1,39 @@
 package com.florianmski.suncalc.utils;
 
+import com.florianmski.suncalc.models.EquatorialCoordinates;
 import com.florianmski.suncalc.models.GeocentricCoordinates;
+import com.florianmski.suncalc.models.MoonIllumination;
+import com.florianmski.suncalc.models.MoonPhase;
+import com.florianmski.suncalc.models.MoonTimes;
+import com.florianmski.suncalc.models.Observer;
 
 public class MoonUtils
 {
+    /** Altitude of the center of the moon when its upper limb touches the horizon, in radians */
+    private static final double RISE_ALTITUDE = Constants.TO_RAD * 0.133;
+
+    /** Number of hours sampled for the moon times, one more than the hours of a day */
+    private static final int SAMPLES = 25;
+
+    private static final long HOUR_MS = DateUtils.DAY_MS / 24;
+
+    /** Distance from Earth to Sun, in km */
+    private static final int SUN_DISTANCE = 149598000;
+
+    /** Mean synodic month, in days */
+    public static final double SYNODIC_MONTH = 29.530588853;
+
+    /** Mean new moon of January 2000, in Julian days since Jan 1, 2000, with the mean longitudes used here */
+    private static final double MEAN_NEW_MOON = 5.0982;
+
+    /** Mean rate of change of the elongation, in radians/day */
+    private static final double MEAN_ELONGATION_RATE = 2 * Math.PI / SYNODIC_MONTH;
+
+    /** Precision of the phase instants, in days */
+    private static final double PHASE_PRECISION = 1e-7;
+
+    private static final int MAX_ITERATIONS = 20;
+
     public static GeocentricCoordinates getMoonCoords(double d)
     {
         // geocentric ecliptic coordinates of the moon
@@ -21,4 +51,223 @@ public class MoonUtils
                 PositionUtils.getDeclination(l, b),
                 dt);
     }
+
+    /**
+     * Same as {@link #getMoonCoords(double)}, with the trigonometric functions of a strategy
+     *
+     * @param d Julian days since Jan 1, 2000
+     * @param math trigonometric functions to use
+     * @return geocentric coordinates of the moon
+     */
+    public static GeocentricCoordinates getMoonCoords(double d, MathStrategy math)
+    {
+        double L = Constants.TO_RAD * (218.316 + 13.176396 * d);
+        double M = Constants.TO_RAD * (134.963 + 13.064993 * d);
+        double F = Constants.TO_RAD * (93.272 + 13.229350 * d);
+
+        double l  = L + Constants.TO_RAD * 6.289 * math.sin(M);
+        double b  = Constants.TO_RAD * 5.128 * math.sin(F);
+        double dt = 385001 - 20905 * math.cos(M);
+
+        return new GeocentricCoordinates(
+                PositionUtils.getRightAscension(l, b, math),
+                PositionUtils.getDeclination(l, b, math),
+                dt);
+    }
+
+    /**
+     * Rise, set and transit times of the moon over the 24 hours following a moment.
+     * <p>
+     *  Same as <code>getMoonTimes</code> of the JavaScript SunCalc: the altitude is sampled every hour, and the
+     *  crossings of the horizon are found with a quadratic going through three consecutive samples. The transit, when
+     *  the hour angle is zero, is interpolated linearly between two samples. This takes {@value #SAMPLES} evaluations
+     *  of the moon coordinates.
+     * </p>
+     * <p>
+     *  The altitude is corrected for refraction like {@link #getMoonCoords(double)} based positions, except that the
+     *  correction uses an altitude of zero below the horizon, where {@link PositionUtils#getAstroRefraction(double)}
+     *  is not continuous.
+     * </p>
+     *
+     * @param start the first moment of the day, in milliseconds since the POSIX epoch (UTC)
+     * @param observer the location to calculate for
+     * @return the moon times of the day
+     */
+    public static MoonTimes getMoonTimes(long start, Observer observer)
+    {
+        double[] altitudes = new double[SAMPLES];
+        double[] hourAngles = new double[SAMPLES];
+
+        for (int i = 0; i < SAMPLES; i++)
+        {
+            double d = DateUtils.toDays(start + i * HOUR_MS);
+            GeocentricCoordinates c = getMoonCoords(d);
+            double H   = PositionUtils.getSiderealTime(d, observer.getLw()) - c.getRightAscension();
+            double dec = c.getDeclination();
+            double h   = PositionUtils.getAltitude(Math.cos(H), observer.getSinPhi(), observer.getCosPhi(), Math.sin(dec), Math.cos(dec));
+
+            altitudes[i]  = h + PositionUtils.getAstroRefraction(Math.max(h, 0)) - RISE_ALTITUDE;
+            hourAngles[i] = Math.atan2(Math.sin(H), Math.cos(H));
+        }
+
+        double rise = Double.NaN, set = Double.NaN;
+        for (int i = 1; i < SAMPLES - 1 && (Double.isNaN(rise) || Double.isNaN(set)); i += 2)
+        {
+            // quadratic going through the altitudes at i - 1, i and i + 1, for x between -1 and 1
+            double h0 = altitudes[i - 1], h1 = altitudes[i], h2 = altitudes[i + 1];
+            double a  = (h0 + h2) / 2 - h1;
+            double b  = (h2 - h0) / 2;
+            double xe = -b / (2 * a);
+            double ye = (a * xe + b) * xe + h1;
+            double delta = b * b - 4 * a * h1;
+
+            int roots = 0;
+            double x1 = 0, x2 = 0;
+            if (delta >= 0)
+            {
+                double dx = Math.sqrt(delta) / (Math.abs(a) * 2);
+                x1 = xe - dx;
+                x2 = xe + dx;
+                if (Math.abs(x1) <= 1) roots++;
+                if (Math.abs(x2) <= 1) roots++;
+                if (x1 < -1) x1 = x2;
+            }
+
+            if (roots == 1)
+            {
+                if (h0 < 0)
+                    rise = Double.isNaN(rise) ? i + x1 : rise;
+                else
+                    set = Double.isNaN(set) ? i + x1 : set;
+            }
+            else if (roots == 2)
+            {
+                rise = Double.isNaN(rise) ? i + (ye < 0 ? x2 : x1) : rise;
+                set = Double.isNaN(set) ? i + (ye < 0 ? x1 : x2) : set;
+            }
+        }
+
+        double transit = Double.NaN;
+        for (int i = 0; i < SAMPLES - 1 && Double.isNaN(transit); i++)
+        {
+            // the hour angle goes from negative to positive, not across the wrap around at PI
+            double H0 = hourAngles[i], H1 = hourAngles[i + 1];
+            if (H0 < 0 && H1 >= 0 && H1 - H0 < Math.PI)
+                transit = i - H0 / (H1 - H0);
+        }
+
+        boolean crosses = !Double.isNaN(rise) || !Double.isNaN(set);
+        return new MoonTimes(
+                toTime(start, rise),
+                toTime(start, set),
+                toTime(start, transit),
+                !crosses && altitudes[0] > 0,
+                !crosses && altitudes[0] <= 0);
+    }
+
+    /**
+     * @param hours hours after the start, NaN if there is no event
+     * @return time of the event, in milliseconds since the POSIX epoch, or {@link MoonTimes#NONE}
+     */
+    private static long toTime(long start, double hours)
+    {
+        return Double.isNaN(hours) ? MoonTimes.NONE : start + Math.round(hours * HOUR_MS);
+    }
+
+    /**
+     * Illumination of the moon, same as <code>getMoonIllumination</code> of the JavaScript SunCalc
+     *
+     * @param d Julian days since Jan 1, 2000
+     * @return illumination of the moon
+     */
+    public static MoonIllumination getIllumination(double d)
+    {
+        EquatorialCoordinates s = SunUtils.getSunCoords(d);
+        GeocentricCoordinates m = getMoonCoords(d);
+
+        double sinSunDec = Math.sin(s.getDeclination()), cosSunDec = Math.cos(s.getDeclination());
+        double sinMoonDec = Math.sin(m.getDeclination()), cosMoonDec = Math.cos(m.getDeclination());
+        double deltaRa = s.getRightAscension() - m.getRightAscension();
+
+        // phi is the geocentric elongation, inc the phase angle (sun-moon-earth)
+        double phi = Math.acos(sinSunDec * sinMoonDec + cosSunDec * cosMoonDec * Math.cos(deltaRa));
+        double inc = Math.atan2(SUN_DISTANCE * Math.sin(phi), m.getDistance() - SUN_DISTANCE * Math.cos(phi));
+        double angle = Math.atan2(cosSunDec * Math.sin(deltaRa), sinSunDec * cosMoonDec - cosSunDec * sinMoonDec * Math.cos(deltaRa));
+
+        return new MoonIllumination(
+                (1 + Math.cos(inc)) / 2,
+                0.5 + 0.5 * inc * (angle < 0 ? -1 : 1) / Math.PI,
+                angle);
+    }
+
+    /**
+     * Difference between the ecliptic longitudes of the moon and the sun
+     *
+     * @param d Julian days since Jan 1, 2000
+     * @return elongation, in radians, from 0 (new moon) to 2 PI
+     */
+    public static double getElongation(double d)
+    {
+        EquatorialCoordinates s = SunUtils.getSunCoords(d);
+        GeocentricCoordinates m = getMoonCoords(d);
+
+        double elongation = PositionUtils.getEclipticLongitude(m.getRightAscension(), m.getDeclination())
+                - PositionUtils.getEclipticLongitude(s.getRightAscension(), s.getDeclination());
+        return elongation - 2 * Math.PI * Math.floor(elongation / (2 * Math.PI));
+    }
+
+    /**
+     * Instant of a principal phase of the moon.
+     * <p>
+     *  The search starts from the instant predicted with the mean synodic month, less than a day away, and refines it
+     *  with the secant method on {@link #getElongation(double)}, which takes about five evaluations. The instant is exact
+     *  for the coordinates of {@link #getMoonCoords(double)}, whose simplified lunar theory puts it up to a few hours
+     *  away from the true phase.
+     * </p>
+     *
+     * @param name the phase
+     * @param lunation number of synodic months since the new moon of January 2000, may be negative
+     * @return instant of the phase, in Julian days since Jan 1, 2000
+     */
+    public static double getPhaseDay(MoonPhase.Name name, long lunation)
+    {
+        double target = name.getElongation();
+
+        double x0 = MEAN_NEW_MOON + (lunation + target / (2 * Math.PI)) * SYNODIC_MONTH;
+        double f0 = getElongationOffset(x0, target);
+        double x1 = x0 - f0 / MEAN_ELONGATION_RATE;
+
+        for (int i = 0; i < MAX_ITERATIONS && Math.abs(x1 - x0) > PHASE_PRECISION; i++)
+        {
+            double f1 = getElongationOffset(x1, target);
+            if (f1 == f0)
+                break;
+
+            double x2 = x1 - f1 * (x1 - x0) / (f1 - f0);
+            x0 = x1;
+            f0 = f1;
+            x1 = x2;
+        }
+        return x1;
+    }
+
+    /**
+     * @return elongation minus the target, between -PI and PI
+     */
+    private static double getElongationOffset(double d, double target)
+    {
+        double offset = getElongation(d) - target;
+        return offset - 2 * Math.PI * Math.floor((offset + Math.PI) / (2 * Math.PI));
+    }
+
+    /**
+     * Number of the lunation containing a moment, see {@link #getPhaseDay(MoonPhase.Name, long)}
+     *
+     * @param d Julian days since Jan 1, 2000
+     * @return number of mean synodic months since the new moon of January 2000, rounded down
+     */
+    public static long getLunation(double d)
+    {
+        return (long) Math.floor((d - MEAN_NEW_MOON) / SYNODIC_MONTH);
+    }
 }
@@ -0,0 +1,375 @@
+package com.florianmski.suncalc.utils;
+
+import com.florianmski.suncalc.models.Observer;
+import com.florianmski.suncalc.models.SunPhase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Calculations of the sun phases of a single day, working on UTC instants only.
+ * <p>
+ *  Phase times are stored in a flat array of epoch millis: the start time of a phase is at
+ *  {@link #getStartIndex(SunPhase.Name)} and its end time at {@link #getEndIndex(SunPhase.Name)}.
+ * </p>
+ * <p>
+ *  Many phases start or end at the same altitude of the sun (see {@link Constants.SunAngles}), so the times are
+ *  solved once per <em>event</em>, i.e. per distinct altitude and direction, and then copied to every phase using
+ *  them. Events are numbered in chronological order for a regular day: nadir, the rising events from the lowest to
+ *  the highest altitude, solar noon, then the setting events from the highest to the lowest altitude.
+ * </p>
+ */
+public class PhaseUtils
+{
+    /** The phases, only used for their angles */
+    private static final List<SunPhase> PHASES = SunPhase.all();
+
+    /** Number of times for a single day, i.e. a start and an end time for every {@link SunPhase.Name} */
+    public static final int TIMES_LENGTH = 2 * PHASES.size();
+
+    /** Distinct altitudes of the sun, in degrees, from the lowest to the highest, excluding nadir and solar noon */
+    private static final double[] ANGLES;
+
+    /** Sines of {@link #ANGLES} */
+    private static final double[] SIN_ANGLES;
+
+    /** Number of distinct events of a day, see {@link #getEventAngle(int)} */
+    public static final int EVENT_COUNT;
+
+    /** Index of the nadir event */
+    public static final int NADIR_EVENT = 0;
+
+    /** Index of the solar noon event */
+    public static final int SOLAR_NOON_EVENT;
+
+    /**
+     * Time of an event that does not happen because the sun stays above its altitude the whole day, e.g. sunrise
+     * during the midnight sun. Only stored by the classified calculations
+     */
+    public static final long ALWAYS_ABOVE = Long.MAX_VALUE;
+
+    /**
+     * Time of an event that does not happen because the sun stays below its altitude the whole day, e.g. sunrise
+     * during the polar night or during a day with twilight only. Only stored by the classified calculations
+     */
+    public static final long ALWAYS_BELOW = Long.MIN_VALUE;
+
+    /** Indexes in the phase times array of each event */
+    private static final int[][] EVENT_SLOTS;
+
+    static
+    {
+        TreeSet<Double> angles = new TreeSet<Double>();
+        for (SunPhase sunPhase : PHASES)
+        {
+            angles.add(sunPhase.getStartAngle());
+            angles.add(sunPhase.getEndAngle());
+        }
+        angles.remove(Constants.SunAngles.NADIR);
+        angles.remove(Constants.SunAngles.SOLAR_NOON);
+
+        ANGLES = new double[angles.size()];
+        SIN_ANGLES = new double[angles.size()];
+        int i = 0;
+        for (double angle : angles)
+        {
+            ANGLES[i] = angle;
+            SIN_ANGLES[i++] = Math.sin(angle * Constants.TO_RAD);
+        }
+
+        EVENT_COUNT = 2 * ANGLES.length + 2;
+        SOLAR_NOON_EVENT = ANGLES.length + 1;
+
+        List<List<Integer>> slots = new ArrayList<List<Integer>>();
+        for (int event = 0; event < EVENT_COUNT; event++)
+            slots.add(new ArrayList<Integer>());
+        for (SunPhase sunPhase : PHASES)
+        {
+            slots.get(getEvent(sunPhase.getStartAngle(), sunPhase.isStartRise())).add(getStartIndex(sunPhase.getName()));
+            slots.get(getEvent(sunPhase.getEndAngle(), sunPhase.isEndRise())).add(getEndIndex(sunPhase.getName()));
+        }
+
+        EVENT_SLOTS = new int[EVENT_COUNT][];
+        for (int event = 0; event < EVENT_COUNT; event++)
+        {
+            EVENT_SLOTS[event] = new int[slots.get(event).size()];
+            for (int j = 0; j < EVENT_SLOTS[event].length; j++)
+                EVENT_SLOTS[event][j] = slots.get(event).get(j);
+        }
+    }
+
+    /**
+     * @param name the phase
+     * @return index of the start time of the phase in an array filled by
+     *         {@link #getPhaseTimes(double, double, double, long[], int)}
+     */
+    public static int getStartIndex(SunPhase.Name name)
+    {
+        return 2 * name.ordinal();
+    }
+
+    /**
+     * @param name the phase
+     * @return index of the end time of the phase in an array filled by
+     *         {@link #getPhaseTimes(double, double, double, long[], int)}
+     */
+    public static int getEndIndex(SunPhase.Name name)
+    {
+        return 2 * name.ordinal() + 1;
+    }
+
+    /**
+     * @param angle altitude of the sun, in degrees. See {@link Constants.SunAngles}
+     * @param rising is the sun rising or setting? Ignored for nadir and solar noon
+     * @return the index of the event
+     */
+    public static int getEvent(double angle, boolean rising)
+    {
+        if (angle == Constants.SunAngles.NADIR)
+            return NADIR_EVENT;
+        if (angle == Constants.SunAngles.SOLAR_NOON)
+            return SOLAR_NOON_EVENT;
+
+        for (int i = 0; i < ANGLES.length; i++)
+        {
+            if (ANGLES[i] == angle)
+                return rising ? 1 + i : EVENT_COUNT - 1 - i;
+        }
+        throw new IllegalArgumentException(angle + " is not a sun phase angle");
+    }
+
+    /**
+     * @param event index of the event
+     * @return altitude of the sun at the event, in degrees. See {@link Constants.SunAngles}
+     */
+    public static double getEventAngle(int event)
+    {
+        if (event == NADIR_EVENT)
+            return Constants.SunAngles.NADIR;
+        if (event == SOLAR_NOON_EVENT)
+            return Constants.SunAngles.SOLAR_NOON;
+        return ANGLES[event < SOLAR_NOON_EVENT ? event - 1 : EVENT_COUNT - 1 - event];
+    }
+
+    /**
+     * @param event index of the event
+     * @return is the sun rising at the event? Nadir is considered rising and solar noon setting
+     */
+    public static boolean isEventRising(int event)
+    {
+        return event < SOLAR_NOON_EVENT;
+    }
+
+    /**
+     * Calculates the start and end times of every sun phase of a day
+     *
+     * @param d the day to calculate for, number of Julian days since Jan 1, 2000. See {@link DateUtils#toDays(long)}
+     * @param lat measured from North, in degrees
+     * @param lng measured from East, in degrees
+     * @param times receives {@link #TIMES_LENGTH} phase times, in milliseconds since the POSIX epoch
+     * @param offset index of the first time in the array
+     */
+    public static void getPhaseTimes(double d, double lat, double lng, long[] times, int offset)
+    {
+        ArrayUtils.checkRange(times.length, offset, TIMES_LENGTH);
+
+        double phi = Constants.TO_RAD * lat;
+        solve(d, Constants.TO_RAD * -lng, Math.sin(phi), Math.cos(phi), MathStrategy.STRICT, times, offset, true, false);
+    }
+
+    /**
+     * Calculates the start and end times of every sun phase of a day
+     *
+     * @param d the day to calculate for, number of Julian days since Jan 1, 2000. See {@link DateUtils#toDays(long)}
+     * @param observer the location to calculate for
+     * @param times receives {@link #TIMES_LENGTH} phase times, in milliseconds since the POSIX epoch
+     * @param offset index of the first time in the array
+     */
+    public static void getPhaseTimes(double d, Observer observer, long[] times, int offset)
+    {
+        ArrayUtils.checkRange(times.length, offset, TIMES_LENGTH);
+        solve(d, observer.getLw(), observer.getSinPhi(), observer.getCosPhi(), MathStrategy.STRICT, times, offset, true, false);
+    }
+
+    /**
+     * Same as {@link #getPhaseTimes(double, Observer, long[], int)}, with the trigonometric functions of a strategy
+     *
+     * @param d the day to calculate for, number of Julian days since Jan 1, 2000. See {@link DateUtils#toDays(long)}
+     * @param observer the location to calculate for
+     * @param math trigonometric functions to use
+     * @param times receives {@link #TIMES_LENGTH} phase times, in milliseconds since the POSIX epoch
+     * @param offset index of the first time in the array
+     */
+    public static void getPhaseTimes(double d, Observer observer, MathStrategy math, long[] times, int offset)
+    {
+        ArrayUtils.checkRange(times.length, offset, TIMES_LENGTH);
+        solve(d, observer.getLw(), observer.getSinPhi(), observer.getCosPhi(), math, times, offset, true, false);
+    }
+
+    /**
+     * Calculates the time of every event of a day
+     *
+     * @param d the day to calculate for, number of Julian days since Jan 1, 2000. See {@link DateUtils#toDays(long)}
+     * @param lat measured from North, in degrees
+     * @param lng measured from East, in degrees
+     * @param times receives {@link #EVENT_COUNT} event times, in milliseconds since the POSIX epoch
+     * @param offset index of the first time in the array
+     */
+    public static void getEventTimes(double d, double lat, double lng, long[] times, int offset)
+    {
+        ArrayUtils.checkRange(times.length, offset, EVENT_COUNT);
+
+        double phi = Constants.TO_RAD * lat;
+        solve(d, Constants.TO_RAD * -lng, Math.sin(phi), Math.cos(phi), MathStrategy.STRICT, times, offset, false, false);
+    }
+
+    /**
+     * Calculates the time of every event of a day
+     *
+     * @param d the day to calculate for, number of Julian days since Jan 1, 2000. See {@link DateUtils#toDays(long)}
+     * @param observer the location to calculate for
+     * @param times receives {@link #EVENT_COUNT} event times, in milliseconds since the POSIX epoch
+     * @param offset index of the first time in the array
+     */
+    public static void getEventTimes(double d, Observer observer, long[] times, int offset)
+    {
+        ArrayUtils.checkRange(times.length, offset, EVENT_COUNT);
+        solve(d, observer.getLw(), observer.getSinPhi(), observer.getCosPhi(), MathStrategy.STRICT, times, offset, false, false);
+    }
+
+    /**
+     * Same as {@link #getEventTimes(double, Observer, long[], int)}, with the trigonometric functions of a strategy
+     *
+     * @param d the day to calculate for, number of Julian days since Jan 1, 2000. See {@link DateUtils#toDays(long)}
+     * @param observer the location to calculate for
+     * @param math trigonometric functions to use
+     * @param times receives {@link #EVENT_COUNT} event times, in milliseconds since the POSIX epoch
+     * @param offset index of the first time in the array
+     */
+    public static void getEventTimes(double d, Observer observer, MathStrategy math, long[] times, int offset)
+    {
+        ArrayUtils.checkRange(times.length, offset, EVENT_COUNT);
+        solve(d, observer.getLw(), observer.getSinPhi(), observer.getCosPhi(), math, times, offset, false, false);
+    }
+
+    /**
+     * Calculates the start and end times of every sun phase of a day, telling which ones do not happen.
+     * <p>
+     *  Times are the same as {@link #getPhaseTimes(double, Observer, long[], int)}, except for the events whose
+     *  altitude the sun does not reach that day: instead of an invalid time they are {@link #ALWAYS_ABOVE} or
+     *  {@link #ALWAYS_BELOW}, decided before any trigonometric function is evaluated for them. Days near the poles
+     *  are therefore cheaper than regular ones.
+     * </p>
+     *
+     * @param d the day to calculate for, number of Julian days since Jan 1, 2000. See {@link DateUtils#toDays(long)}
+     * @param observer the location to calculate for
+     * @param times receives {@link #TIMES_LENGTH} phase times, in milliseconds since the POSIX epoch, or
+     *              {@link #ALWAYS_ABOVE} or {@link #ALWAYS_BELOW}
+     * @param offset index of the first time in the array
+     */
+    public static void getClassifiedPhaseTimes(double d, Observer observer, long[] times, int offset)
+    {
+        ArrayUtils.checkRange(times.length, offset, TIMES_LENGTH);
+        solve(d, observer.getLw(), observer.getSinPhi(), observer.getCosPhi(), MathStrategy.STRICT, times, offset, true, true);
+    }
+
+    /**
+     * Calculates the time of every event of a day, telling which ones do not happen. See
+     * {@link #getClassifiedPhaseTimes(double, Observer, long[], int)}
+     *
+     * @param d the day to calculate for, number of Julian days since Jan 1, 2000. See {@link DateUtils#toDays(long)}
+     * @param observer the location to calculate for
+     * @param times receives {@link #EVENT_COUNT} event times, in milliseconds since the POSIX epoch, or
+     *              {@link #ALWAYS_ABOVE} or {@link #ALWAYS_BELOW}
+     * @param offset index of the first time in the array
+     */
+    public static void getClassifiedEventTimes(double d, Observer observer, long[] times, int offset)
+    {
+        ArrayUtils.checkRange(times.length, offset, EVENT_COUNT);
+        solve(d, observer.getLw(), observer.getSinPhi(), observer.getCosPhi(), MathStrategy.STRICT, times, offset, false, true);
+    }
+
+    /**
+     * @param time time of an event, see {@link #getClassifiedEventTimes(double, Observer, long[], int)}
+     * @return does the event happen?
+     */
+    public static boolean isOccurring(long time)
+    {
+        return time != ALWAYS_ABOVE && time != ALWAYS_BELOW;
+    }
+
+    /**
+     * Copies event times to the phases using them
+     *
+     * @param events {@link #EVENT_COUNT} event times, see {@link #getEventTimes(double, double, double, long[], int)}
+     * @param eventsOffset index of the first event time
+     * @param times receives {@link #TIMES_LENGTH} phase times
+     * @param offset index of the first phase time
+     */
+    public static void toPhaseTimes(long[] events, int eventsOffset, long[] times, int offset)
+    {
+        ArrayUtils.checkRange(events.length, eventsOffset, EVENT_COUNT);
+        ArrayUtils.checkRange(times.length, offset, TIMES_LENGTH);
+
+        for (int event = 0; event < EVENT_COUNT; event++)
+            store(events[eventsOffset + event], event, times, offset, true);
+    }
+
+    /**
+     * @param phaseSlots store phase times rather than event times?
+     * @param classify store {@link #ALWAYS_ABOVE} or {@link #ALWAYS_BELOW} for events that do not happen, rather than
+     *                 the invalid time of their NaN Julian date
+     */
+    private static void solve(double d, double lw, double sinPhi, double cosPhi, MathStrategy math, long[] times, int offset,
+                              boolean phaseSlots, boolean classify)
+    {
+        double n  = TimeUtils.getJulianCycle(d, lw);
+        double ds = TimeUtils.getApproxTransit(0, lw, n);
+
+        double M = SunUtils.getSolarMeanAnomaly(ds);
+        double C = SunUtils.getEquationOfCenter(M, math);
+        double L = SunUtils.getEclipticLongitude(M, C);
+
+        double dec = PositionUtils.getDeclination(L, 0, math);
+        double sinDec = math.sin(dec);
+        double cosDec = math.cos(dec);
+
+        double jnoon = TimeUtils.getSolarTransitJ(ds, M, L, math);
+
+        store(DateUtils.toMillis(jnoon - 0.5), NADIR_EVENT, times, offset, phaseSlots);
+        store(DateUtils.toMillis(jnoon), SOLAR_NOON_EVENT, times, offset, phaseSlots);
+
+        for (int i = 0; i < ANGLES.length; i++)
+        {
+            if (classify)
+            {
+                // argument of the arc cosine of the hour angle, out of [-1, 1] when the sun does not reach the altitude
+                double cosW = (SIN_ANGLES[i] - sinPhi * sinDec) / (cosPhi * cosDec);
+                if (cosW > 1 || cosW < -1)
+                {
+                    long status = cosW > 1 ? ALWAYS_BELOW : ALWAYS_ABOVE;
+                    store(status, 1 + i, times, offset, phaseSlots);
+                    store(status, EVENT_COUNT - 1 - i, times, offset, phaseSlots);
+                    continue;
+                }
+            }
+
+            double w    = TimeUtils.getHourAngle(SIN_ANGLES[i], sinPhi, cosPhi, sinDec, cosDec, math);
+            double jset = TimeUtils.getSolarTransitJ(TimeUtils.getApproxTransit(w, lw, n), M, L, math);
+            store(DateUtils.toMillis(jnoon - (jset - jnoon)), 1 + i, times, offset, phaseSlots);
+            store(DateUtils.toMillis(jset), EVENT_COUNT - 1 - i, times, offset, phaseSlots);
+        }
+    }
+
+    private static void store(long time, int event, long[] times, int offset, boolean phaseSlots)
+    {
+        if (!phaseSlots)
+        {
+            times[offset + event] = time;
+            return;
+        }
+        for (int slot : EVENT_SLOTS[event])
+            times[offset + slot] = time;
+    }
+}
@@ -14,7 +14,32 @@ public class PositionUtils
 
     public static double getRightAscension(double l, double b)
     {
-        return Math.atan2(Math.sin(l) * Math.cos(Constants.EARTH_OBLIQUITY) - Math.tan(b) * Math.sin(Constants.EARTH_OBLIQUITY), Math.cos(l));
+        return Math.atan2(Math.sin(l) * Constants.COS_EARTH_OBLIQUITY - Math.tan(b) * Constants.SIN_EARTH_OBLIQUITY, Math.cos(l));
+    }
+
+    /**
+     * Same as {@link #getRightAscension(double, double)}, with the trigonometric functions of a strategy
+     *
+     * @param l ecliptic longitude of the celestial body, in radians
+     * @param b ecliptic latitude of the celestial body, in radians
+     * @param math trigonometric functions to use
+     * @return right ascension for an Earth observer, in radians
+     */
+    public static double getRightAscension(double l, double b, MathStrategy math)
+    {
+        return math.atan2(math.sin(l) * Constants.COS_EARTH_OBLIQUITY - math.tan(b) * Constants.SIN_EARTH_OBLIQUITY, math.cos(l));
+    }
+
+    /**
+     * Ecliptic longitude of a celestial body, from its equatorial coordinates
+     *
+     * @param ra right ascension, in radians
+     * @param dec declination, in radians
+     * @return ecliptic longitude, in radians, between -PI and PI
+     */
+    public static double getEclipticLongitude(double ra, double dec)
+    {
+        return Math.atan2(Math.sin(ra) * Constants.COS_EARTH_OBLIQUITY + Math.tan(dec) * Constants.SIN_EARTH_OBLIQUITY, Math.cos(ra));
     }
 
     /**
@@ -26,7 +51,20 @@ public class PositionUtils
      */
     public static double getDeclination(double l, double b)
     {
-        return Math.asin(Math.sin(b) * Math.cos(Constants.EARTH_OBLIQUITY) + Math.cos(b) * Math.sin(Constants.EARTH_OBLIQUITY) * Math.sin(l));
+        return Math.asin(Math.sin(b) * Constants.COS_EARTH_OBLIQUITY + Math.cos(b) * Constants.SIN_EARTH_OBLIQUITY * Math.sin(l));
+    }
+
+    /**
+     * Same as {@link #getDeclination(double, double)}, with the trigonometric functions of a strategy
+     *
+     * @param l ecliptic longitude of the celestial body, in radians
+     * @param b ecliptic latitude of the celestial body, in radians
+     * @param math trigonometric functions to use
+     * @return declination for an Earth observer, in radians
+     */
+    public static double getDeclination(double l, double b, MathStrategy math)
+    {
+        return math.asin(math.sin(b) * Constants.COS_EARTH_OBLIQUITY + math.cos(b) * Constants.SIN_EARTH_OBLIQUITY * math.sin(l));
     }
 
     /**
@@ -46,6 +84,37 @@ public class PositionUtils
     //  return           Math.atan2(Math.sin(H), Math.cos(H) * Math.sin(phi) - Math.tan(dec) * Math.cos(phi));
     }
 
+    /**
+     * Same as {@link #getAzimuth(double, double, double)}, with the trigonometric terms already computed
+     *
+     * @param sinH sine of the hour angle
+     * @param cosH cosine of the hour angle
+     * @param sinPhi sine of the latitude
+     * @param cosPhi cosine of the latitude
+     * @param tanDec tangent of the declination
+     * @return the azimuth in radians, with NORTH as zero
+     */
+    public static double getAzimuth(double sinH, double cosH, double sinPhi, double cosPhi, double tanDec)
+    {
+        return Math.PI + Math.atan2(sinH, cosH * sinPhi - tanDec * cosPhi);
+    }
+
+    /**
+     * Same as {@link #getAzimuth(double, double, double, double, double)}, with the arc tangent of a strategy
+     *
+     * @param sinH sine of the hour angle
+     * @param cosH cosine of the hour angle
+     * @param sinPhi sine of the latitude
+     * @param cosPhi cosine of the latitude
+     * @param tanDec tangent of the declination
+     * @param math trigonometric functions to use
+     * @return the azimuth in radians, with NORTH as zero
+     */
+    public static double getAzimuth(double sinH, double cosH, double sinPhi, double cosPhi, double tanDec, MathStrategy math)
+    {
+        return Math.PI + math.atan2(sinH, cosH * sinPhi - tanDec * cosPhi);
+    }
+
     /**
      * The altitude above the horizon of the celestial body (eq. 23)
      *
@@ -59,6 +128,82 @@ public class PositionUtils
         return Math.asin(Math.sin(phi) * Math.sin(dec) + Math.cos(phi) * Math.cos(dec) * Math.cos(H));
     }
 
+    /**
+     * Same as {@link #getAltitude(double, double, double)}, with the trigonometric terms already computed
+     *
+     * @param cosH cosine of the hour angle
+     * @param sinPhi sine of the latitude
+     * @param cosPhi cosine of the latitude
+     * @param sinDec sine of the declination
+     * @param cosDec cosine of the declination
+     * @return the altitude in radians
+     */
+    public static double getAltitude(double cosH, double sinPhi, double cosPhi, double sinDec, double cosDec)
+    {
+        return Math.asin(sinPhi * sinDec + cosPhi * cosDec * cosH);
+    }
+
+    /**
+     * Same as {@link #getAltitude(double, double, double, double, double)}, with the arc sine of a strategy
+     *
+     * @param cosH cosine of the hour angle
+     * @param sinPhi sine of the latitude
+     * @param cosPhi cosine of the latitude
+     * @param sinDec sine of the declination
+     * @param cosDec cosine of the declination
+     * @param math trigonometric functions to use
+     * @return the altitude in radians
+     */
+    public static double getAltitude(double cosH, double sinPhi, double cosPhi, double sinDec, double cosDec, MathStrategy math)
+    {
+        return math.asin(sinPhi * sinDec + cosPhi * cosDec * cosH);
+    }
+
+    /**
+     * Unit vector pointing to the celestial body, in the horizontal frame of the observer. Same direction as
+     * {@link #getAzimuth(double, double, double, double, double)} and
+     * {@link #getAltitude(double, double, double, double, double)}, without their inverse trigonometric functions
+     *
+     * @param sinH sine of the hour angle
+     * @param cosH cosine of the hour angle
+     * @param sinPhi sine of the latitude
+     * @param cosPhi cosine of the latitude
+     * @param sinDec sine of the declination
+     * @param cosDec cosine of the declination
+     * @param direction receives the EAST, NORTH and UP components of the vector
+     * @param offset index of the EAST component in the array
+     */
+    public static void getDirection(double sinH, double cosH, double sinPhi, double cosPhi, double sinDec, double cosDec,
+                                    double[] direction, int offset)
+    {
+        direction[offset]     = -cosDec * sinH;
+        direction[offset + 1] = sinDec * cosPhi - cosDec * cosH * sinPhi;
+        direction[offset + 2] = sinPhi * sinDec + cosPhi * cosDec * cosH;
+    }
+
+    /**
+     * Correction to add to an altitude for the atmospheric refraction
+     *
+     * @param h the altitude, in radians
+     * @return the correction, in radians
+     */
+    public static double getAstroRefraction(double h)
+    {
+        return Constants.TO_RAD * 0.017 / Math.tan(h + Constants.TO_RAD * 10.26 / (h + Constants.TO_RAD * 5.10));
+    }
+
+    /**
+     * Same as {@link #getAstroRefraction(double)}, with the tangent of a strategy
+     *
+     * @param h the altitude, in radians
+     * @param math trigonometric functions to use
+     * @return the correction, in radians
+     */
+    public static double getAstroRefraction(double h, MathStrategy math)
+    {
+        return Constants.TO_RAD * 0.017 / math.tan(h + Constants.TO_RAD * 10.26 / (h + Constants.TO_RAD * 5.10));
+    }
+
     /**
      * Sidereal time, from the perspective of the Earth (eq. 20)
      *
@@ -46,6 +46,18 @@ public class SunUtils
         return Constants.TO_RAD * (C1 * Math.sin(M) + C2 * Math.sin(2 * M) + C3 * Math.sin(3 * M));
     }
 
+    /**
+     * Same as {@link #getEquationOfCenter(double)}, with the trigonometric functions of a strategy
+     *
+     * @param M the mean anomaly, in radians
+     * @param math trigonometric functions to use
+     * @return equation of center, in radians, to three orders
+     */
+    public static double getEquationOfCenter(double M, MathStrategy math)
+    {
+        return Constants.TO_RAD * (C1 * math.sin(M) + C2 * math.sin(2 * M) + C3 * math.sin(3 * M));
+    }
+
     /**
      * Ecliptic longitude of the Sun (eq. 8), as seen from another planet
      *
@@ -75,4 +87,22 @@ public class SunUtils
                 PositionUtils.getRightAscension(L, 0),
                 PositionUtils.getDeclination(L, 0));
     }
+
+    /**
+     * Same as {@link #getSunCoords(double)}, with the trigonometric functions of a strategy
+     *
+     * @param d Julian days since Jan 1, 2000
+     * @param math trigonometric functions to use
+     * @return equatorial coordinates of the sun
+     */
+    public static EquatorialCoordinates getSunCoords(double d, MathStrategy math)
+    {
+        double M = getSolarMeanAnomaly(d);
+        double C = getEquationOfCenter(M, math);
+        double L = getEclipticLongitude(M, C);
+
+        return new EquatorialCoordinates(
+                PositionUtils.getRightAscension(L, 0, math),
+                PositionUtils.getDeclination(L, 0, math));
+    }
 }
@@ -60,6 +60,20 @@ public class TimeUtils
         return DateUtils.J2000 + ds + J1 * Math.sin(M) - 0.0069 * Math.sin(2 * L);
     }
 
+    /**
+     * Same as {@link #getSolarTransitJ(double, double, double)}, with the sine of a strategy
+     *
+     * @param ds approximate first order solar transit, in Julian days
+     * @param M Earth's mean anomaly, in radians
+     * @param L ecliptic longitude of the Sun, in radians
+     * @param math trigonometric functions to use
+     * @return solar transit, in Julian days
+     */
+    public static double getSolarTransitJ(double ds, double M, double L, MathStrategy math)
+    {
+        return DateUtils.J2000 + ds + J1 * math.sin(M) - 0.0069 * math.sin(2 * L);
+    }
+
     /**
      * The hour angle (eq. 24). Indicates how long ago the celestial body has passed through the celestial meridian
      *
@@ -73,4 +87,35 @@ public class TimeUtils
     {
         return Math.acos((Math.sin(h) - Math.sin(phi) * Math.sin(d)) / (Math.cos(phi) * Math.cos(d)));
     }
+
+    /**
+     * Same as {@link #getHourAngle(double, double, double)}, with the trigonometric terms already computed
+     *
+     * @param sinH sine of the altitude above the horizon
+     * @param sinPhi sine of the latitude
+     * @param cosPhi cosine of the latitude
+     * @param sinDec sine of the declination
+     * @param cosDec cosine of the declination
+     * @return hour angle, in radians
+     */
+    public static double getHourAngle(double sinH, double sinPhi, double cosPhi, double sinDec, double cosDec)
+    {
+        return Math.acos((sinH - sinPhi * sinDec) / (cosPhi * cosDec));
+    }
+
+    /**
+     * Same as {@link #getHourAngle(double, double, double, double, double)}, with the arc cosine of a strategy
+     *
+     * @param sinH sine of the altitude above the horizon
+     * @param sinPhi sine of the latitude
+     * @param cosPhi cosine of the latitude
+     * @param sinDec sine of the declination
+     * @param cosDec cosine of the declination
+     * @param math trigonometric functions to use
+     * @return hour angle, in radians
+     */
+    public static double getHourAngle(double sinH, double sinPhi, double cosPhi, double sinDec, double cosDec, MathStrategy math)
+    {
+        return math.acos((sinH - sinPhi * sinDec) / (cosPhi * cosDec));
+    }
 }
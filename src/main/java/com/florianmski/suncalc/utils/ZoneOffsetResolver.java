@@ -0,0 +1,293 @@
+package com.florianmski.suncalc.utils;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.TimeZone;
+
+/**
+ * Offsets of a timezone over a window of time, resolved without looking up the rules of the timezone.
+ * <p>
+ *  The window is split in segments of constant offset, found once when creating the resolver: the offset of
+ *  {@link TimeZone#getOffset(long)} is sampled every day and at the transitions known to {@link ZoneRules}, and every
+ *  change is located to the millisecond by bisection. An offset is then found with the segment of the day of the
+ *  instant, and at most a step to the next segments. Offsets are the same as {@link TimeZone#getOffset(long)} unless
+ *  the timezone changes its offset and changes it back within a day without {@link ZoneRules} knowing it; outside of
+ *  the window the timezone is asked.
+ * </p>
+ * <p>
+ *  The conversions are the same as {@link DateUtils#toJulian(java.util.Calendar)} and
+ *  {@link DateUtils#toDays(java.util.Calendar)} for a calendar in the timezone. A resolver is immutable and can be
+ *  shared by any number of threads.
+ * </p>
+ */
+public final class ZoneOffsetResolver
+{
+    /** Maximum number of days of the window, about 45000 years */
+    public static final int MAX_DAYS = 1 << 24;
+
+    private final TimeZone timeZone;
+    private final long from, to;
+
+    /** first instant of every segment, in milliseconds since the POSIX epoch */
+    private final long[] starts;
+    /** offset of every segment, in milliseconds */
+    private final int[] offsets;
+    /** index of the segment holding the first instant of every day of the window */
+    private final int[] days;
+
+    /**
+     * @param timeZone the timezone, copied
+     * @param from first instant of the window, in milliseconds since the POSIX epoch, inclusive
+     * @param to last instant of the window, in milliseconds since the POSIX epoch, exclusive
+     */
+    public ZoneOffsetResolver(TimeZone timeZone, long from, long to)
+    {
+        if (to <= from)
+            throw new IllegalArgumentException("the window must not be empty, got [" + from + ", " + to + ")");
+        // a negative length overflowed
+        if (to - from < 0 || to - from > (long) MAX_DAYS * DateUtils.DAY_MS)
+            throw new IllegalArgumentException("the window must be shorter than " + MAX_DAYS + " days");
+        long dayCount = (to - from - 1) / DateUtils.DAY_MS + 1;
+
+        this.timeZone = (TimeZone) timeZone.clone();
+        this.from = from;
+        this.to = to;
+
+        long[] samples = getSamples(this.timeZone, from, to, (int) dayCount);
+
+        long[] starts = new long[16];
+        int[] offsets = new int[16];
+        int count = 1;
+        starts[0] = from;
+        offsets[0] = this.timeZone.getOffset(from);
+
+        long previous = from;
+        for (long sample : samples)
+        {
+            int offset = this.timeZone.getOffset(sample);
+            while (offset != offsets[count - 1])
+            {
+                long change = findChange(previous, sample, offsets[count - 1]);
+                if (count == starts.length)
+                {
+                    starts = Arrays.copyOf(starts, 2 * count);
+                    offsets = Arrays.copyOf(offsets, 2 * count);
+                }
+                starts[count] = change;
+                offsets[count] = this.timeZone.getOffset(change);
+                count++;
+                previous = change;
+            }
+            previous = sample;
+        }
+
+        this.starts = Arrays.copyOf(starts, count);
+        this.offsets = Arrays.copyOf(offsets, count);
+
+        this.days = new int[(int) dayCount];
+        for (int day = 0, segment = 0; day < days.length; day++)
+        {
+            long start = from + (long) day * DateUtils.DAY_MS;
+            while (segment + 1 < count && this.starts[segment + 1] <= start)
+                segment++;
+            days[day] = segment;
+        }
+    }
+
+    /**
+     * @return instants to compare the offsets of, sorted and within the window, excluding its first instant
+     */
+    private static long[] getSamples(TimeZone timeZone, long from, long to, int dayCount)
+    {
+        long[] transitions = getTransitions(timeZone, from, to);
+
+        long[] samples = new long[dayCount + 2 * transitions.length];
+        int count = 0;
+        for (int day = 1; day <= dayCount; day++)
+            samples[count++] = Math.min(from + (long) day * DateUtils.DAY_MS, to - 1);
+        for (long transition : transitions)
+        {
+            samples[count++] = transition - 1;
+            samples[count++] = transition;
+        }
+
+        Arrays.sort(samples, 0, count);
+        return Arrays.stream(samples, 0, count).filter(sample -> sample > from).distinct().toArray();
+    }
+
+    /**
+     * @return instants of the transitions of the rules of the timezone within the window, none if it has no rules
+     */
+    private static long[] getTransitions(TimeZone timeZone, long from, long to)
+    {
+        ZoneRules rules;
+        try
+        {
+            rules = timeZone.toZoneId().getRules();
+        }
+        catch (DateTimeException e)
+        {
+            return new long[0];
+        }
+
+        long[] transitions = new long[16];
+        int count = 0;
+        for (ZoneOffsetTransition t = rules.nextTransition(Instant.ofEpochMilli(from - 1));
+             t != null && t.toEpochSecond() * 1000 < to;
+             t = rules.nextTransition(t.getInstant()))
+        {
+            if (count == transitions.length)
+                transitions = Arrays.copyOf(transitions, 2 * count);
+            transitions[count++] = t.toEpochSecond() * 1000;
+        }
+        return Arrays.copyOf(transitions, count);
+    }
+
+    /**
+     * @param low an instant with the offset
+     * @param high a later instant with another offset
+     * @param offset offset at the low instant
+     * @return the first instant after the low one with another offset
+     */
+    private long findChange(long low, long high, int offset)
+    {
+        while (high - low > 1)
+        {
+            long middle = low + (high - low) / 2;
+            if (timeZone.getOffset(middle) == offset)
+                low = middle;
+            else
+                high = middle;
+        }
+        return high;
+    }
+
+    /**
+     * @return a copy of the timezone
+     */
+    public TimeZone getTimeZone()
+    {
+        return (TimeZone) timeZone.clone();
+    }
+
+    /**
+     * @return first instant of the window, in milliseconds since the POSIX epoch, inclusive
+     */
+    public long getFrom()
+    {
+        return from;
+    }
+
+    /**
+     * @return last instant of the window, in milliseconds since the POSIX epoch, exclusive
+     */
+    public long getTo()
+    {
+        return to;
+    }
+
+    /**
+     * @return number of changes of the offset within the window
+     */
+    public int getTransitionCount()
+    {
+        return starts.length - 1;
+    }
+
+    /**
+     * Same as {@link TimeZone#getOffset(long)}
+     *
+     * @param epochMillis milliseconds since the POSIX epoch
+     * @return offset of the timezone at that instant, in milliseconds
+     */
+    public int getOffset(long epochMillis)
+    {
+        if (epochMillis < from || epochMillis >= to)
+            return timeZone.getOffset(epochMillis);
+
+        int segment = days[(int) ((epochMillis - from) / DateUtils.DAY_MS)];
+        while (segment + 1 < starts.length && starts[segment + 1] <= epochMillis)
+            segment++;
+        return offsets[segment];
+    }
+
+    /**
+     * Same as {@link DateUtils#toJulian(java.util.Calendar)} for a calendar in the timezone
+     *
+     * @param epochMillis milliseconds since the POSIX epoch
+     * @return the Julian date
+     */
+    public double toJulian(long epochMillis)
+    {
+        return DateUtils.toJulian(epochMillis + getOffset(epochMillis));
+    }
+
+    /**
+     * Same as {@link DateUtils#toDays(java.util.Calendar)} for a calendar in the timezone
+     *
+     * @param epochMillis milliseconds since the POSIX epoch
+     * @return number of Julian days since Jan 1, 2000
+     */
+    public double toDays(long epochMillis)
+    {
+        return toJulian(epochMillis) - DateUtils.J2000;
+    }
+
+    /**
+     * Converts a slice of instants to Julian dates, same as {@link #toJulian(long)} for each of them
+     *
+     * @param epochMillis milliseconds since the POSIX epoch
+     * @param offset index of the first instant, also used as first index in the output array
+     * @param length number of instants to convert
+     * @param julians receives the Julian date of each instant
+     */
+    public void toJulian(long[] epochMillis, int offset, int length, double[] julians)
+    {
+        convert(epochMillis, offset, length, julians, 0);
+    }
+
+    /**
+     * Converts a slice of instants to Julian days since Jan 1, 2000, same as {@link #toDays(long)} for each of them
+     *
+     * @param epochMillis milliseconds since the POSIX epoch
+     * @param offset index of the first instant, also used as first index in the output array
+     * @param length number of instants to convert
+     * @param days receives the number of Julian days since Jan 1, 2000 of each instant
+     */
+    public void toDays(long[] epochMillis, int offset, int length, double[] days)
+    {
+        convert(epochMillis, offset, length, days, DateUtils.J2000);
+    }
+
+    private void convert(long[] epochMillis, int offset, int length, double[] julians, int epoch)
+    {
+        ArrayUtils.checkRange(epochMillis.length, offset, length);
+        ArrayUtils.checkRange(julians.length, offset, length);
+
+        // instants are often sorted, so the segment of the previous one is tried first
+        int segment = 0;
+        long start = starts[0], end = starts.length > 1 ? starts[1] : to;
+        for (int i = offset, last = offset + length; i < last; i++)
+        {
+            long millis = epochMillis[i];
+            if (millis < start || millis >= end)
+            {
+                if (millis < from || millis >= to)
+                {
+                    julians[i] = DateUtils.toJulian(millis + timeZone.getOffset(millis)) - epoch;
+                    continue;
+                }
+
+                segment = days[(int) ((millis - from) / DateUtils.DAY_MS)];
+                while (segment + 1 < starts.length && starts[segment + 1] <= millis)
+                    segment++;
+                start = starts[segment];
+                end = segment + 1 < starts.length ? starts[segment + 1] : to;
+            }
+            julians[i] = DateUtils.toJulian(millis + offsets[segment]) - epoch;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.florianmski.suncalc;
+
+import com.florianmski.suncalc.utils.Constants;
+import com.florianmski.suncalc.utils.DateUtils;
+import com.florianmski.suncalc.utils.PositionUtils;
+import com.florianmski.suncalc.utils.SunUtils;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernel evaluating the lanes of the largest SIMD registers of the processor at once, with the Vector API. The same
+ * formulas as {@link PositionKernel#SCALAR} are applied in the same order, only the trigonometric functions differ.
+ * Lanes left over at the end of a slice are given to {@link PositionKernel#SCALAR}.
+ */
+final class VectorPositionKernel extends PositionKernel
+{
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    /** Perihelion of the Earth and Kepler's coefficients of its orbit, in degrees, the ones of {@link SunUtils} */
+    private static final double PERIHELION = Constants.TO_RAD * 102.9372;
+    private static final double C1 = 1.9148;
+    private static final double C2 = 0.02;
+    private static final double C3 = 0.0003;
+
+    @Override
+    public String getName()
+    {
+        return "vector";
+    }
+
+    @Override
+    public int getLanes()
+    {
+        return SPECIES.length();
+    }
+
+    @Override
+    void evaluate(double theta, double ra, double dec, double[] lats, double[] lngs, int from, int to,
+                  double[] azimuths, double[] altitudes)
+    {
+        double sinDec = Math.sin(dec);
+        double cosDec = Math.cos(dec);
+        double tanDec = Math.tan(dec);
+
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length())
+        {
+            DoubleVector lw  = DoubleVector.fromArray(SPECIES, lngs, i).neg().mul(Constants.TO_RAD);
+            DoubleVector phi = DoubleVector.fromArray(SPECIES, lats, i).mul(Constants.TO_RAD);
+            DoubleVector H   = DoubleVector.broadcast(SPECIES, theta).sub(lw).sub(ra);
+
+            DoubleVector sinPhi = phi.lanewise(VectorOperators.SIN);
+            DoubleVector cosPhi = phi.lanewise(VectorOperators.COS);
+            DoubleVector cosH   = H.lanewise(VectorOperators.COS);
+
+            sinPhi.mul(sinDec).add(cosPhi.mul(cosDec).mul(cosH))
+                    .lanewise(VectorOperators.ASIN)
+                    .intoArray(altitudes, i);
+            H.lanewise(VectorOperators.SIN)
+                    .lanewise(VectorOperators.ATAN2, cosH.mul(sinPhi).sub(cosPhi.mul(tanDec)))
+                    .add(Math.PI)
+                    .intoArray(azimuths, i);
+        }
+
+        SCALAR.evaluate(theta, ra, dec, lats, lngs, i, to, azimuths, altitudes);
+    }
+
+    @Override
+    void evaluate(long[] epochMillis, int from, int to, double lw, double sinPhi, double cosPhi,
+                  double[] azimuths, double[] altitudes)
+    {
+        // the mean anomaly and the sidereal time are linear in the date, cheaper to get lane by lane
+        double[] anomalies = new double[SPECIES.length()];
+        double[] siderealTimes = new double[SPECIES.length()];
+
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length())
+        {
+            for (int j = 0; j < anomalies.length; j++)
+            {
+                double d = DateUtils.toDays(epochMillis[i + j]);
+                anomalies[j] = SunUtils.getSolarMeanAnomaly(d);
+                siderealTimes[j] = PositionUtils.getSiderealTime(d, lw);
+            }
+
+            DoubleVector M = DoubleVector.fromArray(SPECIES, anomalies, 0);
+            DoubleVector C = M.lanewise(VectorOperators.SIN).mul(C1)
+                    .add(M.mul(2).lanewise(VectorOperators.SIN).mul(C2))
+                    .add(M.mul(3).lanewise(VectorOperators.SIN).mul(C3))
+                    .mul(Constants.TO_RAD);
+            DoubleVector L = M.add(C).add(PERIHELION).add(Math.PI);
+
+            DoubleVector sinL = L.lanewise(VectorOperators.SIN);
+            DoubleVector cosL = L.lanewise(VectorOperators.COS);
+            DoubleVector ra   = sinL.mul(Constants.COS_EARTH_OBLIQUITY).lanewise(VectorOperators.ATAN2, cosL);
+
+            // with an ecliptic latitude of 0 the sine of the declination needs no arc sine
+            DoubleVector sinDec = sinL.mul(Constants.SIN_EARTH_OBLIQUITY);
+            DoubleVector cosDec = sinDec.mul(sinDec).neg().add(1).sqrt();
+
+            DoubleVector H    = DoubleVector.fromArray(SPECIES, siderealTimes, 0).sub(ra);
+            DoubleVector cosH = H.lanewise(VectorOperators.COS);
+
+            sinDec.mul(sinPhi).add(cosDec.mul(cosPhi).mul(cosH))
+                    .lanewise(VectorOperators.ASIN)
+                    .intoArray(altitudes, i);
+            H.lanewise(VectorOperators.SIN)
+                    .lanewise(VectorOperators.ATAN2, cosH.mul(sinPhi).sub(sinDec.div(cosDec).mul(cosPhi)))
+                    .add(Math.PI)
+                    .intoArray(azimuths, i);
+        }
+
+        SCALAR.evaluate(epochMillis, i, to, lw, sinPhi, cosPhi, azimuths, altitudes);
+    }
+}
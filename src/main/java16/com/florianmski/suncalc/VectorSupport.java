@@ -0,0 +1,32 @@
+package com.florianmski.suncalc;
+
+/**
+ * Access to the Vector API kernel, version for Java 16 and later. The Vector API is an incubator module, only
+ * resolved when the application asks for it, e.g. with {@code --add-modules jdk.incubator.vector}.
+ */
+final class VectorSupport
+{
+    private static final String MODULE = "jdk.incubator.vector";
+
+    private VectorSupport()
+    {
+    }
+
+    /**
+     * @return the Vector API kernel, null if not available
+     */
+    static PositionKernel getKernel()
+    {
+        if (ModuleLayer.boot().findModule(MODULE).isEmpty())
+            return null;
+
+        try
+        {
+            return new VectorPositionKernel();
+        }
+        catch (LinkageError e)
+        {
+            return null;
+        }
+    }
+}
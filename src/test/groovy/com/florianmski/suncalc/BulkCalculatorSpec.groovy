@@ -0,0 +1,97 @@
+package com.florianmski.suncalc
+
+import com.florianmski.suncalc.models.Observer
+import com.florianmski.suncalc.utils.PhaseUtils
+
+import java.time.LocalDate
+import java.time.ZoneId
+import java.util.concurrent.ForkJoinPool
+
+/**
+ * Unit tests for the parallel calculations
+ */
+class BulkCalculatorSpec extends spock.lang.Specification {
+
+    static final long TIME = Date.parse("yyyy-MM-dd'T'HH:mm:ssZ", "2013-03-05T10:30:00+0000").time
+    static final LocalDate DATE = LocalDate.of(2013, 3, 5)
+    static final int SIZE = 5000
+
+    ForkJoinPool pool = new ForkJoinPool(4)
+    BulkCalculator calculator = new BulkCalculator(pool, 64)
+    Random random = new Random(42)
+    double[] lats = (0..<SIZE).collect { random.nextDouble() * 180 - 90 } as double[]
+    double[] lngs = (0..<SIZE).collect { random.nextDouble() * 360 - 180 } as double[]
+    List<Observer> observers = (0..<SIZE).collect { new Observer(lats[it], lngs[it]) }
+
+    def cleanup() {
+        pool.shutdown()
+    }
+
+    def "positions match the single moment grid"() {
+
+        given:
+        double[] azimuths = new double[SIZE]
+        double[] altitudes = new double[SIZE]
+        double[] expectedAzimuths = new double[SIZE]
+        double[] expectedAltitudes = new double[SIZE]
+        double[] observerAzimuths = new double[SIZE]
+        double[] observerAltitudes = new double[SIZE]
+
+        when:
+        if (moon) {
+            calculator.getMoonPositions(TIME, lats, lngs, azimuths, altitudes)
+            calculator.getMoonPositions(TIME, observers.spliterator(), observerAzimuths, observerAltitudes)
+            PositionGrid.getMoonPositions(TIME, lats, lngs, expectedAzimuths, expectedAltitudes)
+        } else {
+            calculator.getSunPositions(TIME, lats, lngs, azimuths, altitudes)
+            calculator.getSunPositions(TIME, observers.spliterator(), observerAzimuths, observerAltitudes)
+            PositionGrid.getSunPositions(TIME, lats, lngs, expectedAzimuths, expectedAltitudes)
+        }
+
+        then:
+        azimuths == expectedAzimuths
+        altitudes == expectedAltitudes
+        observerAzimuths == expectedAzimuths
+        observerAltitudes == expectedAltitudes
+
+        where:
+        moon << [false, true]
+    }
+
+    def "phase and event times match the almanac"() {
+
+        given:
+        ZoneId zone = ZoneId.of("Europe/Paris")
+        long[] phases = new long[SIZE * PhaseUtils.TIMES_LENGTH]
+        long[] events = new long[SIZE * PhaseUtils.EVENT_COUNT]
+        long[] observerPhases = new long[phases.length]
+        long[] observerEvents = new long[events.length]
+        long[] expectedPhases = new long[phases.length]
+        long[] expectedEvents = new long[events.length]
+
+        when:
+        calculator.getPhaseTimes(DATE, zone, lats, lngs, phases)
+        calculator.getEventTimes(DATE, lats, lngs, events)
+        calculator.getPhaseTimes(DATE, zone, observers.spliterator(), observerPhases)
+        calculator.getEventTimes(DATE, observers.spliterator(), observerEvents)
+        observers.eachWithIndex { Observer observer, int i ->
+            SolarAlmanac.getPhaseTimes(observer, DATE, 1, zone, expectedPhases, i * PhaseUtils.TIMES_LENGTH)
+            SolarAlmanac.getEventTimes(observer, DATE, 1, expectedEvents, i * PhaseUtils.EVENT_COUNT)
+        }
+
+        then:
+        phases == expectedPhases
+        events == expectedEvents
+        observerPhases == expectedPhases
+        observerEvents == expectedEvents
+    }
+
+    def "unsized spliterators are rejected"() {
+
+        when:
+        calculator.getEventTimes(DATE, observers.stream().filter { true }.spliterator(), new long[SIZE * PhaseUtils.EVENT_COUNT])
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
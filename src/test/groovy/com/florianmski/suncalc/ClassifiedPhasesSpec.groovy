@@ -0,0 +1,111 @@
+package com.florianmski.suncalc
+
+import com.florianmski.suncalc.models.DailySolarEvents
+import com.florianmski.suncalc.models.Observer
+import com.florianmski.suncalc.models.SunPhase
+import com.florianmski.suncalc.utils.Constants
+import com.florianmski.suncalc.utils.DateUtils
+import com.florianmski.suncalc.utils.PhaseUtils
+
+import java.time.LocalDate
+import java.time.ZoneId
+import java.time.ZonedDateTime
+
+/**
+ * Unit tests for the sun phases telling which events do not happen
+ */
+class ClassifiedPhasesSpec extends spock.lang.Specification {
+
+    static final Observer TROMSO = new Observer(69.65, 18.96)
+
+    static long[] classified(LocalDate date, Observer observer) {
+        long[] times = new long[PhaseUtils.EVENT_COUNT]
+        PhaseUtils.getClassifiedEventTimes(DateUtils.toDays(date.toEpochDay() * DateUtils.DAY_MS + DateUtils.DAY_MS.intdiv(2)), observer, times, 0)
+        return times
+    }
+
+    static long[] legacy(LocalDate date, Observer observer) {
+        long[] times = new long[PhaseUtils.EVENT_COUNT]
+        PhaseUtils.getEventTimes(DateUtils.toDays(date.toEpochDay() * DateUtils.DAY_MS + DateUtils.DAY_MS.intdiv(2)), observer, times, 0)
+        return times
+    }
+
+    static long event(long[] times, double angle, boolean rising) {
+        return times[PhaseUtils.getEvent(angle, rising)]
+    }
+
+    def "events of regular days are the same as without classification"() {
+
+        given:
+        Observer observer = new Observer(lat, lng)
+
+        expect:
+        (0..<366).each { int day ->
+            LocalDate date = LocalDate.of(2013, 1, 1).plusDays(day)
+            long[] times = classified(date, observer)
+            long[] expected = legacy(date, observer)
+            (0..<PhaseUtils.EVENT_COUNT).each { int i ->
+                // the legacy calculation turns the NaN of the events that do not happen into January 1970
+                assert times[i] == expected[i] || (!PhaseUtils.isOccurring(times[i]) && expected[i] == 0)
+            }
+        }
+
+        where:
+        lat      | lng
+        48.85    | 2.35
+        -33.8688 | 151.2093
+        69.65    | 18.96
+        89.9     | 0
+    }
+
+    def "polar night with twilight only"() {
+
+        when:
+        long[] times = classified(LocalDate.of(2013, 12, 21), TROMSO)
+
+        then:
+        event(times, Constants.SunAngles.SUNRISE_START, true) == PhaseUtils.ALWAYS_BELOW
+        event(times, Constants.SunAngles.SUNRISE_START, false) == PhaseUtils.ALWAYS_BELOW
+        event(times, Constants.SunAngles.DAYLIGHT_START, true) == PhaseUtils.ALWAYS_BELOW
+        PhaseUtils.isOccurring(event(times, Constants.SunAngles.TWILIGHT_NAUTICAL_EVENING_START, true))
+        PhaseUtils.isOccurring(event(times, Constants.SunAngles.NIGHT_START, false))
+        PhaseUtils.isOccurring(times[PhaseUtils.SOLAR_NOON_EVENT])
+        PhaseUtils.isOccurring(times[PhaseUtils.NADIR_EVENT])
+    }
+
+    def "midnight sun"() {
+
+        when:
+        long[] times = classified(LocalDate.of(2013, 6, 21), TROMSO)
+
+        then:
+        event(times, Constants.SunAngles.SUNRISE_START, true) == PhaseUtils.ALWAYS_ABOVE
+        event(times, Constants.SunAngles.NIGHT_START, false) == PhaseUtils.ALWAYS_ABOVE
+        event(times, Constants.SunAngles.TWILIGHT_CIVIL_MORNING_START, true) == PhaseUtils.ALWAYS_ABOVE
+        // the sun still goes down to about 3 degrees
+        PhaseUtils.isOccurring(event(times, Constants.SunAngles.DAYLIGHT_START, true))
+        PhaseUtils.isOccurring(event(times, Constants.SunAngles.DAYLIGHT_START, false))
+    }
+
+    def "solar events have no date for the phases that do not happen"() {
+
+        given:
+        ZonedDateTime date = ZonedDateTime.of(2013, 12, 21, 12, 0, 0, 0, ZoneId.of("Europe/Oslo"))
+
+        when:
+        DailySolarEvents events = SunCalc.getClassifiedSolarEvents(date, TROMSO)
+        DailySolarEvents fromCalendar = SunCalc.getClassifiedSolarEvents(GregorianCalendar.from(date), TROMSO)
+        SunPhase sunrise = events.getPhase(SunPhase.Name.SUNRISE)
+
+        then:
+        events == fromCalendar
+        !events.hasStart(SunPhase.Name.SUNRISE)
+        events.getStart(SunPhase.Name.SUNRISE) == null
+        sunrise.startDate == null
+        sunrise.endDate == null
+        events.hasStart(SunPhase.Name.NIGHT_MORNING)
+        events.hasEnd(SunPhase.Name.TWILIGHT_NAUTICAL_MORNING)
+        events.getEnd(SunPhase.Name.TWILIGHT_NAUTICAL_MORNING).toEpochMilli() ==
+                SunCalc.getSolarEvents(date, TROMSO).getEndTime(SunPhase.Name.TWILIGHT_NAUTICAL_MORNING)
+    }
+}
@@ -0,0 +1,114 @@
+package com.florianmski.suncalc
+
+import com.florianmski.suncalc.models.Observer
+import com.florianmski.suncalc.models.SunPhase
+import com.florianmski.suncalc.utils.Constants
+import com.florianmski.suncalc.utils.PhaseUtils
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.LocalDate
+import java.util.concurrent.ForkJoinPool
+
+/**
+ * Unit tests for the memory-mapped almanac
+ */
+class MappedAlmanacSpec extends spock.lang.Specification {
+
+    static final Observer[] SITES = [
+            new Observer(48.85, 2.35),
+            new Observer(-33.8688, 151.2093),
+            new Observer(69.65, 18.96),
+            new Observer(0, -78.4678)
+    ]
+    static final LocalDate START = LocalDate.of(2013, 1, 1)
+    static final int DAYS = 400
+
+    Path file
+
+    def setup() {
+        file = Files.createTempFile("almanac", ".bin")
+    }
+
+    def cleanup() {
+        Files.deleteIfExists(file)
+    }
+
+    def "records hold the classified event times to the second"() {
+
+        given:
+        long[] expected = new long[SITES.length * DAYS * PhaseUtils.EVENT_COUNT]
+        SolarAlmanac.getClassifiedEventTimes(SITES, START, DAYS, expected, ForkJoinPool.commonPool())
+
+        when:
+        MappedAlmanac.write(file, SITES, START, DAYS, ForkJoinPool.commonPool())
+        MappedAlmanac almanac = MappedAlmanac.open(file)
+
+        then:
+        Files.size(file) == 32 + 16 * SITES.length + MappedAlmanac.RECORD_SIZE * SITES.length * DAYS
+        almanac.start == START
+        almanac.days == DAYS
+        almanac.sites == SITES.length
+        almanac.getLatitude(2) == 69.65
+        almanac.getLongitude(3) == -78.4678
+        (0..<SITES.length).each { int site ->
+            (0..<DAYS).each { int day ->
+                (0..<PhaseUtils.EVENT_COUNT).each { int event ->
+                    long time = almanac.getEventTime(site, START.toEpochDay() + day, event)
+                    long e = expected[(site * DAYS + day) * PhaseUtils.EVENT_COUNT + event]
+                    assert PhaseUtils.isOccurring(e) ? Math.abs(time - e) <= 500 : time == e
+                }
+            }
+        }
+    }
+
+    def "phases are read from their events"() {
+
+        given:
+        MappedAlmanac.write(file, SITES, START, DAYS, ForkJoinPool.commonPool())
+        MappedAlmanac almanac = MappedAlmanac.open(file)
+        long day = LocalDate.of(2013, 12, 21).toEpochDay()
+
+        expect:
+        almanac.getStartTime(0, day, SunPhase.Name.SUNRISE) ==
+                almanac.getEventTime(0, day, PhaseUtils.getEvent(Constants.SunAngles.SUNRISE_START, true))
+        almanac.getEndTime(0, day, SunPhase.Name.SUNSET) ==
+                almanac.getEventTime(0, day, PhaseUtils.getEvent(Constants.SunAngles.SUNSET_END, false))
+        almanac.getStartTime(2, day, SunPhase.Name.SUNRISE) == PhaseUtils.ALWAYS_BELOW
+        almanac.getStartTime(2, LocalDate.of(2013, 6, 21).toEpochDay(), SunPhase.Name.SUNRISE) == PhaseUtils.ALWAYS_ABOVE
+    }
+
+    def "lookups out of the almanac are rejected"() {
+
+        given:
+        MappedAlmanac.write(file, SITES, START, DAYS, ForkJoinPool.commonPool())
+        MappedAlmanac almanac = MappedAlmanac.open(file)
+
+        when:
+        almanac.getEventTime(site, START.plusDays(day), 0)
+
+        then:
+        thrown(IndexOutOfBoundsException)
+
+        where:
+        site         | day
+        -1           | 0
+        SITES.length | 0
+        0            | -1
+        0            | DAYS
+    }
+
+    def "truncated files are rejected"() {
+
+        given:
+        MappedAlmanac.write(file, SITES, START, DAYS, ForkJoinPool.commonPool())
+        byte[] bytes = Files.readAllBytes(file)
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4))
+
+        when:
+        MappedAlmanac.open(file)
+
+        then:
+        thrown(IOException)
+    }
+}
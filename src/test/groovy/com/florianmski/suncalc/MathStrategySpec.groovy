@@ -0,0 +1,72 @@
+package com.florianmski.suncalc
+
+import com.florianmski.suncalc.models.Observer
+import com.florianmski.suncalc.models.SunPosition
+import com.florianmski.suncalc.utils.DateUtils
+import com.florianmski.suncalc.utils.MathStrategy
+import com.florianmski.suncalc.utils.PhaseUtils
+
+/**
+ * Unit tests for the trigonometric strategies
+ */
+class MathStrategySpec extends spock.lang.Specification {
+
+    static final long TIME = Date.parse("yyyy-MM-dd'T'HH:mm:ssZ", "2013-03-05T10:30:00+0000").time
+
+    def "strict strategy gives the same results as the methods without a strategy"() {
+
+        given:
+        Observer observer = new Observer(50.5, 30.5)
+        long[] times = new long[PhaseUtils.EVENT_COUNT]
+        long[] expected = new long[PhaseUtils.EVENT_COUNT]
+
+        when:
+        PhaseUtils.getEventTimes(DateUtils.toDays(TIME), observer, MathStrategy.STRICT, times, 0)
+        PhaseUtils.getEventTimes(DateUtils.toDays(TIME), observer, expected, 0)
+
+        then:
+        SunCalc.getSunPosition(TIME, observer, MathStrategy.STRICT).azimuth == SunCalc.getSunPosition(TIME, observer).azimuth
+        SunCalc.getSunPosition(TIME, observer, MathStrategy.STRICT).altitude == SunCalc.getSunPosition(TIME, observer).altitude
+        SunCalc.getMoonPosition(TIME, observer, MathStrategy.STRICT).altitude == SunCalc.getMoonPosition(TIME, observer).altitude
+        times == expected
+    }
+
+    def "fast functions are close to the strict ones"() {
+
+        given:
+        MathStrategy fast = MathStrategy.FAST
+
+        expect:
+        (-2000..2000).each { int i ->
+            double a = i / 1000.0
+            assert Math.abs(fast.sin(a * 1000) - Math.sin(a * 1000)) < 1e-10
+            assert Math.abs(fast.cos(a * 1000) - Math.cos(a * 1000)) < 1e-10
+            assert Math.abs(fast.atan2(a, 1 - a) - Math.atan2(a, 1 - a)) < 2e-5
+            if (Math.abs(a) <= 1) {
+                assert Math.abs(fast.asin(a) - Math.asin(a)) < 2e-5
+                assert Math.abs(fast.acos(a) - Math.acos(a)) < 2e-5
+            }
+        }
+        Double.isNaN(fast.acos(1.5))
+        Double.isNaN(fast.asin(Double.NaN))
+    }
+
+    def "fast sun positions are within 0.01 degree"() {
+
+        given:
+        Random random = new Random(42)
+
+        expect:
+        10000.times {
+            long time = TIME + (long) ((random.nextDouble() - 0.5) * 100 * 365 * DateUtils.DAY_MS)
+            Observer observer = new Observer(random.nextDouble() * 178 - 89, random.nextDouble() * 360 - 180)
+            SunPosition strict = SunCalc.getSunPosition(time, observer)
+            SunPosition fast = SunCalc.getSunPosition(time, observer, MathStrategy.FAST)
+
+            double azimuth = Math.abs(strict.azimuth - fast.azimuth)
+            azimuth = Math.min(azimuth, 2 * Math.PI - azimuth) * Math.cos(strict.altitude)
+            assert Math.toDegrees(Math.abs(strict.altitude - fast.altitude)) < 0.01
+            assert Math.toDegrees(azimuth) < 0.01
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.florianmski.suncalc
+
+import com.florianmski.suncalc.metrics.JfrMetricsListener
+import com.florianmski.suncalc.metrics.LatencyHistogram
+import com.florianmski.suncalc.metrics.Metrics
+import com.florianmski.suncalc.metrics.MetricsListener
+import com.florianmski.suncalc.metrics.MetricsRecorder
+import com.florianmski.suncalc.metrics.Operation
+import com.florianmski.suncalc.models.Observer
+import jdk.jfr.Recording
+import jdk.jfr.consumer.RecordedEvent
+import jdk.jfr.consumer.RecordingFile
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.ZoneId
+import java.time.ZoneOffset
+import java.time.ZonedDateTime
+
+/**
+ * Unit tests for the instrumentation of the calculations. Other specs may run at the same time, so the counts are
+ * lower bounds.
+ */
+class MetricsSpec extends spock.lang.Specification {
+
+    def "recorder counts the calls, the invalid times and the cache lookups"() {
+
+        given:
+        MetricsRecorder recorder = new MetricsRecorder()
+        Observer tromso = new Observer(69.65, 18.96)
+        ZonedDateTime winter = ZonedDateTime.of(2013, 12, 21, 12, 0, 0, 0, ZoneId.of("Europe/Oslo"))
+        SolarEphemerisCache cache = new SolarEphemerisCache(4)
+        Metrics.addListener(recorder)
+
+        when:
+        10.times { SunCalc.getSunPosition(1370044800000L + it, tromso) }
+        SunCalc.getSolarEvents(winter, tromso)
+        SunCalc.getClassifiedSolarEvents(winter, tromso)
+        3.times { SunCalc.getSunPosition(1370044800000L + it, tromso, cache) }
+
+        then:
+        Metrics.enabled
+        recorder.getCalls(Operation.SUN_POSITION) >= 13
+        recorder.getCalls(Operation.SUN_PHASES) >= 2
+        recorder.getLatencies(Operation.SUN_POSITION).max > 0
+        // no sunrise nor sunset during the polar night
+        recorder.getInvalidResults(Operation.SUN_PHASES) >= 8
+        recorder.cacheHits >= 2
+        recorder.cacheMisses >= 1
+        recorder.cacheHitRate > 0
+
+        cleanup:
+        Metrics.removeListener(recorder)
+    }
+
+    /**
+     * Other specs may look caches up at the same time, so only the lookups of the current thread are counted
+     *
+     * @param lookups receives the number of misses and hits
+     */
+    static MetricsListener countCacheAccesses(int[] lookups) {
+        Thread thread = Thread.currentThread()
+        return [
+                onCall          : { Operation operation, long nanos -> },
+                onInvalidResults: { Operation operation, int count -> },
+                onCacheAccess   : { boolean hit -> if (Thread.currentThread() == thread) lookups[hit ? 1 : 0]++ }
+        ] as MetricsListener
+    }
+
+    def "each position looks the cache up once"() {
+
+        given:
+        int[] lookups = new int[2]
+        MetricsListener listener = countCacheAccesses(lookups)
+        Observer tromso = new Observer(69.65, 18.96)
+        SolarEphemerisCache cache = new SolarEphemerisCache(4)
+        long[] times = (0..<5).collect { 1370044800000L + it * 60000L } as long[]
+        Metrics.addListener(listener)
+
+        when:
+        3.times { SunCalc.getSunPosition(1370044800000L + it, tromso, cache) }
+        SunCalc.getSunPositions(times, 0, times.length, tromso, cache, new double[5], new double[5])
+
+        then:
+        lookups == [1, 7] as int[]
+
+        cleanup:
+        Metrics.removeListener(listener)
+    }
+
+    def "lookups of the caches private to a calculation are not reported"() {
+
+        given:
+        int[] lookups = new int[2]
+        MetricsListener listener = countCacheAccesses(lookups)
+        double[] paths = new double[SunPathDiagram.getPathsLength(1)]
+        double[] analemmas = new double[SunPathDiagram.getAnalemmasLength(2013)]
+        Metrics.addListener(listener)
+
+        when:
+        SunPathDiagram.getSunPaths(new Observer(48.85, 2.35), 2013, ZoneOffset.ofHours(1), 1, paths, paths.clone(),
+                analemmas, analemmas.clone())
+
+        then:
+        lookups == [0, 0] as int[]
+
+        cleanup:
+        Metrics.removeListener(listener)
+    }
+
+    def "removed listeners are not called anymore"() {
+
+        given:
+        MetricsRecorder recorder = new MetricsRecorder()
+        Metrics.addListener(recorder)
+
+        when:
+        boolean removed = Metrics.removeListener(recorder)
+        SunCalc.getMoonIllumination(1370044800000L)
+
+        then:
+        removed
+        !Metrics.removeListener(recorder)
+        recorder.getCalls(Operation.MOON_ILLUMINATION) == 0
+    }
+
+    def "histogram percentiles are within the precision of the buckets"() {
+
+        given:
+        LatencyHistogram histogram = new LatencyHistogram()
+        (1..100000).each { histogram.record(it * 10L) }
+
+        expect:
+        histogram.count == 100000
+        histogram.max == 1000000
+        Math.abs(histogram.mean - 500005) < 1e-6
+        Math.abs(histogram.getValueAtPercentile(50) - 500000) <= 500000 / 64
+        Math.abs(histogram.getValueAtPercentile(99) - 990000) <= 990000 / 64
+        histogram.getValueAtPercentile(100) == 1000000
+        histogram.getValueAtPercentile(0) == 10
+
+        when:
+        histogram.reset()
+
+        then:
+        histogram.count == 0
+        histogram.getValueAtPercentile(50) == 0
+    }
+
+    def "histogram keeps small values exact and caps huge ones"() {
+
+        given:
+        LatencyHistogram histogram = new LatencyHistogram()
+
+        when:
+        histogram.record(-5)
+        histogram.record(100)
+        histogram.record(Long.MAX_VALUE)
+
+        then:
+        histogram.count == 3
+        histogram.getValueAtPercentile(1) == 0
+        histogram.getValueAtPercentile(50) == 100
+        histogram.max == Long.MAX_VALUE
+    }
+
+    def "slow calls are recorded by the Flight Recorder"() {
+
+        given:
+        JfrMetricsListener listener = new JfrMetricsListener(1000000)
+        Path file = Files.createTempFile("suncalc", ".jfr")
+        Recording recording = new Recording()
+        recording.enable("com.florianmski.suncalc.SlowCall")
+
+        when:
+        recording.start()
+        listener.onCall(Operation.SUN_PHASES, 5000000)
+        listener.onCall(Operation.SUN_POSITION, 1000)
+        recording.stop()
+        recording.dump(file)
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file)
+
+        then:
+        events.size() == 1
+        events[0].getString("operation") == "SUN_PHASES"
+        events[0].getLong("latency") == 5000000
+
+        cleanup:
+        recording?.close()
+        Files.deleteIfExists(file)
+    }
+}
@@ -0,0 +1,85 @@
+package com.florianmski.suncalc
+
+import com.florianmski.suncalc.models.MoonIllumination
+import com.florianmski.suncalc.models.MoonPhase
+import com.florianmski.suncalc.utils.DateUtils
+import com.florianmski.suncalc.utils.MoonUtils
+
+import java.time.Instant
+
+/**
+ * Unit tests for the moon illumination and the principal phases of the moon
+ */
+class MoonPhaseSpec extends spock.lang.Specification {
+
+    static final long HOURS = 3600000L
+    static final long DAYS = 24 * HOURS
+
+    def "illumination fraction is the moon fraction"() {
+
+        expect:
+        (0..<100).each { int i ->
+            long time = Instant.parse("2013-03-05T10:10:57Z").toEpochMilli() + i * 7 * HOURS
+            MoonIllumination illumination = SunCalc.getMoonIllumination(time)
+            assert illumination.fraction == SunCalc.getMoonFraction(time)
+            assert illumination.phase >= 0 && illumination.phase <= 1
+        }
+    }
+
+    def "phases are within the accuracy of the moon coordinates from published instants"() {
+
+        when:
+        List<MoonPhase> phases = SunCalc.getMoonPhases(Instant.parse("2013-03-01T00:00:00Z"), Instant.parse("2013-04-01T00:00:00Z"))
+
+        then:
+        phases*.name == [MoonPhase.Name.LAST_QUARTER, MoonPhase.Name.NEW_MOON, MoonPhase.Name.FIRST_QUARTER, MoonPhase.Name.FULL_MOON]
+        Math.abs(phases[0].time - Instant.parse("2013-03-04T21:53:00Z").toEpochMilli()) < 4 * HOURS
+        Math.abs(phases[1].time - Instant.parse("2013-03-11T19:51:00Z").toEpochMilli()) < 4 * HOURS
+        Math.abs(phases[2].time - Instant.parse("2013-03-19T17:27:00Z").toEpochMilli()) < 4 * HOURS
+        Math.abs(phases[3].time - Instant.parse("2013-03-27T09:27:00Z").toEpochMilli()) < 4 * HOURS
+    }
+
+    def "a century of phases is ordered and lands on the target elongations"() {
+
+        given:
+        long from = Instant.parse("1950-01-01T00:00:00Z").toEpochMilli()
+        long to = Instant.parse("2050-01-01T00:00:00Z").toEpochMilli()
+
+        when:
+        List<MoonPhase> phases = SunCalc.getMoonPhases(from, to)
+
+        then:
+        phases.size() > 4900 && phases.size() < 5000
+        phases.first().time >= from
+        phases.last().time < to
+        (1..<phases.size()).each { int i ->
+            assert phases[i].name.ordinal() == (phases[i - 1].name.ordinal() + 1) % 4
+            long gap = phases[i].time - phases[i - 1].time
+            assert gap > 5 * DAYS && gap < 9 * DAYS
+        }
+        phases.each { MoonPhase phase ->
+            double offset = MoonUtils.getElongation(DateUtils.toDays(phase.time)) - phase.name.elongation
+            offset -= 2 * Math.PI * Math.floor((offset + Math.PI) / (2 * Math.PI))
+            assert Math.abs(offset) < 1e-6
+        }
+    }
+
+    def "new moons are dark and full moons are bright"() {
+
+        when:
+        List<MoonPhase> phases = SunCalc.getMoonPhases(Instant.parse("2013-01-01T00:00:00Z"), Instant.parse("2014-01-01T00:00:00Z"))
+
+        then:
+        phases.each { MoonPhase phase ->
+            MoonIllumination illumination = SunCalc.getMoonIllumination(phase.time)
+            if (phase.name == MoonPhase.Name.NEW_MOON)
+                assert illumination.fraction < 0.01
+            if (phase.name == MoonPhase.Name.FULL_MOON)
+                assert illumination.fraction > 0.99
+            if (phase.name == MoonPhase.Name.FIRST_QUARTER)
+                assert illumination.waxing && Math.abs(illumination.fraction - 0.5) < 0.02
+            if (phase.name == MoonPhase.Name.LAST_QUARTER)
+                assert !illumination.waxing && Math.abs(illumination.fraction - 0.5) < 0.02
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.florianmski.suncalc
+
+import com.florianmski.suncalc.models.MoonTimes
+import com.florianmski.suncalc.models.Observer
+
+import java.time.Instant
+import java.time.LocalDate
+import java.time.ZoneId
+import java.time.ZonedDateTime
+
+/**
+ * Unit tests for the moon rise, set and transit times
+ */
+class MoonTimesSpec extends spock.lang.Specification {
+
+    static final double RISE_ALTITUDE = Math.toRadians(0.133)
+    static final long MINUTES = 60000L
+    static final long HOURS = 60 * MINUTES
+
+    static double altitude(long time, Observer observer) {
+        return SunCalc.getMoonPosition(time, observer).altitude - RISE_ALTITUDE
+    }
+
+    def "rise, set and transit are found within a few minutes"() {
+
+        given:
+        Observer observer = new Observer(lat, lng)
+        ZoneId zone = ZoneId.of(zoneId)
+
+        expect:
+        (0..<60).each { int day ->
+            ZonedDateTime date = LocalDate.of(2013, 3, 1).plusDays(day).atStartOfDay(zone)
+            MoonTimes times = SunCalc.getMoonTimes(date, observer)
+            long start = Instant.from(date).toEpochMilli()
+
+            assert !times.alwaysUp && !times.alwaysDown
+            if (times.riseTime != MoonTimes.NONE) {
+                assert times.riseTime >= start && times.riseTime <= start + 24 * HOURS
+                assert altitude(times.riseTime - 5 * MINUTES, observer) < 0
+                assert altitude(times.riseTime + 5 * MINUTES, observer) > 0
+            }
+            if (times.setTime != MoonTimes.NONE) {
+                assert altitude(times.setTime - 5 * MINUTES, observer) > 0
+                assert altitude(times.setTime + 5 * MINUTES, observer) < 0
+            }
+            if (times.transitTime != MoonTimes.NONE) {
+                assert Math.abs(SunCalc.getMoonPosition(times.transitTime, observer).azimuth - Math.PI) < Math.toRadians(0.5)
+            }
+        }
+
+        where:
+        lat   | lng    | zoneId
+        50.5  | 30.5   | "Europe/Kiev"
+        40.7  | -74.0  | "America/New_York"
+    }
+
+    def "polar days report the moon always up or always down"() {
+
+        given:
+        Observer observer = new Observer(78.2, 15.6)
+        List<MoonTimes> days = (0..<30).collect { SunCalc.getMoonTimes(LocalDate.of(2013, 3, 1).plusDays(it).atStartOfDay(ZoneId.of("UTC")), observer) }
+
+        expect:
+        days.any { it.alwaysUp }
+        days.any { it.alwaysDown }
+        days.eachWithIndex { MoonTimes times, int day ->
+            long start = Instant.from(LocalDate.of(2013, 3, 1).plusDays(day).atStartOfDay(ZoneId.of("UTC"))).toEpochMilli()
+            if (times.alwaysUp || times.alwaysDown) {
+                assert times.rise == null && times.set == null
+                (0..24).each { assert (altitude(start + it * HOURS, observer) > 0) == times.alwaysUp }
+            }
+        }
+    }
+
+    def "calendar and java.time days give the same times"() {
+
+        given:
+        Calendar date = Calendar.getInstance(TimeZone.getTimeZone("Europe/Kiev"))
+        date.set(2013, Calendar.MARCH, 5, 15, 30)
+
+        expect:
+        SunCalc.getMoonTimes(date, 50.5, 30.5) ==
+                SunCalc.getMoonTimes(LocalDate.of(2013, 3, 5).atStartOfDay(ZoneId.of("Europe/Kiev")), 50.5, 30.5)
+    }
+}
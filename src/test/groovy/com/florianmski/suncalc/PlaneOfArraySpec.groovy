@@ -0,0 +1,98 @@
+package com.florianmski.suncalc
+
+import com.florianmski.suncalc.models.Observer
+import com.florianmski.suncalc.models.SunPosition
+import com.florianmski.suncalc.models.Surfaces
+
+/**
+ * Unit tests for the incidence of the sun on tilted surfaces
+ */
+class PlaneOfArraySpec extends spock.lang.Specification {
+
+    static final double[] TILTS = [0, 20, 35, 90, 90, 180]
+    static final double[] AZIMUTHS = [0, 180, 135, 90, 270, 0]
+
+    static double incidence(SunPosition position, double tilt, double azimuth) {
+        double t = Math.toRadians(tilt)
+        return Math.cos(t) * Math.sin(position.altitude) +
+                Math.sin(t) * Math.cos(position.altitude) * Math.cos(position.azimuth - Math.toRadians(azimuth))
+    }
+
+    def "cosines match the sun position"() {
+
+        given:
+        Observer observer = new Observer(lat, lng)
+        Surfaces surfaces = new Surfaces(TILTS, AZIMUTHS)
+        long[] times = new long[48]
+        for (int t = 0; t < times.length; t++)
+            times[t] = 1362441600000L + t * 1800000L
+        double[] cosines = new double[times.length * TILTS.length]
+
+        when:
+        PlaneOfArray.getIncidenceCosines(times, observer, surfaces, cosines)
+
+        then:
+        (0..<times.length).each { int t ->
+            SunPosition position = SunCalc.getSunPosition(times[t], observer)
+            (0..<TILTS.length).each { int s ->
+                assert Math.abs(cosines[t * TILTS.length + s] - incidence(position, TILTS[s], AZIMUTHS[s])) < 1e-12
+            }
+            // a flat surface sees the sun at its altitude, the surface facing down at the opposite
+            assert Math.abs(cosines[t * TILTS.length] - Math.sin(position.altitude)) < 1e-12
+            assert Math.abs(cosines[t * TILTS.length] + cosines[t * TILTS.length + 5]) < 1e-12
+        }
+
+        where:
+        lat      | lng
+        50.5     | 30.5
+        -33.8688 | 151.2093
+        78.2232  | 15.6267
+    }
+
+    def "single moment fills a slice"() {
+
+        given:
+        Observer observer = new Observer(50.5, 30.5)
+        Surfaces surfaces = new Surfaces(TILTS, AZIMUTHS)
+        double[] cosines = new double[TILTS.length + 2]
+        double[] all = new double[TILTS.length]
+        long time = 1362484800000L
+
+        when:
+        PlaneOfArray.getIncidenceCosines(time, observer, surfaces, cosines, 1)
+        PlaneOfArray.getIncidenceCosines([time] as long[], observer, surfaces, all)
+
+        then:
+        cosines[0] == 0
+        cosines[TILTS.length + 1] == 0
+        (0..<TILTS.length).every { cosines[it + 1] == all[it] }
+    }
+
+    def "sun direction is a unit vector"() {
+
+        given:
+        double[] direction = new double[4]
+
+        when:
+        PlaneOfArray.getSunDirection(1362484800000L, new Observer(50.5, 30.5), direction, 1)
+
+        then:
+        direction[0] == 0
+        Math.abs(direction[1] * direction[1] + direction[2] * direction[2] + direction[3] * direction[3] - 1) < 1e-12
+    }
+
+    def "invalid arguments are rejected"() {
+
+        when:
+        new Surfaces([10, 20] as double[], [180] as double[])
+
+        then:
+        thrown(IllegalArgumentException)
+
+        when:
+        PlaneOfArray.getIncidenceCosines(new long[3], new Observer(0, 0), new Surfaces(TILTS, AZIMUTHS), new double[17])
+
+        then:
+        thrown(ArrayIndexOutOfBoundsException)
+    }
+}
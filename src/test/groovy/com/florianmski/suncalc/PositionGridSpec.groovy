@@ -0,0 +1,72 @@
+package com.florianmski.suncalc
+
+import com.florianmski.suncalc.models.MoonPosition
+import com.florianmski.suncalc.models.SunPosition
+
+/**
+ * Unit tests for the many locations, single moment calculations
+ */
+class PositionGridSpec extends spock.lang.Specification {
+
+    static final long TIME = Date.parse("yyyy-MM-dd'T'HH:mm:ssZ", "2013-03-05T10:30:00+0000").time
+
+    static Calendar utc(long time) {
+        Calendar d = Calendar.getInstance(TimeZone.getTimeZone("UTC"))
+        d.setTimeInMillis(time)
+        return d
+    }
+
+    def "flat sun and moon positions match single positions"() {
+
+        given:
+        double[] lats = [50.5, -33.9, 0, 78.2, -89.9]
+        double[] lngs = [30.5, 151.2, 0, 15.6, -120]
+        double[] azimuths = new double[lats.length]
+        double[] altitudes = new double[lats.length]
+
+        when:
+        PositionGrid.getSunPositions(TIME, lats, lngs, azimuths, altitudes)
+
+        then:
+        lats.length.times { int i ->
+            SunPosition expected = SunCalc.getSunPosition(utc(TIME), lats[i], lngs[i])
+            assert azimuths[i] == expected.azimuth
+            assert altitudes[i] == expected.altitude
+        }
+
+        when:
+        PositionGrid.getMoonPositions(TIME, lats, lngs, azimuths, altitudes)
+
+        then:
+        lats.length.times { int i ->
+            MoonPosition expected = SunCalc.getMoonPosition(utc(TIME), lats[i], lngs[i])
+            assert azimuths[i] == expected.azimuth
+            assert altitudes[i] == expected.altitude
+        }
+    }
+
+    def "raster sun positions are stored row by row"() {
+
+        given:
+        int rows = 3
+        int columns = 4
+        double[] azimuths = new double[rows * columns]
+        double[] altitudes = new double[rows * columns]
+
+        when:
+        PositionGrid.getSunPositions(TIME, -45, 45, rows, -180, 90, columns, azimuths, altitudes)
+
+        then:
+        rows.times { int r ->
+            columns.times { int c ->
+                SunPosition expected = SunCalc.getSunPosition(utc(TIME), -45 + r * 45, -180 + c * 90)
+                assert near(azimuths[r * columns + c], expected.azimuth)
+                assert near(altitudes[r * columns + c], expected.altitude)
+            }
+        }
+    }
+
+    private static boolean near(double val1, double val2) {
+        return Math.abs(val1 - val2) < 1e-12
+    }
+}
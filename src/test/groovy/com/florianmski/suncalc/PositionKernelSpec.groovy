@@ -0,0 +1,100 @@
+package com.florianmski.suncalc
+
+import com.florianmski.suncalc.models.Observer
+import com.florianmski.suncalc.models.SunPosition
+
+/**
+ * Unit tests for the batch position kernels
+ */
+class PositionKernelSpec extends spock.lang.Specification {
+
+    static final int COUNT = 101
+
+    static double[] lats = new double[COUNT]
+    static double[] lngs = new double[COUNT]
+    static long[] times = new long[COUNT]
+
+    def setupSpec() {
+        Random random = new Random(42)
+        (0..<COUNT).each { int i ->
+            lats[i] = -90 + 180 * random.nextDouble()
+            lngs[i] = -180 + 360 * random.nextDouble()
+            times[i] = 946684800000L + (long) (random.nextDouble() * 3e12)
+        }
+    }
+
+    def "scalar kernel gives the same positions as the position grid for lanes of locations"() {
+
+        given:
+        double[] azimuths = new double[COUNT + 2]
+        double[] altitudes = new double[COUNT + 2]
+        double[] expectedAzimuths = new double[COUNT + 2]
+        double[] expectedAltitudes = new double[COUNT + 2]
+
+        when:
+        PositionKernel.SCALAR.getSunPositions(1370044800000L, lats, lngs, 1, COUNT - 1, azimuths, altitudes)
+        PositionGrid.getSunPositions(1370044800000L, lats, lngs, 1, COUNT - 1, expectedAzimuths, expectedAltitudes)
+
+        then:
+        azimuths == expectedAzimuths
+        altitudes == expectedAltitudes
+        azimuths[0] == 0
+    }
+
+    def "scalar kernel gives the same positions as SunCalc for lanes of moments"() {
+
+        given:
+        Observer observer = new Observer(48.85, 2.35)
+        double[] azimuths = new double[COUNT]
+        double[] altitudes = new double[COUNT]
+
+        when:
+        PositionKernel.SCALAR.getSunPositions(times, 0, COUNT, observer, azimuths, altitudes)
+
+        then:
+        (0..<COUNT).each { int i ->
+            SunPosition expected = SunCalc.getSunPosition(times[i], observer)
+            assert azimuths[i] == expected.azimuth
+            assert altitudes[i] == expected.altitude
+        }
+    }
+
+    def "default kernel agrees with the scalar kernel"() {
+
+        // the tests run from the class directories, not from the multi-release JAR, so the default kernel is the scalar
+        // one here; VectorPositionKernelSpec runs the Vector API kernel
+        given:
+        PositionKernel kernel = PositionKernel.getDefault()
+        Observer observer = new Observer(-33.8688, 151.2093)
+        double[] azimuths = new double[COUNT]
+        double[] altitudes = new double[COUNT]
+        double[] expectedAzimuths = new double[COUNT]
+        double[] expectedAltitudes = new double[COUNT]
+
+        expect:
+        kernel.lanes >= 1
+
+        when:
+        kernel.getSunPositions(1370044800000L, lats, lngs, 0, COUNT, azimuths, altitudes)
+        PositionKernel.SCALAR.getSunPositions(1370044800000L, lats, lngs, 0, COUNT, expectedAzimuths, expectedAltitudes)
+
+        then:
+        (0..<COUNT).every { Math.abs(azimuths[it] - expectedAzimuths[it]) < 1e-13 && Math.abs(altitudes[it] - expectedAltitudes[it]) < 1e-13 }
+
+        when:
+        kernel.getSunPositions(times, 0, COUNT, observer, azimuths, altitudes)
+        PositionKernel.SCALAR.getSunPositions(times, 0, COUNT, observer, expectedAzimuths, expectedAltitudes)
+
+        then:
+        (0..<COUNT).every { Math.abs(azimuths[it] - expectedAzimuths[it]) < 1e-13 && Math.abs(altitudes[it] - expectedAltitudes[it]) < 1e-13 }
+    }
+
+    def "slices out of the arrays are rejected"() {
+
+        when:
+        PositionKernel.SCALAR.getSunPositions(0L, lats, lngs, 1, COUNT, new double[COUNT], new double[COUNT])
+
+        then:
+        thrown(ArrayIndexOutOfBoundsException)
+    }
+}
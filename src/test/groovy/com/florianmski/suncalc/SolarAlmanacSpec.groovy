@@ -0,0 +1,83 @@
+package com.florianmski.suncalc
+
+import com.florianmski.suncalc.models.Observer
+import com.florianmski.suncalc.utils.PhaseUtils
+
+import java.time.LocalDate
+import java.time.LocalTime
+import java.time.ZoneId
+import java.util.concurrent.ForkJoinPool
+
+/**
+ * Unit tests for the multi-day calculations
+ */
+class SolarAlmanacSpec extends spock.lang.Specification {
+
+    static final LocalDate START = LocalDate.of(2013, 1, 1)
+
+    def "phase times match single day calculations"() {
+
+        given:
+        Observer observer = new Observer(lat, lng)
+        ZoneId zone = ZoneId.of(zoneId)
+        int days = 366
+        long[] times = new long[days * PhaseUtils.TIMES_LENGTH + 3]
+
+        when:
+        SolarAlmanac.getPhaseTimes(observer, START, days, zone, times, 3)
+
+        then:
+        (0..<days).each { int day ->
+            long[] expected = new long[PhaseUtils.TIMES_LENGTH]
+            SunCalc.getPhaseTimes(START.plusDays(day).atTime(LocalTime.NOON).atZone(zone), observer, expected, 0)
+            int index = 3 + day * PhaseUtils.TIMES_LENGTH
+            assert Arrays.copyOfRange(times, index, index + PhaseUtils.TIMES_LENGTH) == expected
+        }
+
+        where:
+        lat       | lng       | zoneId
+        50.5      | 30.5      | "Europe/Kiev"
+        40.7      | -74.0     | "America/New_York"
+        -33.9     | 151.2     | "Australia/Sydney"
+    }
+
+    def "parallel event times of many locations match sequential ones"() {
+
+        given:
+        Observer[] observers = (0..<20).collect { new Observer(-60 + it * 6, -170 + it * 17) } as Observer[]
+        int days = 400
+        long[] times = new long[observers.length * days * PhaseUtils.EVENT_COUNT]
+        ForkJoinPool pool = new ForkJoinPool(4)
+
+        when:
+        SolarAlmanac.getEventTimes(observers, START, days, times, pool)
+
+        then:
+        observers.eachWithIndex { Observer observer, int site ->
+            long[] expected = new long[days * PhaseUtils.EVENT_COUNT]
+            SolarAlmanac.getEventTimes(observer, START, days, expected, 0)
+            int index = site * days * PhaseUtils.EVENT_COUNT
+            assert Arrays.copyOfRange(times, index, index + expected.length) == expected
+        }
+
+        cleanup:
+        pool.shutdown()
+    }
+
+    def "phase times are the event times copied to the phases"() {
+
+        given:
+        Observer observer = new Observer(48.8, 2.3)
+        long[] events = new long[PhaseUtils.EVENT_COUNT]
+        long[] expected = new long[PhaseUtils.TIMES_LENGTH]
+        long[] times = new long[PhaseUtils.TIMES_LENGTH]
+
+        when:
+        SolarAlmanac.getEventTimes(observer, START, 1, events, 0)
+        SolarAlmanac.getPhaseTimes(observer, START, 1, ZoneId.of("UTC"), times, 0)
+        PhaseUtils.toPhaseTimes(events, 0, expected, 0)
+
+        then:
+        (0..<PhaseUtils.TIMES_LENGTH).findAll { times[it] != expected[it] }.size() == 2
+    }
+}
@@ -0,0 +1,63 @@
+package com.florianmski.suncalc
+
+import com.florianmski.suncalc.models.EquatorialCoordinates
+import com.florianmski.suncalc.models.Observer
+import com.florianmski.suncalc.models.SunPosition
+import com.florianmski.suncalc.utils.DateUtils
+import com.florianmski.suncalc.utils.SunUtils
+
+/**
+ * Unit tests for the interpolated sun coordinates
+ */
+class SolarEphemerisCacheSpec extends spock.lang.Specification {
+
+    def "interpolated coordinates stay within the documented error"() {
+
+        given:
+        SolarEphemerisCache cache = new SolarEphemerisCache(16)
+        Random random = new Random(42)
+
+        expect:
+        10000.times {
+            double d = -73000 + random.nextDouble() * 146000
+            EquatorialCoordinates expected = SunUtils.getSunCoords(d)
+            double ra = Math.abs(cache.getRightAscension(d) - expected.rightAscension)
+            assert Math.min(ra, 2 * Math.PI - ra) < SolarEphemerisCache.MAX_ERROR
+            assert Math.abs(cache.getDeclination(d) - expected.declination) < SolarEphemerisCache.MAX_ERROR
+        }
+    }
+
+    def "capacity is rounded up to a power of two"() {
+
+        expect:
+        new SolarEphemerisCache(capacity).capacity == expected
+
+        where:
+        capacity | expected
+        1        | 1
+        5        | 8
+        366      | 512
+    }
+
+    def "cached sun positions are close to direct sun positions"() {
+
+        given:
+        SolarEphemerisCache cache = new SolarEphemerisCache(4)
+        Observer observer = new Observer(50.5, 30.5)
+        long start = Date.parse("yyyy-MM-dd'T'HH:mm:ssZ", "2013-03-04T23:59:00+0000").time
+        long[] times = (0..<100).collect { start + it * 97000L } as long[]
+        double[] azimuths = new double[times.length]
+        double[] altitudes = new double[times.length]
+
+        when:
+        SunCalc.getSunPositions(times, 0, times.length, observer, cache, azimuths, altitudes)
+
+        then:
+        times.eachWithIndex { long time, int i ->
+            SunPosition expected = SunCalc.getSunPosition(time, observer)
+            assert Math.abs(azimuths[i] - expected.azimuth) < 1e-6
+            assert Math.abs(altitudes[i] - expected.altitude) < 1e-6
+            assert Math.abs(SunCalc.getSunPosition(time, observer, cache).altitude - expected.altitude) < 1e-6
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.florianmski.suncalc
+
+import com.florianmski.suncalc.models.Observer
+import com.florianmski.suncalc.utils.Constants
+import com.florianmski.suncalc.utils.DateUtils
+import com.florianmski.suncalc.utils.PhaseUtils
+
+import java.time.LocalDate
+
+/**
+ * Unit tests for the raster tiles of sun events
+ */
+class SolarEventTileSpec extends spock.lang.Specification {
+
+    static long[] events(LocalDate date, double lat, double lng) {
+        long[] times = new long[PhaseUtils.EVENT_COUNT]
+        PhaseUtils.getClassifiedEventTimes(DateUtils.toDays(date.toEpochDay() * DateUtils.DAY_MS + DateUtils.DAY_MS.intdiv(2)),
+                new Observer(lat, lng), times, 0)
+        return times
+    }
+
+    def "cells hold the event times rounded to the minute"() {
+
+        given:
+        LocalDate date = LocalDate.of(2013, 3, 5)
+
+        when:
+        SolarEventTile tile = SolarEventTile.generate(date, 40, 0.5, 5, -10, 0.5, 7)
+
+        then:
+        (0..<5).each { int r ->
+            (0..<7).each { int c ->
+                long[] expected = events(date, 40 + r * 0.5, -10 + c * 0.5)
+                (0..<PhaseUtils.EVENT_COUNT).each { int e ->
+                    assert Math.abs(tile.getEventTime(40 + r * 0.5, -10 + c * 0.5, e) - expected[e]) <= 30000
+                }
+            }
+        }
+    }
+
+    def "interpolated sunrise and twilight stay within the stated error away from the polar circles"() {
+
+        given:
+        LocalDate date = LocalDate.of(2013, 6, 21)
+        SolarEventTile tile = SolarEventTile.generate(date, -60, 1, 121, -170, 1, 341)
+        Random random = new Random(42)
+        long worst = 0
+
+        when:
+        1000.times {
+            double lat = -50 + 100 * random.nextDouble()
+            double lng = -170 + 340 * random.nextDouble()
+            long[] expected = events(date, lat, lng)
+            [Constants.SunAngles.SUNRISE_START, Constants.SunAngles.TWILIGHT_CIVIL_MORNING_START].each { double angle ->
+                [true, false].each { boolean rising ->
+                    int event = PhaseUtils.getEvent(angle, rising)
+                    if (PhaseUtils.isOccurring(expected[event]))
+                        worst = Math.max(worst, Math.abs(tile.getEventTime(lat, lng, angle, rising) - expected[event]))
+                }
+            }
+        }
+
+        then:
+        worst < 45000
+    }
+
+    def "events that do not happen are kept"() {
+
+        given:
+        LocalDate date = LocalDate.of(2013, 12, 21)
+        SolarEventTile tile = SolarEventTile.generate(date, 70, 5, 5, 0, 10, 3)
+
+        expect:
+        tile.getEventTime(80, 10, Constants.SunAngles.SUNRISE_START, true) == PhaseUtils.ALWAYS_BELOW
+        tile.getMinutes(4, 1, PhaseUtils.getEvent(Constants.SunAngles.SUNRISE_START, true)) == SolarEventTile.ALWAYS_BELOW
+        PhaseUtils.isOccurring(tile.getEventTime(72.5, 5, PhaseUtils.SOLAR_NOON_EVENT))
+    }
+
+    def "tiles survive a write and read"() {
+
+        given:
+        SolarEventTile tile = SolarEventTile.generate(LocalDate.of(2013, 3, 5), 60, -1, 10, 20, 1, 12)
+        ByteArrayOutputStream out = new ByteArrayOutputStream()
+
+        when:
+        tile.write(out)
+        SolarEventTile read = SolarEventTile.read(new ByteArrayInputStream(out.toByteArray()))
+
+        then:
+        out.size() == 54 + 10 * 12 * 2 * PhaseUtils.EVENT_COUNT
+        read == tile
+        read.date == LocalDate.of(2013, 3, 5)
+        read.getEventTime(55.5, 25.5, PhaseUtils.SOLAR_NOON_EVENT) == tile.getEventTime(55.5, 25.5, PhaseUtils.SOLAR_NOON_EVENT)
+    }
+
+    def "invalid input is rejected"() {
+
+        given:
+        SolarEventTile tile = SolarEventTile.generate(LocalDate.of(2013, 3, 5), 0, 1, 3, 0, 1, 3)
+
+        when:
+        SolarEventTile.read(new ByteArrayInputStream("not a tile at all".bytes))
+
+        then:
+        thrown(IOException)
+
+        when:
+        tile.getEventTime(2.5, 1, 0)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        when:
+        SolarEventTile.generate(LocalDate.of(2013, 3, 5), 0, 0, 3, 0, 1, 3)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
@@ -0,0 +1,192 @@
+package com.florianmski.suncalc
+
+import com.florianmski.suncalc.models.DailySolarEvents
+import com.florianmski.suncalc.models.Observer
+import com.florianmski.suncalc.models.SunPhase
+
+import java.time.LocalDate
+import java.time.ZoneId
+import java.time.ZonedDateTime
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import java.util.concurrent.TimeUnit
+import java.util.function.LongSupplier
+
+/**
+ * Unit tests for the cache of the sun phases
+ */
+class SolarEventsCacheSpec extends spock.lang.Specification {
+
+    static final ZoneId PARIS = ZoneId.of("Europe/Paris")
+
+    def "cached phases are those of the center of the cell"() {
+
+        given:
+        SolarEventsCache cache = new SolarEventsCache(100)
+        ZonedDateTime date = ZonedDateTime.of(2013, 6, 1, 15, 30, 0, 0, PARIS)
+
+        when:
+        DailySolarEvents first = cache.getSolarEvents(date, 48.8512, 2.3489)
+        DailySolarEvents second = cache.getSolarEvents(date.toLocalDate(), PARIS, 48.8496, 2.3504)
+
+        then:
+        first.is(second)
+        first == SunCalc.getSolarEvents(date, new Observer(48.85, 2.35))
+        cache.hits == 1
+        cache.misses == 1
+        cache.hitRate == 0.5
+        cache.size() == 1
+    }
+
+    def "dates, zones and cells have their own entries"() {
+
+        given:
+        SolarEventsCache cache = new SolarEventsCache(100, 0, TimeUnit.SECONDS, 0.1)
+        LocalDate date = LocalDate.of(2013, 6, 1)
+
+        when:
+        cache.getSolarEvents(date, PARIS, 48.81, 2.31)
+        cache.getSolarEvents(date.plusDays(1), PARIS, 48.81, 2.31)
+        cache.getSolarEvents(date, ZoneId.of("UTC"), 48.81, 2.31)
+        cache.getSolarEvents(date, PARIS, 48.91, 2.31)
+        cache.getSolarEvents(date, PARIS, 48.79, 2.29)
+
+        then:
+        cache.misses == 4
+        cache.hits == 1
+        cache.size() == 4
+    }
+
+    def "least recently used entries are evicted when the cache is full"() {
+
+        given:
+        SolarEventsCache cache = new SolarEventsCache(16)
+        LocalDate date = LocalDate.of(2013, 1, 1)
+
+        when:
+        (0..<100).each { cache.getSolarEvents(date.plusDays(it), PARIS, 48.85, 2.35) }
+
+        then:
+        cache.size() <= 16
+        cache.evictions == 100 - cache.size()
+    }
+
+    def "entries expire"() {
+
+        given:
+        long now = 0
+        SolarEventsCache cache = new SolarEventsCache(100, TimeUnit.MINUTES.toNanos(10), 0.01, { now } as LongSupplier)
+        LocalDate date = LocalDate.of(2013, 6, 1)
+
+        when:
+        cache.getSolarEvents(date, PARIS, 48.85, 2.35)
+        now = TimeUnit.MINUTES.toNanos(9)
+        cache.getSolarEvents(date, PARIS, 48.85, 2.35)
+        now = TimeUnit.MINUTES.toNanos(10)
+        cache.getSolarEvents(date, PARIS, 48.85, 2.35)
+
+        then:
+        cache.hits == 1
+        cache.misses == 2
+        cache.evictions == 1
+    }
+
+    def "expired entries are dropped even when they were read recently"() {
+
+        given:
+        long now = 0
+        // a single stripe
+        SolarEventsCache cache = new SolarEventsCache(16, TimeUnit.MINUTES.toNanos(10), 0.01, { now } as LongSupplier)
+        LocalDate date = LocalDate.of(2013, 6, 1)
+
+        when:
+        cache.getSolarEvents(date, PARIS, 48.85, 2.35)
+        now = TimeUnit.MINUTES.toNanos(6)
+        cache.getSolarEvents(date.plusDays(1), PARIS, 48.85, 2.35)
+        now = TimeUnit.MINUTES.toNanos(7)
+        cache.getSolarEvents(date, PARIS, 48.85, 2.35)
+        now = TimeUnit.MINUTES.toNanos(12)
+        cache.getSolarEvents(date.plusDays(2), PARIS, 48.85, 2.35)
+
+        then:
+        // the first entry is the most recently used but the oldest one
+        cache.size() == 2
+        cache.evictions == 1
+    }
+
+    def "stripes hold no more than the maximum size"() {
+
+        given:
+        // not a multiple of the number of stripes
+        SolarEventsCache cache = new SolarEventsCache(90)
+        LocalDate date = LocalDate.of(2013, 1, 1)
+
+        when:
+        (0..<1000).each { cache.getSolarEvents(date.plusDays(it % 500), PARIS, 48.85 + it.intdiv(500), 2.35) }
+
+        then:
+        cache.size() <= 90
+    }
+
+    def "phases are new for every call"() {
+
+        given:
+        SolarEventsCache cache = new SolarEventsCache(100)
+        ZonedDateTime date = ZonedDateTime.of(2013, 6, 1, 0, 0, 0, 0, PARIS)
+        List<SunPhase> phases = cache.getPhases(date, 48.85, 2.35)
+        long sunrise = phases.find { it.name == SunPhase.Name.SUNRISE }.startDate.timeInMillis
+
+        when:
+        phases.each { it.startDate.timeInMillis = 0 }
+
+        then:
+        cache.getPhases(date, 48.85, 2.35).find { it.name == SunPhase.Name.SUNRISE }.startDate.timeInMillis == sunrise
+    }
+
+    def "concurrent readers get the same phases"() {
+
+        given:
+        SolarEventsCache cache = new SolarEventsCache(64)
+        ExecutorService executor = Executors.newFixedThreadPool(8)
+        LocalDate date = LocalDate.of(2013, 1, 1)
+
+        when:
+        List<Future<Boolean>> results = (0..<8).collect { int thread ->
+            executor.submit({
+                boolean same = true
+                (0..<2000).each { int i ->
+                    LocalDate day = date.plusDays((i * 7 + thread) % 100)
+                    DailySolarEvents events = cache.getSolarEvents(day, PARIS, 48.85, 2.35)
+                    same &= events == SunCalc.getSolarEvents(day.atStartOfDay(PARIS), new Observer(48.85, 2.35))
+                }
+                return same
+            } as Callable<Boolean>)
+        }
+
+        then:
+        results.every { it.get() }
+        cache.hits + cache.misses == 16000
+        cache.size() <= 64
+
+        cleanup:
+        executor.shutdown()
+    }
+
+    def "invalid arguments are rejected"() {
+
+        when:
+        new SolarEventsCache(size, expiry, TimeUnit.SECONDS, resolution)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        size | expiry | resolution
+        0    | 0      | 0.01
+        10   | -1     | 0.01
+        10   | 0      | 0
+        10   | 0      | Double.NaN
+    }
+}
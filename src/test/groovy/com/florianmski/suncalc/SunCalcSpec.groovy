@@ -1,11 +1,16 @@
 package com.florianmski.suncalc
 
+import com.florianmski.suncalc.models.DailySolarEvents
+import com.florianmski.suncalc.models.Observer
 import com.florianmski.suncalc.models.SunPhase
 import com.florianmski.suncalc.models.SunPosition
+import com.florianmski.suncalc.utils.PhaseUtils
 import spock.lang.Shared
 
 import java.text.DateFormat
 import java.text.SimpleDateFormat
+import java.time.ZoneId
+import java.time.ZonedDateTime
 
 import static com.florianmski.suncalc.models.SunPhase.Name.*
 
@@ -113,6 +118,125 @@ class SunCalcSpec extends spock.lang.Specification {
         near(actual.altitude, -0.7000406838781611)
     }
 
+    def "batch sun positions match single sun positions"() {
+
+        given:
+        TimeZone UTC = TimeZone.getTimeZone("UTC")
+        long start = new GregorianCalendar(2013, 2, 5, 0, 0, 0).timeInMillis
+        long[] times = (0..<48).collect { start + it * 1800000L } as long[]
+        double[] azimuths = new double[times.length + 2]
+        double[] altitudes = new double[times.length + 2]
+
+        when:
+        SunCalc.getSunPositions(times, 0, times.length, 50.5, 30.5, azimuths, altitudes)
+
+        then:
+        times.eachWithIndex { long time, int i ->
+            Calendar d = Calendar.getInstance(UTC)
+            d.setTimeInMillis(time)
+            SunPosition expected = SunCalc.getSunPosition(d, 50.5, 30.5)
+            assert azimuths[i] == expected.azimuth
+            assert altitudes[i] == expected.altitude
+        }
+        azimuths[times.length] == 0
+    }
+
+    def "java.time calculations match Calendar calculations in #timeZone"() {
+
+        given:
+        Calendar d = Calendar.getInstance(TimeZone.getTimeZone(timeZone))
+        d.set(2013, Calendar.MARCH, 5, 8, 30, 0)
+        ZonedDateTime date = ZonedDateTime.ofInstant(d.toInstant(), ZoneId.of(timeZone))
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"))
+        utc.setTimeInMillis(d.timeInMillis)
+
+        when:
+        List<SunPhase> phases = SunCalc.getPhases(d, 50.5, 30.5)
+        long[] times = SunCalc.getPhaseTimes(date, 50.5, 30.5)
+
+        then:
+        phases.each {
+            assert times[PhaseUtils.getStartIndex(it.name)] == it.startDate.timeInMillis
+            assert times[PhaseUtils.getEndIndex(it.name)] == it.endDate.timeInMillis
+        }
+
+        and:
+        SunCalc.getSunPosition(d.toInstant(), 50.5, 30.5).altitude == SunCalc.getSunPosition(utc, 50.5, 30.5).altitude
+        SunCalc.getMoonPosition(d.timeInMillis, 50.5, 30.5).azimuth == SunCalc.getMoonPosition(utc, 50.5, 30.5).azimuth
+        SunCalc.getMoonFraction(d.toInstant()) == SunCalc.getMoonFraction(utc)
+
+        where:
+        timeZone           | _
+        'UTC'              | _
+        'Europe/Paris'     | _
+        'America/New_York' | _
+    }
+
+    def "solar events give the same phases as getPhases"() {
+
+        given:
+        Calendar d = TestData.PARIS.d
+
+        when:
+        List<SunPhase> expected = SunCalc.getPhases(d, TestData.PARIS.lat, TestData.PARIS.lon)
+        DailySolarEvents events = SunCalc.getSolarEvents(d, TestData.PARIS.lat, TestData.PARIS.lon)
+
+        then:
+        events.phases.size() == expected.size()
+        expected.each {
+            SunPhase actual = events.getPhase(it.name)
+            assert actual.startDate == it.startDate
+            assert actual.endDate == it.endDate
+            assert actual.startAngle == it.startAngle
+            assert events.getStartTime(it.name) == it.startDate.timeInMillis
+        }
+    }
+
+    def "every phase time comes from an event of the same angle"() {
+
+        given:
+        double d = 5000.25
+        long[] events = new long[PhaseUtils.EVENT_COUNT]
+        long[] times = new long[PhaseUtils.TIMES_LENGTH]
+        long[] copied = new long[PhaseUtils.TIMES_LENGTH]
+
+        when:
+        PhaseUtils.getEventTimes(d, 50.5, 30.5, events, 0)
+        PhaseUtils.getPhaseTimes(d, 50.5, 30.5, times, 0)
+        PhaseUtils.toPhaseTimes(events, 0, copied, 0)
+
+        then:
+        copied == times
+        SunPhase.all().each {
+            int event = PhaseUtils.getEvent(it.startAngle, it.startRise)
+            assert PhaseUtils.getEventAngle(event) == it.startAngle
+            assert times[PhaseUtils.getStartIndex(it.name)] == events[event]
+        }
+        (1..<PhaseUtils.EVENT_COUNT).every { events[it - 1] < events[it] }
+    }
+
+    def "observer calculations match latitude and longitude calculations"() {
+
+        given:
+        Calendar d = TestData.PARIS.d
+        Observer observer = new Observer(TestData.PARIS.lat, TestData.PARIS.lon)
+
+        expect:
+        SunCalc.getSunPosition(d, observer).azimuth == SunCalc.getSunPosition(d, observer.latitude, observer.longitude).azimuth
+        SunCalc.getSunPosition(d, observer).altitude == SunCalc.getSunPosition(d, observer.latitude, observer.longitude).altitude
+        SunCalc.getMoonPosition(d, observer).altitude == SunCalc.getMoonPosition(d, observer.latitude, observer.longitude).altitude
+        SunCalc.getSolarEvents(d, observer) == SunCalc.getSolarEvents(d, observer.latitude, observer.longitude)
+    }
+
+    def "batch sun positions reject slices out of bounds"() {
+
+        when:
+        SunCalc.getSunPositions(new long[4], 2, 3, 50.5, 30.5, new double[4], new double[4])
+
+        then:
+        thrown(ArrayIndexOutOfBoundsException)
+    }
+
     /**
      * port of original SunCalc-JS test
      * https://github.com/mourner/suncalc/blob/master/test.js
@@ -0,0 +1,160 @@
+package com.florianmski.suncalc
+
+import com.florianmski.suncalc.models.Observer
+import com.florianmski.suncalc.models.SunPhase
+import com.florianmski.suncalc.utils.PhaseUtils
+import spock.lang.Unroll
+
+import java.time.Instant
+import java.time.ZoneId
+import java.time.ZonedDateTime
+
+/**
+ * Unit tests for the altitude and azimuth crossings of the sun
+ */
+class SunCrossingsSpec extends spock.lang.Specification {
+
+    static final long MINUTES = 60000L
+    static final long DAYS = 24 * 60 * MINUTES
+
+    static double altitude(long time, Observer observer) {
+        return Math.toDegrees(SunCalc.getSunPosition(time, observer).altitude)
+    }
+
+    static double azimuth(long time, Observer observer) {
+        return Math.toDegrees(SunCalc.getSunPosition(time, observer).azimuth)
+    }
+
+    @Unroll
+    def "next sunrise and sunset at #lat, #lng match the sun phases"() {
+
+        given:
+        Observer observer = new Observer(lat, lng)
+        ZonedDateTime date = ZonedDateTime.of(2013, 3, 5, 0, 0, 0, 0, ZoneId.of(zone))
+        long start = Instant.from(date).toEpochMilli()
+        long[] times = new long[PhaseUtils.TIMES_LENGTH]
+        SunCalc.getPhaseTimes(date.withHour(12), observer, times, 0)
+
+        when:
+        long rise = SunCrossings.getNextAltitudeCrossing(observer, start, -0.833, true, 1)
+        long set = SunCrossings.getNextAltitudeCrossing(observer, start, -0.833, false, 1)
+
+        then:
+        Math.abs(rise - times[PhaseUtils.getStartIndex(SunPhase.Name.SUNRISE)]) < 2 * MINUTES
+        Math.abs(set - times[PhaseUtils.getEndIndex(SunPhase.Name.SUNSET)]) < 2 * MINUTES
+        Math.abs(altitude(rise, observer) + 0.833) < 1e-4
+        Math.abs(altitude(set, observer) + 0.833) < 1e-4
+        altitude(rise + MINUTES, observer) > altitude(rise, observer)
+        altitude(set + MINUTES, observer) < altitude(set, observer)
+
+        where:
+        lat      | lng       | zone
+        50.5     | 30.5      | "Europe/Kiev"
+        40.7143  | -74.006   | "America/New_York"
+        -33.8688 | 151.2093  | "Australia/Sydney"
+        64.1466  | -21.9426  | "Atlantic/Reykjavik"
+    }
+
+    def "consecutive crossings are a day apart and never before the start"() {
+
+        given:
+        Observer observer = new Observer(48.85, 2.35)
+        long time = Instant.parse("2013-06-01T10:00:00Z").toEpochMilli()
+
+        expect:
+        (0..<30).each {
+            long next = SunCrossings.getNextAltitudeCrossing(observer, time, 30, true, 1)
+            assert next >= time
+            assert Math.abs(altitude(next, observer) - 30) < 1e-4
+            if (it > 0)
+                assert Math.abs(next - time - DAYS) < 5 * MINUTES
+            time = next + 1
+        }
+    }
+
+    def "a start moment past the crossing finds the next day"() {
+
+        given:
+        Observer observer = new Observer(48.85, 2.35)
+        long rise = SunCrossings.getNextAltitudeCrossing(observer, Instant.parse("2013-06-01T00:00:00Z").toEpochMilli(), 0, true, 1)
+
+        expect:
+        SunCrossings.getNextAltitudeCrossing(observer, rise, 0, true, 1) == rise
+        SunCrossings.getNextAltitudeCrossing(observer, rise + 1, 0, true, 1) > rise + DAYS - 5 * MINUTES
+        SunCrossings.getNextAltitudeCrossing(observer, rise + 1, 0, true, 0) == SunCrossings.NEVER
+    }
+
+    def "the sun does not rise during the polar night"() {
+
+        given:
+        Observer observer = new Observer(69.65, 18.96)
+        long start = Instant.parse("2013-12-01T12:00:00Z").toEpochMilli()
+
+        when:
+        long rise = SunCrossings.getNextAltitudeCrossing(observer, start, 0, true, 90)
+
+        then:
+        SunCrossings.getNextAltitudeCrossing(observer, start, 0, true, 30) == SunCrossings.NEVER
+        SunCrossings.getNextAltitudeCrossing(observer, start, 10, true, 30) == SunCrossings.NEVER
+        SunCrossings.getNextAltitudeCrossing(observer, start, -10, true, 30) != SunCrossings.NEVER
+        rise > Instant.parse("2014-01-10T00:00:00Z").toEpochMilli()
+        rise < Instant.parse("2014-01-20T00:00:00Z").toEpochMilli()
+        Math.abs(altitude(rise, observer)) < 1e-4
+    }
+
+    @Unroll
+    def "azimuth #target is crossed clockwise at #lat, #lng"() {
+
+        given:
+        Observer observer = new Observer(lat, lng)
+        long start = Instant.parse("2013-03-05T00:00:00Z").toEpochMilli()
+
+        when:
+        long time = SunCrossings.getNextAzimuthCrossing(observer, start, target, true, 1)
+
+        then:
+        time >= start && time < start + 2 * DAYS
+        Math.abs(azimuth(time, observer) - target) < 1e-4
+        azimuth(time + MINUTES, observer) > azimuth(time - MINUTES, observer)
+        SunCrossings.getNextAzimuthCrossing(observer, start, target, false, 3) == SunCrossings.NEVER
+
+        where:
+        lat     | lng      | target
+        50.5    | 30.5     | 210
+        50.5    | 30.5     | 120
+        40.7143 | -74.006  | 180
+        40.7143 | -74.006  | 270
+        64.1466 | -21.9426 | 10
+    }
+
+    def "azimuth of the sun goes back and forth in the tropics"() {
+
+        given:
+        // the sun culminates north of the zenith in June at 10 degrees North
+        Observer observer = new Observer(10, 0)
+        long start = Instant.parse("2013-06-21T00:00:00Z").toEpochMilli()
+
+        when:
+        long east = SunCrossings.getNextAzimuthCrossing(observer, start, 60, false, 1)
+
+        then:
+        east != SunCrossings.NEVER
+        Math.abs(azimuth(east, observer) - 60) < 1e-4
+        azimuth(east + MINUTES, observer) < azimuth(east - MINUTES, observer)
+    }
+
+    def "invalid arguments are rejected"() {
+
+        when:
+        SunCrossings.getNextAltitudeCrossing(new Observer(0, 0), 0, altitude, true, days)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        altitude   | days
+        91         | 1
+        Double.NaN | 1
+        0          | -1
+    }
+}
@@ -0,0 +1,106 @@
+package com.florianmski.suncalc
+
+import com.florianmski.suncalc.models.Observer
+import com.florianmski.suncalc.models.SunPosition
+
+import java.time.Instant
+import java.time.LocalDateTime
+import java.time.ZoneOffset
+import java.util.concurrent.ForkJoinPool
+
+/**
+ * Unit tests for the data of the sun-path diagrams
+ */
+class SunPathDiagramSpec extends spock.lang.Specification {
+
+    static final Observer PARIS = new Observer(48.85, 2.35)
+    static final ZoneOffset CET = ZoneOffset.ofHours(1)
+
+    static SunPosition position(LocalDateTime time) {
+        return SunCalc.getSunPosition(Instant.from(time.atOffset(CET)).toEpochMilli(), PARIS.latitude, PARIS.longitude)
+    }
+
+    def "positions are the same as the sun position at the local times"() {
+
+        given:
+        double[] pathAzimuths = new double[SunPathDiagram.getPathsLength(4)]
+        double[] pathAltitudes = new double[pathAzimuths.length]
+        double[] analemmaAzimuths = new double[SunPathDiagram.getAnalemmasLength(2013)]
+        double[] analemmaAltitudes = new double[analemmaAzimuths.length]
+
+        when:
+        SunPathDiagram.getSunPaths(PARIS, 2013, CET, 4, pathAzimuths, pathAltitudes, analemmaAzimuths, analemmaAltitudes)
+
+        then:
+        pathAzimuths.length == 12 * 24 * 4
+        analemmaAzimuths.length == 24 * 365
+        (0..<pathAzimuths.length).every {
+            int month = it.intdiv(96) + 1
+            int sample = it % 96
+            SunPosition expected = position(LocalDateTime.of(2013, month, 21, 0, 0).plusMinutes(15 * sample))
+            Math.abs(pathAzimuths[it] - expected.azimuth) < 1e-6 && Math.abs(pathAltitudes[it] - expected.altitude) < 1e-6
+        }
+        (0..<analemmaAzimuths.length).every {
+            int hour = it.intdiv(365)
+            int day = it % 365
+            SunPosition expected = position(LocalDateTime.of(2013, 1, 1, hour, 0).plusDays(day))
+            Math.abs(analemmaAzimuths[it] - expected.azimuth) < 1e-6 && Math.abs(analemmaAltitudes[it] - expected.altitude) < 1e-6
+        }
+    }
+
+    def "the sun is highest at solar noon of the summer solstice"() {
+
+        given:
+        double[] pathAzimuths = new double[SunPathDiagram.getPathsLength(60)]
+        double[] pathAltitudes = new double[pathAzimuths.length]
+        double[] analemmaAzimuths = new double[SunPathDiagram.getAnalemmasLength(2013)]
+        double[] analemmaAltitudes = new double[analemmaAzimuths.length]
+
+        when:
+        SunPathDiagram.getSunPaths(PARIS, 2013, CET, 60, pathAzimuths, pathAltitudes, analemmaAzimuths, analemmaAltitudes)
+        List<Double> altitudes = pathAltitudes as List
+        int highest = altitudes.indexOf(altitudes.max())
+
+        then:
+        // June, about 12:50 in CET
+        highest.intdiv(1440) == 5
+        Math.abs(highest % 1440 - 770) < 10
+        Math.abs(Math.toDegrees(altitudes.max()) - (90 - 48.85 + 23.44)) < 0.1
+    }
+
+    def "parallel months are the same as a single pass"() {
+
+        given:
+        double[][] sequential = (0..<4).collect { new double[it < 2 ? SunPathDiagram.getPathsLength(6) : SunPathDiagram.getAnalemmasLength(2016)] }
+        double[][] parallel = (0..<4).collect { new double[it < 2 ? SunPathDiagram.getPathsLength(6) : SunPathDiagram.getAnalemmasLength(2016)] }
+        ForkJoinPool pool = new ForkJoinPool(4)
+
+        when:
+        SunPathDiagram.getSunPaths(PARIS, 2016, CET, 6, sequential[0], sequential[1], sequential[2], sequential[3])
+        SunPathDiagram.getSunPaths(PARIS, 2016, CET, 6, parallel[0], parallel[1], parallel[2], parallel[3], pool)
+
+        then:
+        // a leap year
+        sequential[2].length == 24 * 366
+        (0..<4).every { Arrays.equals(sequential[it], parallel[it]) }
+
+        cleanup:
+        pool.shutdown()
+    }
+
+    def "arrays must hold the whole diagram"() {
+
+        when:
+        SunPathDiagram.getSunPaths(PARIS, 2013, CET, samplesPerHour,
+                new double[paths], new double[paths], new double[analemmas], new double[analemmas])
+
+        then:
+        thrown(exception)
+
+        where:
+        samplesPerHour | paths   | analemmas | exception
+        0              | 0       | 8760      | IllegalArgumentException
+        1              | 287     | 8760      | IndexOutOfBoundsException
+        1              | 288     | 8759      | IndexOutOfBoundsException
+    }
+}
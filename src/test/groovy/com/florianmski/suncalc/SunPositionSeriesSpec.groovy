@@ -0,0 +1,57 @@
+package com.florianmski.suncalc
+
+import com.florianmski.suncalc.models.Observer
+import com.florianmski.suncalc.models.SunPosition
+
+/**
+ * Unit tests for the regularly spaced sun positions
+ */
+class SunPositionSeriesSpec extends spock.lang.Specification {
+
+    static final long START = Date.parse("yyyy-MM-dd'T'HH:mm:ssZ", "2013-03-04T00:00:00+0000").time
+
+    static double angleDifference(double a, double b) {
+        double difference = Math.abs(a - b) % (2 * Math.PI)
+        return Math.min(difference, 2 * Math.PI - difference)
+    }
+
+    def "series matches single positions within the tolerance"() {
+
+        given:
+        Observer observer = new Observer(lat, lng)
+        double[] azimuths = new double[count + 2]
+        double[] altitudes = new double[count + 2]
+
+        when:
+        SunPositionSeries.getSunPositions(START, step, count, observer, tolerance, azimuths, altitudes, 2)
+
+        then:
+        (0..<count).each { int i ->
+            SunPosition expected = SunCalc.getSunPosition(START + i * step, observer)
+            assert Math.abs(altitudes[i + 2] - expected.altitude) < 2 * tolerance
+            assert angleDifference(azimuths[i + 2], expected.azimuth) < 4 * tolerance
+        }
+
+        where:
+        lat       | lng       | step      | count | tolerance
+        50.5      | 30.5      | 60000L    | 4000  | SunPositionSeries.DEFAULT_TOLERANCE
+        -33.9     | 151.2     | 1000L     | 5000  | 1e-8
+        0         | -78.5     | 3600000L  | 2000  | 1e-7
+        78.2      | 15.6      | 86400000L | 400   | 1e-6
+    }
+
+    def "a single moment is the exact position"() {
+
+        given:
+        Observer observer = new Observer(50.5, 30.5)
+        double[] azimuths = new double[1]
+        double[] altitudes = new double[1]
+
+        when:
+        SunPositionSeries.getSunPositions(START, 60000L, 1, observer, azimuths, altitudes)
+
+        then:
+        azimuths[0] == SunCalc.getSunPosition(START, observer).azimuth
+        altitudes[0] == SunCalc.getSunPosition(START, observer).altitude
+    }
+}
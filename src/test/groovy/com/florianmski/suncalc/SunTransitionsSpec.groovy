@@ -0,0 +1,152 @@
+package com.florianmski.suncalc
+
+import com.florianmski.suncalc.models.Observer
+import com.florianmski.suncalc.models.SunPhase
+import com.florianmski.suncalc.models.SunTransition
+import com.florianmski.suncalc.utils.DateUtils
+import com.florianmski.suncalc.utils.PhaseUtils
+
+import java.time.Instant
+import java.time.LocalDate
+import java.util.stream.Collectors
+
+/**
+ * Unit tests for the lazy iterator of sun phase transitions
+ */
+class SunTransitionsSpec extends spock.lang.Specification {
+
+    static final Observer PARIS = new Observer(48.85, 2.35)
+    static final Observer TROMSO = new Observer(69.65, 18.96)
+
+    static long[] classified(LocalDate date, Observer observer) {
+        long[] times = new long[PhaseUtils.EVENT_COUNT]
+        PhaseUtils.getClassifiedEventTimes(DateUtils.toDays(date.toEpochDay() * DateUtils.DAY_MS + DateUtils.DAY_MS.intdiv(2)), observer, times, 0)
+        return times
+    }
+
+    static List<SunTransition> all(Observer observer, LocalDate from, LocalDate to) {
+        long start = from.toEpochDay() * DateUtils.DAY_MS
+        long end = to.toEpochDay() * DateUtils.DAY_MS
+        List<SunTransition> transitions = []
+        SunTransitions.between(observer, start, end).forEachRemaining { transitions << it }
+        return transitions
+    }
+
+    def "transitions are chronological, change phase and only enter phases that do not overlap"() {
+
+        given:
+        Observer observer = new Observer(lat, lng)
+        List<SunTransition> transitions = all(observer, LocalDate.of(2013, 1, 1), LocalDate.of(2014, 1, 1))
+        Set<SunPhase.Name> aggregates = [SunPhase.Name.DAYLIGHT, SunPhase.Name.NIGHT_MORNING, SunPhase.Name.NIGHT_EVENING] as Set
+
+        expect:
+        !transitions.isEmpty()
+        (1..<transitions.size()).each { int i ->
+            assert transitions[i].time > transitions[i - 1].time
+            assert transitions[i].phase != transitions[i - 1].phase
+        }
+        transitions.every { !aggregates.contains(it.phase) }
+
+        where:
+        lat      | lng
+        48.85    | 2.35
+        -33.8688 | 151.2093
+        69.65    | 18.96
+        89.9     | 0
+    }
+
+    def "times are the classified event times of each solar day"() {
+
+        given:
+        Set<Long> expected = new HashSet<>()
+        (0..<40).each { int day ->
+            long[] times = classified(LocalDate.of(2013, 5, 1).plusDays(day), observer)
+            times.each { if (PhaseUtils.isOccurring(it)) expected << it }
+        }
+        List<SunTransition> transitions = all(observer, LocalDate.of(2013, 5, 5), LocalDate.of(2013, 6, 5))
+
+        expect:
+        transitions.size() > 0
+        transitions.every { expected.contains(it.time) }
+
+        where:
+        observer << [PARIS, TROMSO]
+    }
+
+    def "a day with regular events goes through every phase"() {
+
+        given:
+        long[] times = classified(LocalDate.of(2013, 3, 5), PARIS)
+        long nadir = times[PhaseUtils.NADIR_EVENT]
+        SunTransitions transitions = SunTransitions.between(PARIS, nadir, times[PhaseUtils.EVENT_COUNT - 1] + 1)
+        List<SunTransition> list = []
+        transitions.forEachRemaining { list << it }
+
+        expect:
+        list.size() == PhaseUtils.EVENT_COUNT
+        list*.time == times as List
+        list*.phase == [SunPhase.Name.NIGHT_RISING, SunPhase.Name.TWILIGHT_ASTRONOMICAL_MORNING,
+                        SunPhase.Name.TWILIGHT_NAUTICAL_MORNING, SunPhase.Name.TWILIGHT_CIVIL_MORNING,
+                        SunPhase.Name.SUNRISE, SunPhase.Name.GOLDEN_HOUR_MORNING, SunPhase.Name.DAYLIGHT_RISING,
+                        SunPhase.Name.DAYLIGHT_SETTING, SunPhase.Name.GOLDEN_HOUR_EVENING, SunPhase.Name.SUNSET,
+                        SunPhase.Name.TWILIGHT_CIVIL_EVENING, SunPhase.Name.TWILIGHT_NAUTICAL_EVENING,
+                        SunPhase.Name.TWILIGHT_ASTRONOMICAL_EVENING, SunPhase.Name.NIGHT_SETTING]
+    }
+
+    def "the phase at the start is the one entered by the previous transition"() {
+
+        given:
+        long start = Instant.parse("2013-03-05T12:00:00Z").toEpochMilli()
+        List<SunTransition> before = all(PARIS, LocalDate.of(2013, 3, 3), LocalDate.of(2013, 3, 7))
+        SunTransition previous = before.findAll { it.time < start }.last()
+        SunTransition first = before.find { it.time >= start }
+        SunTransitions transitions = SunTransitions.between(PARIS, start, Long.MAX_VALUE)
+
+        expect:
+        transitions.phase == previous.phase
+        transitions.next() == first
+        transitions.phase == first.phase
+    }
+
+    def "the polar night and the midnight sun have no sunrise nor sunset"() {
+
+        given:
+        List<SunPhase.Name> winter = all(TROMSO, LocalDate.of(2013, 12, 20), LocalDate.of(2013, 12, 23))*.phase
+        List<SunPhase.Name> summer = all(TROMSO, LocalDate.of(2013, 6, 20), LocalDate.of(2013, 6, 23))*.phase
+
+        expect:
+        !winter.contains(SunPhase.Name.SUNRISE)
+        !winter.contains(SunPhase.Name.DAYLIGHT_RISING)
+        winter.contains(SunPhase.Name.TWILIGHT_CIVIL_EVENING)
+        !summer.contains(SunPhase.Name.SUNSET)
+        !summer.contains(SunPhase.Name.NIGHT_RISING)
+        summer.contains(SunPhase.Name.DAYLIGHT_SETTING)
+    }
+
+    def "streams are lazy and bounded"() {
+
+        given:
+        Instant from = Instant.parse("2013-03-05T00:00:00Z")
+
+        when:
+        List<SunTransition> unbounded = SunTransitions.stream(PARIS, from).limit(30).collect(Collectors.toList())
+        List<SunTransition> bounded = SunTransitions.stream(PARIS, from, unbounded[20].instant).collect(Collectors.toList())
+
+        then:
+        unbounded.size() == 30
+        bounded == unbounded.subList(0, 20)
+    }
+
+    def "next throws once the end is reached"() {
+
+        given:
+        SunTransitions transitions = SunTransitions.between(PARIS, 0, 1)
+
+        when:
+        transitions.next()
+
+        then:
+        !transitions.hasNext()
+        thrown(NoSuchElementException)
+    }
+}
@@ -0,0 +1,107 @@
+package com.florianmski.suncalc
+
+import com.florianmski.suncalc.utils.Constants
+import spock.lang.Unroll
+
+import java.time.Instant
+
+/**
+ * Unit tests for the terminator and the curves of equal sun altitude
+ */
+class TerminatorSpec extends spock.lang.Specification {
+
+    static final long JUNE = Instant.parse("2013-06-21T09:30:00Z").toEpochMilli()
+    static final long MARCH = Instant.parse("2013-03-05T17:45:00Z").toEpochMilli()
+
+    def "the sun is at the zenith of the subsolar point"() {
+
+        given:
+        Terminator terminator = Terminator.at(Instant.ofEpochMilli(JUNE))
+
+        expect:
+        Math.abs(terminator.subsolarLatitude - 23.44) < 0.01
+        // about 2h30 before noon in Greenwich
+        Math.abs(terminator.subsolarLongitude - 37.5) < 1.5
+        Math.abs(SunCalc.getSunPosition(JUNE, terminator.subsolarLatitude, terminator.subsolarLongitude).altitude
+                - Math.PI / 2) < 1e-6
+    }
+
+    @Unroll
+    def "the sun has an altitude of #angle degrees at every vertex of its curve"() {
+
+        given:
+        Terminator terminator = Terminator.at(time)
+        double[] lats = new double[360]
+        double[] lngs = new double[360]
+
+        when:
+        terminator.getCurve(angle, lats, lngs)
+
+        then:
+        (0..<360).every {
+            lats[it] >= -90 && lats[it] <= 90 && lngs[it] >= -180 && lngs[it] < 180 &&
+                    Math.abs(SunCalc.getSunPosition(time, lats[it], lngs[it]).altitude - angle * Constants.TO_RAD) < 1e-9
+        }
+
+        where:
+        time  | angle
+        JUNE  | Terminator.TERMINATOR
+        JUNE  | Constants.SunAngles.SUNRISE_START
+        JUNE  | Constants.SunAngles.TWILIGHT_NAUTICAL_EVENING_START
+        JUNE  | Constants.SunAngles.NIGHT_START
+        MARCH | Constants.SunAngles.DAYLIGHT_START
+        MARCH | Constants.SunAngles.TWILIGHT_ASTRONOMICAL_EVENING_START
+    }
+
+    def "a curve around the pole crosses every meridian once"() {
+
+        given:
+        Terminator terminator = Terminator.at(JUNE)
+        double[] lats = new double[720]
+        double[] lngs = new double[720]
+
+        when:
+        terminator.getTerminator(lats, lngs)
+        int jumps = (0..<720).count { Math.abs(lngs[(it + 1) % 720] - lngs[it]) > 180 }
+
+        then:
+        // the north pole has the midnight sun, the ring goes once around the Earth
+        jumps == 1
+        lats.every { it < 90 - 23.4 + 1e-6 }
+        (lats as List).max() > 66
+    }
+
+    def "curves are written in a slice of the arrays"() {
+
+        given:
+        Terminator terminator = Terminator.at(MARCH)
+        double[] lats = new double[10]
+        double[] lngs = new double[10]
+        double[] expectedLats = new double[8]
+        double[] expectedLngs = new double[8]
+
+        when:
+        terminator.getCurve(6, lats, lngs, 2, 8)
+        terminator.getCurve(6, expectedLats, expectedLngs)
+
+        then:
+        lats[0] == 0 && lats[1] == 0
+        lats[2..9] == expectedLats as List
+        lngs[2..9] == expectedLngs as List
+        // the first vertex is north of the subsolar point
+        Math.abs(lngs[2] - terminator.subsolarLongitude) < 1e-9
+        Math.abs(lats[2] - terminator.subsolarLatitude - 84) < 1e-9
+    }
+
+    def "altitudes are limited to the zenith and the nadir"() {
+
+        when:
+        Terminator.at(JUNE).getCurve(angle, new double[4], new double[4])
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        angle << [-90.5, 91, Double.NaN]
+    }
+}
@@ -0,0 +1,87 @@
+package com.florianmski.suncalc
+
+import com.florianmski.suncalc.models.Observer
+import spock.lang.Requires
+import spock.lang.Shared
+
+/**
+ * Unit tests for the Vector API kernel, only run by the java16 profile, which puts its classes on the class path
+ */
+@Requires({ Boolean.getBoolean('suncalc.java16') })
+class VectorPositionKernelSpec extends spock.lang.Specification {
+
+    static final int COUNT = 1001
+
+    /** Maximum difference with the scalar kernel, in radians: about 1e-14 once the trigonometric functions are compiled */
+    static final double TOLERANCE = 1e-13
+
+    @Shared PositionKernel kernel
+    @Shared double[] lats = new double[COUNT]
+    @Shared double[] lngs = new double[COUNT]
+    @Shared long[] times = new long[COUNT]
+
+    def setupSpec() {
+        // package-private and compiled for Java 16, so not visible to the compiler of the tests
+        def constructor = Class.forName('com.florianmski.suncalc.VectorPositionKernel').getDeclaredConstructor()
+        constructor.accessible = true
+        kernel = (PositionKernel) constructor.newInstance()
+
+        Random random = new Random(42)
+        (0..<COUNT).each { int i ->
+            lats[i] = -90 + 180 * random.nextDouble()
+            lngs[i] = -180 + 360 * random.nextDouble()
+            times[i] = 946684800000L + (long) (random.nextDouble() * 3e12)
+        }
+    }
+
+    static double maxDifference(double[] a, double[] b) {
+        double max = 0
+        for (int i = 0; i < a.length; i++)
+            max = Math.max(max, Math.abs(a[i] - b[i]))
+        return max
+    }
+
+    def "the vector kernel evaluates lanes of SIMD registers"() {
+
+        expect:
+        kernel.name == 'vector'
+        kernel.lanes >= 1
+    }
+
+    def "the vector kernel agrees with the scalar kernel for lanes of locations"() {
+
+        given:
+        double[] azimuths = new double[COUNT + 1]
+        double[] altitudes = new double[COUNT + 1]
+        double[] expectedAzimuths = new double[COUNT + 1]
+        double[] expectedAltitudes = new double[COUNT + 1]
+
+        when:
+        // an odd slice, with lanes left over for the scalar kernel
+        kernel.getSunPositions(1370044800000L, lats, lngs, 1, COUNT - 1, azimuths, altitudes)
+        PositionKernel.SCALAR.getSunPositions(1370044800000L, lats, lngs, 1, COUNT - 1, expectedAzimuths, expectedAltitudes)
+
+        then:
+        azimuths[0] == 0
+        maxDifference(azimuths, expectedAzimuths) < TOLERANCE
+        maxDifference(altitudes, expectedAltitudes) < TOLERANCE
+    }
+
+    def "the vector kernel agrees with the scalar kernel for lanes of moments"() {
+
+        given:
+        Observer observer = new Observer(-33.8688, 151.2093)
+        double[] azimuths = new double[COUNT]
+        double[] altitudes = new double[COUNT]
+        double[] expectedAzimuths = new double[COUNT]
+        double[] expectedAltitudes = new double[COUNT]
+
+        when:
+        kernel.getSunPositions(times, 0, COUNT, observer, azimuths, altitudes)
+        PositionKernel.SCALAR.getSunPositions(times, 0, COUNT, observer, expectedAzimuths, expectedAltitudes)
+
+        then:
+        maxDifference(azimuths, expectedAzimuths) < TOLERANCE
+        maxDifference(altitudes, expectedAltitudes) < TOLERANCE
+    }
+}
@@ -0,0 +1,143 @@
+package com.florianmski.suncalc
+
+import com.florianmski.suncalc.utils.DateUtils
+import com.florianmski.suncalc.utils.ZoneOffsetResolver
+import spock.lang.Unroll
+
+import java.time.Instant
+import java.time.ZoneId
+import java.time.zone.ZoneOffsetTransition
+import java.time.zone.ZoneRules
+
+/**
+ * Unit tests for the resolution of the timezone offsets
+ */
+class ZoneOffsetResolverSpec extends spock.lang.Specification {
+
+    static final long FROM = Instant.parse("1900-01-01T00:00:00Z").toEpochMilli()
+    static final long TO = Instant.parse("2050-01-01T00:00:00Z").toEpochMilli()
+
+    static Calendar calendar(TimeZone timeZone, long millis) {
+        Calendar calendar = Calendar.getInstance(timeZone)
+        calendar.setTimeInMillis(millis)
+        return calendar
+    }
+
+    @Unroll
+    def "offsets and Julian dates are the same as the timezone around every transition of #id"() {
+
+        given:
+        TimeZone timeZone = TimeZone.getTimeZone(id)
+        ZoneOffsetResolver resolver = new ZoneOffsetResolver(timeZone, FROM, TO)
+        ZoneRules rules = ZoneId.of(id).getRules()
+
+        expect:
+        resolver.transitionCount > 0
+        for (ZoneOffsetTransition t = rules.nextTransition(Instant.ofEpochMilli(FROM));
+             t != null && t.toEpochSecond() * 1000 < TO;
+             t = rules.nextTransition(t.getInstant())) {
+            long transition = t.toEpochSecond() * 1000
+            for (long millis : [transition - 3600000, transition - 1, transition, transition + 1, transition + 3600000]) {
+                assert resolver.getOffset(millis) == timeZone.getOffset(millis)
+                assert resolver.toJulian(millis) == DateUtils.toJulian(calendar(timeZone, millis))
+                assert resolver.toDays(millis) == DateUtils.toDays(calendar(timeZone, millis))
+            }
+        }
+
+        where:
+        id << ["Europe/Paris", "America/New_York", "Australia/Lord_Howe", "Asia/Kolkata", "Pacific/Apia",
+               "America/Sao_Paulo", "Africa/Casablanca", "Europe/Moscow"]
+    }
+
+    def "random instants in and out of the window have the offsets of the timezone"() {
+
+        given:
+        TimeZone timeZone = TimeZone.getTimeZone("Europe/London")
+        long from = Instant.parse("2000-01-01T00:00:00Z").toEpochMilli()
+        long to = Instant.parse("2030-01-01T00:00:00Z").toEpochMilli()
+        ZoneOffsetResolver resolver = new ZoneOffsetResolver(timeZone, from, to)
+        Random random = new Random(42)
+
+        expect:
+        resolver.transitionCount == 60
+        (0..<10000).every {
+            long millis = from - (to - from).intdiv(2) + (long) (2 * (to - from) * random.nextDouble())
+            resolver.getOffset(millis) == timeZone.getOffset(millis)
+        }
+    }
+
+    def "a timezone without rules of its own is sampled"() {
+
+        given:
+        // DST from the last Sunday of March to the last Sunday of October, at 1:00 standard time
+        TimeZone timeZone = new SimpleTimeZone(3600000, "Custom",
+                Calendar.MARCH, -1, Calendar.SUNDAY, 3600000, SimpleTimeZone.STANDARD_TIME,
+                Calendar.OCTOBER, -1, Calendar.SUNDAY, 3600000, SimpleTimeZone.STANDARD_TIME, 3600000)
+        long from = Instant.parse("2010-01-01T00:00:00Z").toEpochMilli()
+        long to = Instant.parse("2020-01-01T00:00:00Z").toEpochMilli()
+        ZoneOffsetResolver resolver = new ZoneOffsetResolver(timeZone, from, to)
+        long spring = Instant.parse("2013-03-31T00:00:00Z").toEpochMilli()
+
+        expect:
+        resolver.transitionCount == 20
+        resolver.getOffset(spring - 1) == 3600000
+        resolver.getOffset(spring) == 7200000
+        resolver.getOffset(spring) == timeZone.getOffset(spring)
+    }
+
+    def "bulk conversions are the same as one instant at a time"() {
+
+        given:
+        TimeZone timeZone = TimeZone.getTimeZone("America/New_York")
+        long from = Instant.parse("2013-01-01T00:00:00Z").toEpochMilli()
+        ZoneOffsetResolver resolver = new ZoneOffsetResolver(timeZone, from, from + 365L * DateUtils.DAY_MS)
+        Random random = new Random(7)
+        long[] millis = new long[2000]
+        for (int i = 0; i < 1000; i++)
+            millis[i] = from - DateUtils.DAY_MS + i * 9L * 3600000       // sorted, leaving the window on both sides
+        for (int i = 1000; i < millis.length; i++)
+            millis[i] = from + (long) (400L * DateUtils.DAY_MS * random.nextDouble())
+        double[] julians = new double[millis.length]
+        double[] days = new double[millis.length]
+
+        when:
+        resolver.toJulian(millis, 0, millis.length, julians)
+        resolver.toDays(millis, 1, millis.length - 1, days)
+
+        then:
+        (0..<millis.length).every { julians[it] == DateUtils.toJulian(calendar(timeZone, millis[it])) }
+        days[0] == 0
+        (1..<millis.length).every { days[it] == DateUtils.toDays(calendar(timeZone, millis[it])) }
+    }
+
+    def "the timezone is copied"() {
+
+        given:
+        TimeZone timeZone = new SimpleTimeZone(3600000, "Custom")
+        ZoneOffsetResolver resolver = new ZoneOffsetResolver(timeZone, 0, DateUtils.DAY_MS)
+
+        when:
+        timeZone.setRawOffset(0)
+
+        then:
+        resolver.getOffset(1000) == 3600000
+        resolver.getOffset(-1000) == 3600000
+        resolver.timeZone.rawOffset == 3600000
+    }
+
+    def "windows must not be empty nor too long"() {
+
+        when:
+        new ZoneOffsetResolver(TimeZone.getTimeZone("UTC"), from, to)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        from           | to
+        0              | 0
+        10             | 0
+        Long.MIN_VALUE | Long.MAX_VALUE
+        0              | (ZoneOffsetResolver.MAX_DAYS + 1L) * DateUtils.DAY_MS
+    }
+}